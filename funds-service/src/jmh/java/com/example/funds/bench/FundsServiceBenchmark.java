@@ -0,0 +1,142 @@
+package com.example.funds.bench;
+
+import com.example.funds.FundsApplication;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link FundsService} operations against H2 in MySQL mode, for uniform and
+ * Zipf-skewed wallet selection. The nested classes run the same benchmarks at 1, 4 and 16 threads
+ * so contention on hot wallets shows up as a drop in scaling.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public abstract class FundsServiceBenchmark {
+    private static final long OPENING_BALANCE = Money.of(new BigDecimal("1000000000000"));
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    /**
+     * The application context and its wallets, shared by every thread of a trial.
+     */
+    @State(Scope.Benchmark)
+    public static class Funds {
+        @Param({"uniform", "zipf"})
+        public String skew;
+
+        @Param({"1000"})
+        public int wallets;
+
+        @Param({"1.1"})
+        public double zipfExponent;
+
+        private ConfigurableApplicationContext context;
+        private FundsService fundsService;
+        private WalletPicker picker;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(FundsApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--spring.datasource.url=jdbc:h2:mem:funds-bench;MODE=MySQL;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.hikari.maximum-pool-size=32",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.flyway.enabled=false",
+                            "--logging.level.root=WARN");
+            fundsService = context.getBean(FundsService.class);
+            WalletRepository walletRepository = context.getBean(WalletRepository.class);
+            List<Wallet> created = new ArrayList<>(wallets);
+            for (int i = 0; i < wallets; i++) {
+                Wallet wallet = new Wallet();
+                wallet.setCustomerId((long) i);
+                wallet.setCurrencyCode("USD");
+                wallet.setBalance(OPENING_BALANCE);
+                created.add(wallet);
+            }
+            long[] walletIds = walletRepository.saveAll(created).stream().mapToLong(Wallet::getId).toArray();
+            picker = WalletPicker.of(skew, walletIds, zipfExponent);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    /**
+     * A transaction to reverse, created outside the measured region before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class Reversible {
+        String referenceId;
+
+        @Setup(Level.Invocation)
+        public void credit(Funds funds) {
+            referenceId = funds.fundsService.credit(funds.picker.next(), "USD", AMOUNT)
+                    .getReferenceId().toString();
+        }
+    }
+
+    @Benchmark
+    public Transaction credit(Funds funds) {
+        return funds.fundsService.credit(funds.picker.next(), "USD", AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction debit(Funds funds) {
+        return funds.fundsService.debit(funds.picker.next(), "USD", AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction transfer(Funds funds) {
+        long source = funds.picker.next();
+        return funds.fundsService.transfer(source, funds.picker.nextOtherThan(source), "USD", AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction reverse(Funds funds, Reversible reversible) {
+        return funds.fundsService.reverse(reversible.referenceId);
+    }
+
+    @Threads(1)
+    public static class Threads1 extends FundsServiceBenchmark {
+    }
+
+    @Threads(4)
+    public static class Threads4 extends FundsServiceBenchmark {
+    }
+
+    @Threads(16)
+    public static class Threads16 extends FundsServiceBenchmark {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.funds.bench;
+
+import com.example.funds.dto.TransactionRequest;
+import com.example.funds.dto.TransactionResponse;
+import com.example.funds.dto.TransferRequest;
+import com.example.funds.dto.TransferResponse;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the request and response handling around each funds call: reading the request
+ * bodies, mapping the entity to its response record and writing the response, using an
+ * ObjectMapper configured the way Spring Boot configures the MVC one.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+    private static final byte[] CREDIT_JSON =
+            "{\"walletId\":42,\"currencyCode\":\"USD\",\"amount\":125.50}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TRANSFER_JSON =
+            "{\"sourceWalletId\":42,\"targetWalletId\":43,\"currencyCode\":\"USD\",\"amount\":125.50}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader transactionRequestReader;
+    private ObjectReader transferRequestReader;
+    private ObjectWriter writer;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transactionRequestReader = objectMapper.readerFor(TransactionRequest.class);
+        transferRequestReader = objectMapper.readerFor(TransferRequest.class);
+        writer = objectMapper.writer();
+
+        Wallet wallet = new Wallet();
+        wallet.setId(42L);
+        transaction = new Transaction();
+        transaction.setId(1_000_000L);
+        transaction.setWallet(wallet);
+        transaction.setAmount(Money.of(new BigDecimal("125.50")));
+        transaction.setTransactionType(TransactionType.CREDIT);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setReferenceId(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public TransactionRequest readTransactionRequest() throws IOException {
+        return transactionRequestReader.readValue(CREDIT_JSON);
+    }
+
+    @Benchmark
+    public TransferRequest readTransferRequest() throws IOException {
+        return transferRequestReader.readValue(TRANSFER_JSON);
+    }
+
+    @Benchmark
+    public TransactionResponse mapTransactionResponse() {
+        return TransactionResponse.from(transaction);
+    }
+
+    @Benchmark
+    public byte[] writeTransactionResponse() throws IOException {
+        return writer.writeValueAsBytes(TransactionResponse.from(transaction));
+    }
+
+    @Benchmark
+    public byte[] writeTransferResponse() throws IOException {
+        return writer.writeValueAsBytes(TransferResponse.from(transaction, 43L));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.funds.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses benchmark wallets either uniformly or with Zipfian skew, where the wallet of rank k is
+ * picked with probability proportional to 1 / k^exponent so a handful of wallets take most traffic.
+ */
+final class WalletPicker {
+    private final long[] walletIds;
+    private final double[] cumulative;
+
+    private WalletPicker(long[] walletIds, double[] cumulative) {
+        this.walletIds = walletIds;
+        this.cumulative = cumulative;
+    }
+
+    static WalletPicker of(String skew, long[] walletIds, double exponent) {
+        return switch (skew) {
+            case "uniform" -> new WalletPicker(walletIds, null);
+            case "zipf" -> {
+                double[] cumulative = new double[walletIds.length];
+                double total = 0;
+                for (int rank = 1; rank <= walletIds.length; rank++) {
+                    total += 1.0 / Math.pow(rank, exponent);
+                    cumulative[rank - 1] = total;
+                }
+                for (int i = 0; i < cumulative.length; i++) {
+                    cumulative[i] /= total;
+                }
+                yield new WalletPicker(walletIds, cumulative);
+            }
+            default -> throw new IllegalArgumentException("Unknown skew: " + skew);
+        };
+    }
+
+    long next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (cumulative == null) {
+            return walletIds[random.nextInt(walletIds.length)];
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return walletIds[Math.min(index < 0 ? -index - 1 : index, walletIds.length - 1)];
+    }
+
+    /**
+     * Picks a second wallet different from {@code other}, for transfers.
+     */
+    long nextOtherThan(long other) {
+        long id;
+        do {
+            id = next();
+        } while (id == other);
+        return id;
+    }
+}
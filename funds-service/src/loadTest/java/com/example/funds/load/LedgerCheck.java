@@ -0,0 +1,85 @@
+package com.example.funds.load;
+
+import com.example.funds.money.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the ledger after a run, directly against the database: every wallet total equals its
+ * opening balance replayed through its unreversed transactions, no balance is negative, and each
+ * reversed transaction was reversed exactly once, both in the database and as seen by the clients.
+ */
+final class LedgerCheck {
+    private static final String REPLAYED_TOTALS = """
+            SELECT w.id,
+                   w.balance + COALESCE((SELECT SUM(s.balance) FROM wallet_balance_slot s WHERE s.wallet_id = w.id), 0) AS total,
+                   COALESCE((SELECT SUM(CASE t.transaction_type WHEN 'CREDIT' THEN t.amount ELSE -t.amount END)
+                             FROM transaction t
+                             WHERE t.wallet_id = w.id AND t.status = 'COMPLETED'
+                               AND t.transaction_type IN ('CREDIT', 'DEBIT', 'TRANSFER')), 0)
+                 + COALESCE((SELECT SUM(t.amount) FROM transaction t
+                             WHERE t.counterparty_wallet_id = w.id AND t.status = 'COMPLETED'
+                               AND t.transaction_type = 'TRANSFER'), 0) AS net
+            FROM wallet w
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    LedgerCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param clientObservedReversals accepted reversals seen by clients, or -1 when a reversal
+     *                                request failed in transit and the count is unknowable
+     */
+    List<String> verify(Map<Long, Long> openingBalances, long clientObservedReversals,
+                        long clientDuplicateReversalsAccepted) {
+        List<String> violations = new ArrayList<>();
+
+        long expectedTotal = 0;
+        long actualTotal = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(REPLAYED_TOTALS)) {
+            long walletId = ((Number) row.get("id")).longValue();
+            long total = Money.of((BigDecimal) row.get("total"));
+            long expected = Money.add(openingBalances.get(walletId), Money.of((BigDecimal) row.get("net")));
+            expectedTotal = Money.add(expectedTotal, expected);
+            actualTotal = Money.add(actualTotal, total);
+            if (total != expected) {
+                violations.add("Wallet " + walletId + " holds " + Money.toDecimal(total)
+                        + " but its transactions replay to " + Money.toDecimal(expected));
+            }
+        }
+        if (actualTotal != expectedTotal) {
+            violations.add("Money not conserved: ledger holds " + Money.toDecimal(actualTotal)
+                    + ", expected " + Money.toDecimal(expectedTotal));
+        }
+
+        Integer negative = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM wallet WHERE balance < 0", Integer.class);
+        Integer negativeSlots = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM wallet_balance_slot WHERE balance < 0", Integer.class);
+        if (negative + negativeSlots > 0) {
+            violations.add(negative + " wallets and " + negativeSlots + " sub-balances are negative");
+        }
+
+        Long reversed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction WHERE status = 'REVERSED'", Long.class);
+        Long reversals = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction WHERE transaction_type = 'REVERSE'", Long.class);
+        if (!reversed.equals(reversals)) {
+            violations.add(reversed + " transactions are marked reversed but " + reversals + " reversals were recorded");
+        }
+        if (clientObservedReversals >= 0 && reversals != clientObservedReversals) {
+            violations.add("Clients saw " + clientObservedReversals + " accepted reversals, the ledger has " + reversals);
+        }
+        if (clientDuplicateReversalsAccepted > 0) {
+            violations.add(clientDuplicateReversalsAccepted + " repeated reversals of the same transaction were accepted");
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.funds.load;
+
+import com.example.funds.money.Money;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code load.*} system properties. Properties named
+ * {@code app.<key>} are passed to the application as {@code --<key>=<value>}, e.g.
+ * {@code -Dapp.funds.balance-update.strategy=atomic}.
+ */
+record LoadConfig(int clients, Duration duration, Duration warmup, int wallets, int splitWallets,
+                  long openingBalance, String skew, double zipfExponent, Map<Operation, Integer> mix,
+                  double duplicateReversalRate, String reportDir, List<String> appArgs) {
+
+    static LoadConfig fromSystemProperties() {
+        List<String> appArgs = new ArrayList<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("app."))
+                .sorted()
+                .forEach(name -> appArgs.add("--" + name.substring(4) + "=" + System.getProperty(name)));
+        return new LoadConfig(
+                Integer.getInteger("load.clients", 200),
+                Duration.parse("PT" + System.getProperty("load.duration", "30s")),
+                Duration.parse("PT" + System.getProperty("load.warmup", "5s")),
+                Integer.getInteger("load.wallets", 100),
+                Integer.getInteger("load.split-wallets", 2),
+                Money.of(new BigDecimal(System.getProperty("load.opening-balance", "1000"))),
+                System.getProperty("load.skew", "zipf"),
+                Double.parseDouble(System.getProperty("load.zipf-exponent", "1.1")),
+                parseMix(System.getProperty("load.mix", "credit=30,debit=25,transfer=35,reverse=10")),
+                Double.parseDouble(System.getProperty("load.duplicate-reversal-rate", "0.1")),
+                System.getProperty("load.report-dir", "build/reports/load"),
+                appArgs);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new java.util.EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    enum Operation {
+        CREDIT, DEBIT, TRANSFER, REVERSE
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.funds.load;
+
+import com.example.funds.FundsApplication;
+import com.example.funds.load.LoadConfig.Operation;
+import com.example.funds.model.Wallet;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.split.SplitBalanceService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load and correctness harness. Starts the application in-process on an embedded H2
+ * database, drives mixed credit/debit/transfer/reverse traffic over HTTP from many concurrent
+ * clients at a configurable wallet skew, then reports per-operation throughput and latency
+ * percentiles and checks the ledger invariants. Exits non-zero if any invariant is violated.
+ * Run with {@code ./gradlew loadTest}.
+ */
+public final class LoadHarness {
+    private static final String CURRENCY = "USD";
+
+    private final LoadConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<String> reversible = new ConcurrentLinkedQueue<>();
+    private final AtomicLong acceptedReversals = new AtomicLong();
+    private final AtomicLong duplicateReversalsAccepted = new AtomicLong();
+    private final AtomicLong failedReversals = new AtomicLong();
+    private final int[] cumulativeMix;
+    private final Operation[] mixOperations;
+
+    private HttpClient client;
+    private String baseUrl;
+    private WalletPicker picker;
+
+    private LoadHarness(LoadConfig config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        mixOperations = config.mix().keySet().toArray(Operation[]::new);
+        cumulativeMix = new int[mixOperations.length];
+        int total = 0;
+        for (int i = 0; i < mixOperations.length; i++) {
+            total += config.mix().get(mixOperations[i]);
+            cumulativeMix[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        boolean passed;
+        try (ConfigurableApplicationContext context = start(config)) {
+            passed = new LoadHarness(config).run(context);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start(LoadConfig config) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:funds-load;MODE=MySQL;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.flyway.enabled=false",
+                "--logging.level.root=WARN"));
+        // Later arguments win, so app.* overrides take precedence over the defaults above.
+        args.addAll(config.appArgs());
+        return new SpringApplication(FundsApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private boolean run(ConfigurableApplicationContext context) throws Exception {
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/funds";
+        Map<Long, Long> openingBalances = createWallets(context);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("Running %d clients for %s (+%s warmup), %s skew over %d wallets, mix %s%n",
+                config.clients(), config.duration(), config.warmup(), config.skew(), config.wallets(), config.mix());
+        long warmupEnds = System.nanoTime() + config.warmup().toNanos();
+        long runEnds = warmupEnds + config.duration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.clients(); i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < runEnds) {
+                        step();
+                    }
+                });
+            }
+            Thread.sleep(config.warmup().toMillis());
+            stats.values().forEach(OperationStats::reset);
+        }
+
+        double seconds = config.duration().toNanos() / 1e9;
+        Map<Operation, OperationStats.Summary> summaries = new EnumMap<>(Operation.class);
+        stats.forEach((operation, operationStats) -> summaries.put(operation, operationStats.summarize(seconds)));
+        List<String> violations = new LedgerCheck(context.getBean(JdbcTemplate.class)).verify(openingBalances,
+                failedReversals.get() == 0 ? acceptedReversals.get() : -1, duplicateReversalsAccepted.get());
+
+        print(summaries, violations);
+        writeReport(summaries, violations);
+        return violations.isEmpty();
+    }
+
+    private Map<Long, Long> createWallets(ConfigurableApplicationContext context) {
+        WalletRepository walletRepository = context.getBean(WalletRepository.class);
+        List<Wallet> wallets = new ArrayList<>();
+        for (int i = 0; i < config.wallets(); i++) {
+            Wallet wallet = new Wallet();
+            wallet.setCustomerId((long) i);
+            wallet.setCurrencyCode(CURRENCY);
+            wallet.setBalance(config.openingBalance());
+            wallets.add(wallet);
+        }
+        long[] ids = walletRepository.saveAll(wallets).stream().mapToLong(Wallet::getId).toArray();
+        // Under Zipf skew the first ids are the hottest, which is where split balances are meant to be used.
+        SplitBalanceService splitBalances = context.getBean(SplitBalanceService.class);
+        for (int i = 0; i < Math.min(config.splitWallets(), ids.length); i++) {
+            splitBalances.split(ids[i], 8);
+        }
+        picker = WalletPicker.of(config.skew(), ids, config.zipfExponent());
+        Map<Long, Long> openingBalances = new LinkedHashMap<>();
+        for (long id : ids) {
+            openingBalances.put(id, config.openingBalance());
+        }
+        return openingBalances;
+    }
+
+    private void step() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeMix[cumulativeMix.length - 1]);
+        int index = 0;
+        while (roll >= cumulativeMix[index]) {
+            index++;
+        }
+        Operation operation = mixOperations[index];
+        BigDecimal amount = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 100));
+        switch (operation) {
+            case CREDIT -> send(Operation.CREDIT, post("/credit", movement(picker.next(), amount)));
+            case DEBIT -> send(Operation.DEBIT, post("/debit", movement(picker.next(), amount)));
+            case TRANSFER -> {
+                long source = picker.next();
+                send(Operation.TRANSFER, post("/transfer", String.format(
+                        "{\"sourceWalletId\":%d,\"targetWalletId\":%d,\"currencyCode\":\"%s\",\"amount\":%s}",
+                        source, picker.nextOtherThan(source), CURRENCY, amount)));
+            }
+            case REVERSE -> reverse();
+        }
+    }
+
+    private void reverse() {
+        String referenceId = reversible.poll();
+        if (referenceId == null) {
+            return;
+        }
+        HttpRequest request = post("/reverse/" + referenceId, "");
+        if (ThreadLocalRandom.current().nextDouble() >= config.duplicateReversalRate()) {
+            if (send(Operation.REVERSE, request)) {
+                acceptedReversals.incrementAndGet();
+            }
+            return;
+        }
+        // Race two reversals of the same transaction; at most one may be accepted.
+        try (ExecutorService racers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> first = racers.submit(() -> send(Operation.REVERSE, request));
+            Future<Boolean> second = racers.submit(() -> send(Operation.REVERSE, request));
+            int accepted = (first.get() ? 1 : 0) + (second.get() ? 1 : 0);
+            acceptedReversals.addAndGet(accepted);
+            if (accepted > 1) {
+                duplicateReversalsAccepted.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failedReversals.incrementAndGet();
+        }
+    }
+
+    private boolean send(Operation operation, HttpRequest request) {
+        OperationStats operationStats = stats.get(operation);
+        long started = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException | InterruptedException e) {
+            operationStats.failed();
+            if (operation == Operation.REVERSE) {
+                failedReversals.incrementAndGet();
+            }
+            return false;
+        }
+        if (response.statusCode() != 200) {
+            operationStats.rejected();
+            return false;
+        }
+        operationStats.accepted(System.nanoTime() - started);
+        if (operation != Operation.REVERSE) {
+            reversible.add(referenceId(response.body()));
+        }
+        return true;
+    }
+
+    private String referenceId(String body) {
+        try {
+            return objectMapper.readTree(body).path("referenceId").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response: " + body, e);
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String movement(long walletId, BigDecimal amount) {
+        return String.format("{\"walletId\":%d,\"currencyCode\":\"%s\",\"amount\":%s}", walletId, CURRENCY, amount);
+    }
+
+    private void print(Map<Operation, OperationStats.Summary> summaries, List<String> violations) {
+        System.out.printf("%n%-9s %9s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "accepted", "rejected", "failed", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        summaries.forEach((operation, s) -> System.out.printf("%-9s %9d %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.name().toLowerCase(), s.accepted(), s.rejected(), s.failed(), s.throughput(),
+                s.p50Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis()));
+        System.out.println();
+        if (violations.isEmpty()) {
+            System.out.println("Ledger invariants hold: money conserved, no negative balances, reversals applied once.");
+        } else {
+            violations.forEach(violation -> System.out.println("INVARIANT VIOLATED: " + violation));
+        }
+    }
+
+    private void writeReport(Map<Operation, OperationStats.Summary> summaries, List<String> violations)
+            throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("operations", summaries);
+        report.put("violations", violations);
+        Path dir = Path.of(config.reportDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("load-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+                .withZone(java.time.ZoneOffset.UTC).format(Instant.now()) + ".json");
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT)
+                .findAndRegisterModules()
+                .writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+}
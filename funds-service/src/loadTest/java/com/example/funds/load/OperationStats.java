@@ -0,0 +1,58 @@
+package com.example.funds.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts for one operation type. Only accepted (HTTP 200) requests are
+ * recorded in the latency histogram; business rejections and transport errors are counted apart.
+ */
+final class OperationStats {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void accepted(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        accepted.increment();
+    }
+
+    void rejected() {
+        rejected.increment();
+    }
+
+    void failed() {
+        failed.increment();
+    }
+
+    /**
+     * Discards everything recorded so far, at the end of the warmup.
+     */
+    void reset() {
+        recorder.getIntervalHistogram();
+        accepted.reset();
+        rejected.reset();
+        failed.reset();
+    }
+
+    Summary summarize(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new Summary(accepted.sum(), rejected.sum(), failed.sum(), accepted.sum() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    record Summary(long accepted, long rejected, long failed, double throughput,
+                   double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.funds.admission;
+
+import com.example.funds.config.AdmissionProperties;
+import com.example.funds.metrics.FundsOperation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An AIMD concurrency limit shared by the funds operations, which all contend for the same wallet
+ * rows and connections. Every request that finishes under the latency threshold while the limit
+ * is in use adds {@code 1 / limit}, so the limit grows by about one per round trip; a slow request,
+ * or one that timed out waiting for a lock or connection, cuts it by the backoff ratio, at most
+ * once per round trip. Reversals, captures and voids, which settle or release money already
+ * committed, may use the whole limit; other operations only what is left after the reversal
+ * reserve, so new debits and holds are shed first.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final double reversalReserve;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock.
+    private double estimate;
+    private long lastDecreaseNanos;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(AdmissionProperties properties) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException("Admission limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.reversalReserve = properties.getReversalReserve();
+        this.estimate = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimate;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns a permit to release once the operation finishes, or null when it must be rejected.
+     */
+    public Permit tryAcquire(FundsOperation operation) {
+        int allowed = getLimit(operation);
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime(), current + 1);
+            }
+        }
+    }
+
+    public int getLimit(FundsOperation operation) {
+        int total = limit;
+        if (operation == FundsOperation.REVERSE || operation == FundsOperation.CAPTURE
+                || operation == FundsOperation.VOID) {
+            return total;
+        }
+        return Math.max(1, (int) (total * (1 - reversalReserve)));
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    void onSample(long startNanos, long endNanos, int inflightAtStart, boolean overloaded) {
+        inflight.decrementAndGet();
+        boolean congested = overloaded || endNanos - startNanos > latencyThresholdNanos;
+        lock.lock();
+        try {
+            if (congested) {
+                // Requests that started before the last cut saw the old limit; they must not cut again.
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    estimate = Math.max(minLimit, estimate * backoffRatio);
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (inflightAtStart * 2 >= limit) {
+                estimate = Math.min(maxLimit, estimate + 1 / estimate);
+            }
+            limit = (int) estimate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private final int inflightAtStart;
+
+        private Permit(long startNanos, int inflightAtStart) {
+            this.startNanos = startNanos;
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        public void release(boolean overloaded) {
+            release(System.nanoTime(), overloaded);
+        }
+
+        void release(long endNanos, boolean overloaded) {
+            onSample(startNanos, endNanos, inflightAtStart, overloaded);
+        }
+    }
+}
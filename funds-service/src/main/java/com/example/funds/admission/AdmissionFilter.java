@@ -0,0 +1,128 @@
+package com.example.funds.admission;
+
+import com.example.funds.config.AdmissionProperties;
+import com.example.funds.metrics.FundsOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Admits funds operations through an {@link AdaptiveConcurrencyLimiter} and answers the excess
+ * with 429 and a Retry-After header before it can wait on wallet locks or connections. Other
+ * endpoints, including wallet reads, are not limited and keep the capacity the shed requests
+ * would have taken. Batches are admitted as one operation each, from the same share as debits.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+    private static final String FUNDS_PATH = "/api/v1/funds/";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String retryAfterSeconds;
+    private final Counter[] rejected;
+
+    public AdmissionFilter(AdaptiveConcurrencyLimiter limiter, AdmissionProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+        FundsOperation[] operations = FundsOperation.values();
+        this.rejected = new Counter[operations.length];
+        for (FundsOperation operation : operations) {
+            Gauge.builder("funds.admission.limit", limiter, l -> l.getLimit(operation))
+                    .description("Concurrent funds operations of this type currently admitted")
+                    .tag("operation", operation.tag())
+                    .register(meterRegistry);
+            rejected[operation.ordinal()] = Counter.builder("funds.admission.rejected")
+                    .description("Funds operations rejected with 429 because the concurrency limit was reached")
+                    .tag("operation", operation.tag())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("funds.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Funds operations currently admitted and running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return operation(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        FundsOperation operation = operation(request);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(operation);
+        if (permit == null) {
+            rejected[operation.ordinal()].increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many concurrent funds operations");
+            return;
+        }
+        boolean overloaded = false;
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException ex) {
+            overloaded = isOverload(ex);
+            throw ex;
+        } finally {
+            permit.release(overloaded);
+        }
+    }
+
+    /**
+     * Whether a request failed because the database is saturated: it timed out waiting for a row
+     * lock, a connection or a statement. Business failures such as insufficient funds, unknown
+     * wallets or invalid input say nothing about load and count as successes for the limiter,
+     * which otherwise judges a request only by its latency.
+     */
+    static boolean isOverload(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof CannotAcquireLockException || t instanceof CannotGetJdbcConnectionException
+                    || t instanceof QueryTimeoutException || t instanceof LockTimeoutException
+                    || t instanceof SQLTransientConnectionException || t instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static FundsOperation operation(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(FUNDS_PATH)) {
+            return null;
+        }
+        String action = path.substring(FUNDS_PATH.length());
+        return switch (action) {
+            case "credit" -> FundsOperation.CREDIT;
+            case "debit" -> FundsOperation.DEBIT;
+            case "transfer" -> FundsOperation.TRANSFER;
+            case "authorize" -> FundsOperation.AUTHORIZE;
+            case "batch" -> FundsOperation.BATCH;
+            default -> {
+                if (action.startsWith("reverse/")) {
+                    yield FundsOperation.REVERSE;
+                }
+                if (action.startsWith("capture/")) {
+                    yield FundsOperation.CAPTURE;
+                }
+                yield action.startsWith("void/") ? FundsOperation.VOID : null;
+            }
+        };
+    }
+}
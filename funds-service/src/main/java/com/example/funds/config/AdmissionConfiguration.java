@@ -0,0 +1,28 @@
+package com.example.funds.config;
+
+import com.example.funds.admission.AdaptiveConcurrencyLimiter;
+import com.example.funds.admission.AdmissionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts an adaptive concurrency limit in front of {@code /api/v1/funds/*}, configured under
+ * {@code funds.admission}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "funds.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfiguration {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(AdmissionProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties);
+    }
+
+    @Bean
+    public AdmissionFilter admissionFilter(AdaptiveConcurrencyLimiter limiter, AdmissionProperties properties,
+                                           MeterRegistry meterRegistry) {
+        return new AdmissionFilter(limiter, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "funds.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 500;
+
+    /**
+     * Requests slower than this count as congestion and shrink the limit.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(250);
+
+    private double backoffRatio = 0.9;
+
+    /**
+     * Share of the limit only reversals, captures and voids may use.
+     */
+    private double reversalReserve = 0.2;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public double getReversalReserve() {
+        return reversalReserve;
+    }
+
+    public void setReversalReserve(double reversalReserve) {
+        this.reversalReserve = reversalReserve;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
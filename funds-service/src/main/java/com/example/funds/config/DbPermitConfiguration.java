@@ -0,0 +1,61 @@
+package com.example.funds.config;
+
+import com.example.funds.jdbc.PermitLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link PermitLimitedDataSource} when
+ * {@code funds.db-permits.enabled} is set, as it is in the {@code virtual} profile.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "funds.db-permits.enabled", havingValue = "true")
+public class DbPermitConfiguration {
+
+    @Bean
+    public static BeanPostProcessor dbPermitDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof PermitLimitedDataSource) {
+                    return bean;
+                }
+                // Bound by hand: a BeanPostProcessor is created before @ConfigurationProperties beans are.
+                DbPermitProperties properties = Binder.get(environment)
+                        .bindOrCreate("funds.db-permits", DbPermitProperties.class);
+                int permits = properties.getPermits();
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                if (permits == 0 && hikari != null) {
+                    permits = hikari.getMaximumPoolSize();
+                }
+                return new PermitLimitedDataSource(dataSource, permits, properties.getAcquireTimeout());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dbPermitMetrics(DataSource dataSource) {
+        return registry -> {
+            // Other wrappers, such as statement counting, may sit in front of the permit limiter.
+            PermitLimitedDataSource permits = DataSourceUnwrapper.unwrap(dataSource, PermitLimitedDataSource.class);
+            if (permits != null) {
+                Gauge.builder("funds.db.permits.available", permits, PermitLimitedDataSource::getAvailablePermits)
+                        .description("Database permits not currently held")
+                        .register(registry);
+                Gauge.builder("funds.db.permits.waiting", permits, PermitLimitedDataSource::getWaitingThreads)
+                        .description("Threads queued for a database permit")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "funds.holds")
+public class HoldProperties {
+    private Duration defaultExpiry = Duration.ofDays(7);
+
+    private Duration maxExpiry = Duration.ofDays(30);
+
+    private Duration tick = Duration.ofSeconds(1);
+
+    private int recoveryBatchSize = 10_000;
+
+    public Duration getDefaultExpiry() {
+        return defaultExpiry;
+    }
+
+    public void setDefaultExpiry(Duration defaultExpiry) {
+        this.defaultExpiry = defaultExpiry;
+    }
+
+    public Duration getMaxExpiry() {
+        return maxExpiry;
+    }
+
+    public void setMaxExpiry(Duration maxExpiry) {
+        this.maxExpiry = maxExpiry;
+    }
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+
+    public int getRecoveryBatchSize() {
+        return recoveryBatchSize;
+    }
+
+    public void setRecoveryBatchSize(int recoveryBatchSize) {
+        this.recoveryBatchSize = recoveryBatchSize;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "funds.hot-wallets")
+public class HotWalletProperties {
+    private boolean enabled = true;
+
+    private int topK = 20;
+
+    private Duration minLockWait = Duration.ofNanos(500_000);
+
+    private Duration hotThreshold = Duration.ofSeconds(1);
+
+    private Duration decayInterval = Duration.ofSeconds(10);
+
+    private int sketchWidth = 4096;
+
+    private int sketchDepth = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public Duration getMinLockWait() {
+        return minLockWait;
+    }
+
+    public void setMinLockWait(Duration minLockWait) {
+        this.minLockWait = minLockWait;
+    }
+
+    public Duration getHotThreshold() {
+        return hotThreshold;
+    }
+
+    public void setHotThreshold(Duration hotThreshold) {
+        this.hotThreshold = hotThreshold;
+    }
+
+    public Duration getDecayInterval() {
+        return decayInterval;
+    }
+
+    public void setDecayInterval(Duration decayInterval) {
+        this.decayInterval = decayInterval;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public void setSketchDepth(int sketchDepth) {
+        this.sketchDepth = sketchDepth;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "funds.ids")
+public class IdProperties {
+    /**
+     * Distinguishes instances generating ids concurrently; must be unique per running instance (0-1023).
+     */
+    private int nodeId = 0;
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(int nodeId) {
+        this.nodeId = nodeId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "funds.journal")
+public class JournalProperties {
+    private Duration compactionInterval = Duration.ofSeconds(30);
+
+    private int minTail = 64;
+
+    public Duration getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    public void setCompactionInterval(Duration compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    public int getMinTail() {
+        return minTail;
+    }
+
+    public void setMinTail(int minTail) {
+        this.minTail = minTail;
+    }
+}
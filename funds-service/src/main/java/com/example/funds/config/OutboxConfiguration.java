@@ -0,0 +1,25 @@
+package com.example.funds.config;
+
+import com.example.funds.service.outbox.FileOutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Selects the {@link com.example.funds.service.outbox.OutboxSink} the relay publishes to. Any other
+ * {@code funds.outbox.sink} value leaves it to the application (or a test) to declare one.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "funds.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "funds.outbox.sink", havingValue = "file", matchIfMissing = true)
+    public FileOutboxSink fileOutboxSink(ObjectMapper objectMapper, OutboxProperties properties) throws IOException {
+        return new FileOutboxSink(objectMapper, Path.of(properties.getFile()));
+    }
+}
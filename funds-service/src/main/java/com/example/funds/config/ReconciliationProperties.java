@@ -0,0 +1,71 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "funds.reconciliation")
+public class ReconciliationProperties {
+    // Spring cron; "-" turns the scheduled run off and leaves only the endpoint.
+    private String cron = "0 30 3 * * *";
+
+    // Wallet ids folded per leaf task; bounds the memory and the snapshot length of one chunk.
+    private int chunkSize = 10_000;
+
+    // Worker threads, each holding one connection while it folds a chunk.
+    private int parallelism = 4;
+
+    // Transaction rows read per second across all workers; 0 reads unthrottled.
+    private long maxRowsPerSecond = 250_000;
+
+    // Read through the replica when one is configured; false pins the job to the primary.
+    private boolean useReplica = true;
+
+    private int maxReportedMismatches = 1000;
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getMaxRowsPerSecond() {
+        return maxRowsPerSecond;
+    }
+
+    public void setMaxRowsPerSecond(long maxRowsPerSecond) {
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    public boolean isUseReplica() {
+        return useReplica;
+    }
+
+    public void setUseReplica(boolean useReplica) {
+        this.useReplica = useReplica;
+    }
+
+    public int getMaxReportedMismatches() {
+        return maxReportedMismatches;
+    }
+
+    public void setMaxReportedMismatches(int maxReportedMismatches) {
+        this.maxReportedMismatches = maxReportedMismatches;
+    }
+}
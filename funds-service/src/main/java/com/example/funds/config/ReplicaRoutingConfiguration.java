@@ -0,0 +1,85 @@
+package com.example.funds.config;
+
+import com.example.funds.jdbc.ReadWriteRoutingDataSource;
+import com.example.funds.jdbc.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * Replaces the application DataSource with a {@link ReadWriteRoutingDataSource} over the primary
+ * from {@code spring.datasource} and a replica from {@code funds.replica}. Both pools live inside
+ * the one DataSource bean, so the wrappers applied to it (statement counting, DB permits) see each
+ * connection exactly once. Hikari meters come per pool, tagged {@code pool=primary|replica}.
+ *
+ * <p>Spring Data runs repository finders in read-only transactions of their own, so a finder
+ * called outside any transaction reads the replica. Requests other than GET, HEAD, OPTIONS and
+ * TRACE are therefore pinned to the primary by {@link ReadYourWritesFilter} whatever the window.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "funds.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replica,
+                                                 Environment environment, MeterRegistry meterRegistry) {
+        if (replica.getUrl() == null) {
+            throw new IllegalStateException("funds.replica.url is required when funds.replica.enabled is set");
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replicaPool = new HikariDataSource();
+        replicaPool.setJdbcUrl(replica.getUrl());
+        replicaPool.setUsername(replica.getUsername());
+        replicaPool.setPassword(replica.getPassword());
+        if (replica.getDriverClassName() != null) {
+            replicaPool.setDriverClassName(replica.getDriverClassName());
+        }
+        replicaPool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        replicaPool.setReadOnly(true);
+        replicaPool.setPoolName("replica");
+        replicaPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReadWriteRoutingDataSource(primary, replicaPool);
+    }
+
+    @Bean
+    public MeterBinder dataSourceRoutingMetrics(DataSource dataSource) {
+        return registry -> {
+            // Statement counting or DB permits may wrap the routing DataSource.
+            ReadWriteRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class);
+            if (routing == null) {
+                return;
+            }
+            for (ReadWriteRoutingDataSource.Target target : ReadWriteRoutingDataSource.Target.values()) {
+                FunctionCounter.builder("funds.db.routed", routing, r -> r.getRouted(target))
+                        .description("Connections handed out per routing target")
+                        .tag("target", target.name().toLowerCase(Locale.ROOT))
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * With the default window of zero only the writing request itself stays on the primary.
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replica) {
+        return new ReadYourWritesFilter(replica.getReadYourWrites(), replica.getClientHeader(), replica.getMaximumClients());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.funds.config;
+
+import com.example.funds.jdbc.StatementCountingDataSource;
+import com.example.funds.metrics.SqlBudgetFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link StatementCountingDataSource} and counts the SQL
+ * issued by each HTTP request against the budget in {@code funds.sql-budget}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "funds.sql-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfiguration {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof StatementCountingDataSource) {
+                    return bean;
+                }
+                return new StatementCountingDataSource(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    public SqlBudgetFilter sqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        return new SqlBudgetFilter(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "funds.sql-budget")
+public class SqlBudgetProperties {
+    private boolean enabled = true;
+
+    private int maxStatements = 10;
+
+    private int maxRowsRead = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public int getMaxRowsRead() {
+        return maxRowsRead;
+    }
+
+    public void setMaxRowsRead(int maxRowsRead) {
+        this.maxRowsRead = maxRowsRead;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "funds.transaction-archive")
+public class TransactionArchiveProperties {
+    private boolean enabled = true;
+
+    private String directory = "archive/transactions";
+
+    private int monthsAhead = 3;
+
+    private Duration retention = Duration.ofDays(400);
+
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    private Duration lockWaitTimeout = Duration.ofSeconds(5);
+
+    private int segmentBatchSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getMaintenanceInterval() {
+        return maintenanceInterval;
+    }
+
+    public void setMaintenanceInterval(Duration maintenanceInterval) {
+        this.maintenanceInterval = maintenanceInterval;
+    }
+
+    public Duration getLockWaitTimeout() {
+        return lockWaitTimeout;
+    }
+
+    public void setLockWaitTimeout(Duration lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+    }
+
+    public int getSegmentBatchSize() {
+        return segmentBatchSize;
+    }
+
+    public void setSegmentBatchSize(int segmentBatchSize) {
+        this.segmentBatchSize = segmentBatchSize;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.funds.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "funds.limits")
+public class VelocityLimitProperties {
+    private List<Rule> rules = new ArrayList<>();
+
+    // Ids tracked per rule before its table first grows.
+    private int initialCapacity = 1 << 16;
+
+    private Duration compactionInterval = Duration.ofMinutes(1);
+
+    private int customerCacheSize = 100_000;
+
+    // Customer-scoped rules keep counting against the old customer this long after a wallet is moved.
+    private Duration customerCacheTtl = Duration.ofMinutes(10);
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    public void setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    public Duration getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    public void setCompactionInterval(Duration compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    public int getCustomerCacheSize() {
+        return customerCacheSize;
+    }
+
+    public void setCustomerCacheSize(int customerCacheSize) {
+        this.customerCacheSize = customerCacheSize;
+    }
+
+    public Duration getCustomerCacheTtl() {
+        return customerCacheTtl;
+    }
+
+    public void setCustomerCacheTtl(Duration customerCacheTtl) {
+        this.customerCacheTtl = customerCacheTtl;
+    }
+
+    public enum Scope {
+        WALLET,
+        CUSTOMER
+    }
+
+    public static class Rule {
+        private String name;
+
+        private Scope scope = Scope.WALLET;
+
+        private Duration window;
+
+        // Required with max-amount; a count-only rule without it applies to every currency.
+        private String currencyCode;
+
+        private BigDecimal maxAmount;
+
+        private Integer maxCount;
+
+        // The window advances one slot at a time, so a spend counts for at most one slot longer than the window.
+        private int slots = 24;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Scope getScope() {
+            return scope;
+        }
+
+        public void setScope(Scope scope) {
+            this.scope = scope;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public String getCurrencyCode() {
+            return currencyCode;
+        }
+
+        public void setCurrencyCode(String currencyCode) {
+            this.currencyCode = currencyCode;
+        }
+
+        public BigDecimal getMaxAmount() {
+            return maxAmount;
+        }
+
+        public void setMaxAmount(BigDecimal maxAmount) {
+            this.maxAmount = maxAmount;
+        }
+
+        public Integer getMaxCount() {
+            return maxCount;
+        }
+
+        public void setMaxCount(Integer maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.funds.controller;
+
+import com.example.funds.dto.BatchRequest;
+import com.example.funds.dto.BatchResponse;
+import com.example.funds.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/funds")
+@Tag(name = "Funds Management", description = "APIs for managing funds operations")
+public class BatchController {
+    private final BatchService batchService;
+
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @Operation(summary = "Execute a batch of operations", description = "Applies a list of credits, debits and transfers in one transaction, either all-or-nothing or best-effort, and returns a result per operation")
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> batch(@Valid @RequestBody BatchRequest request) {
+        BatchResponse response = batchService.execute(request);
+        if (!response.committed()) {
+            return ResponseEntity.unprocessableEntity().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
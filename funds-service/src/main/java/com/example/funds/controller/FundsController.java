@@ -1,9 +1,16 @@
 package com.example.funds.controller;
 
+import com.example.funds.dto.AuthorizationRequest;
+import com.example.funds.dto.AuthorizationResponse;
+import com.example.funds.dto.CaptureRequest;
+import com.example.funds.dto.ReversalResponse;
 import com.example.funds.dto.TransactionRequest;
+import com.example.funds.dto.TransactionResponse;
 import com.example.funds.dto.TransferRequest;
+import com.example.funds.dto.TransferResponse;
 import com.example.funds.model.Transaction;
 import com.example.funds.service.FundsService;
+import com.example.funds.service.hold.HoldService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -22,41 +29,68 @@ public class FundsController {
 
     @Operation(summary = "Credit funds to an account", description = "Credits the specified amount to the given account")
     @PostMapping("/credit")
-    public ResponseEntity<Transaction> credit(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> credit(@Valid @RequestBody TransactionRequest request) {
         Transaction transaction = fundsService.credit(
             request.getWalletId(),
             request.getCurrencyCode(),
             request.getAmount()
         );
-        return ResponseEntity.ok(transaction);
+        return ResponseEntity.ok(TransactionResponse.from(transaction));
     }
 
     @Operation(summary = "Debit funds from an account", description = "Debits the specified amount from the given account")
     @PostMapping("/debit")
-    public ResponseEntity<Transaction> debit(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> debit(@Valid @RequestBody TransactionRequest request) {
         Transaction transaction = fundsService.debit(
             request.getWalletId(),
             request.getCurrencyCode(),
             request.getAmount()
         );
-        return ResponseEntity.ok(transaction);
+        return ResponseEntity.ok(TransactionResponse.from(transaction));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<Transaction> transfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request) {
         Transaction transaction = fundsService.transfer(
             request.getSourceWalletId(),
             request.getTargetWalletId(),
             request.getCurrencyCode(),
             request.getAmount()
         );
-        return ResponseEntity.ok(transaction);
+        return ResponseEntity.ok(TransferResponse.from(transaction, request.getTargetWalletId()));
     }
 
     @Operation(summary = "Reverse a transaction", description = "Reverses a previously executed transaction using its reference ID")
     @PostMapping("/reverse/{referenceId}")
-    public ResponseEntity<Transaction> reverse(@PathVariable String referenceId) {
+    public ResponseEntity<ReversalResponse> reverse(@PathVariable String referenceId) {
         Transaction transaction = fundsService.reverse(referenceId);
-        return ResponseEntity.ok(transaction);
+        return ResponseEntity.ok(ReversalResponse.from(transaction, referenceId));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Authorize a hold", description = "Holds the specified amount on the given account until it is captured, voided or expires")
+    @PostMapping("/authorize")
+    public ResponseEntity<AuthorizationResponse> authorize(@Valid @RequestBody AuthorizationRequest request) {
+        HoldService.Authorization authorization = fundsService.authorize(
+            request.getWalletId(),
+            request.getCurrencyCode(),
+            request.getAmount(),
+            request.getExpiresIn()
+        );
+        return ResponseEntity.ok(AuthorizationResponse.from(authorization));
+    }
+
+    @Operation(summary = "Capture a hold", description = "Debits all of a held amount, or the amount given, and releases the rest")
+    @PostMapping("/capture/{referenceId}")
+    public ResponseEntity<TransactionResponse> capture(@PathVariable String referenceId,
+                                                       @Valid @RequestBody(required = false) CaptureRequest request) {
+        Transaction transaction = fundsService.capture(referenceId, request == null ? null : request.getAmount());
+        return ResponseEntity.ok(TransactionResponse.from(transaction));
+    }
+
+    @Operation(summary = "Void a hold", description = "Releases a held amount without debiting any of it")
+    @PostMapping("/void/{referenceId}")
+    public ResponseEntity<TransactionResponse> voidAuthorization(@PathVariable String referenceId) {
+        Transaction transaction = fundsService.voidAuthorization(referenceId);
+        return ResponseEntity.ok(TransactionResponse.from(transaction));
+    }
+}
@@ -1,13 +1,30 @@
 package com.example.funds.controller;
 
+import com.example.funds.dto.TransactionHistoryPage;
+import com.example.funds.dto.WalletPage;
+import com.example.funds.dto.WalletResponse;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
 import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
 import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.TransactionHistoryService;
+import com.example.funds.service.WalletCache;
+import com.example.funds.service.WalletListingService;
+import com.example.funds.service.archive.TransactionArchive;
+import com.example.funds.service.split.SplitBalanceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1/wallets")
@@ -15,64 +32,127 @@ import java.util.List;
 public class WalletController {
 
     private final WalletRepository walletRepository;
+    private final SplitBalanceService splitBalances;
+    private final WalletCache walletCache;
+    private final WalletListingService walletListingService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionArchive archive;
 
-    public WalletController(WalletRepository walletRepository) {
+    public WalletController(WalletRepository walletRepository, SplitBalanceService splitBalances,
+                            WalletCache walletCache, WalletListingService walletListingService,
+                            TransactionHistoryService transactionHistoryService,
+                            ObjectProvider<TransactionArchive> archive) {
         this.walletRepository = walletRepository;
+        this.splitBalances = splitBalances;
+        this.walletCache = walletCache;
+        this.walletListingService = walletListingService;
+        this.transactionHistoryService = transactionHistoryService;
+        this.archive = archive.getIfAvailable();
     }
 
     @Operation(summary = "Create a new wallet", description = "Creates a new wallet for a customer with specified currency")
     @PostMapping
-    public ResponseEntity<Wallet> createWallet(@Valid @RequestBody Wallet wallet) {
+    public ResponseEntity<WalletResponse> createWallet(@Valid @RequestBody Wallet wallet) {
+        Money.requireScale(wallet.getBalance(), wallet.getCurrencyCode());
         Wallet savedWallet = walletRepository.save(wallet);
-        return ResponseEntity.ok(savedWallet);
+        return ResponseEntity.ok(WalletResponse.from(savedWallet, savedWallet.getBalance()));
     }
 
-    @Operation(summary = "Get a wallet by ID", description = "Retrieves wallet details by its ID")
+    @Operation(summary = "Get a wallet by ID", description = "Retrieves wallet details by its ID; strong=true bypasses the cache and reads the committed balance")
     @GetMapping("/{id}")
-    public ResponseEntity<Wallet> getWallet(@PathVariable Long id) {
-        return walletRepository.findById(id)
+    public ResponseEntity<WalletResponse> getWallet(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "false") boolean strong) {
+        return walletCache.findById(id, strong)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Get all wallets", description = "Retrieves all wallets")
+    @Operation(summary = "List wallets", description = "Retrieves one page of wallets ordered by ID; pass nextCursor from the previous page to continue")
     @GetMapping
-    public ResponseEntity<List<Wallet>> getAllWallets() {
-        List<Wallet> wallets = walletRepository.findAll();
-        return ResponseEntity.ok(wallets);
+    public ResponseEntity<WalletPage> getAllWallets(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String currencyCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(walletListingService.page(customerId, currencyCode, cursor, limit));
+    }
+
+    @Operation(summary = "Stream all wallets", description = "Streams every matching wallet as newline-delimited JSON using a forward-only cursor")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamWallets(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String currencyCode) {
+        StreamingResponseBody body = out -> walletListingService.stream(customerId, currencyCode, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @Operation(summary = "Get wallet transaction history", description = "Retrieves a wallet's transactions newest first, optionally within [from, to) and by type or status; pass nextCursor from the previous page to continue. Transfers are listed under their source wallet only")
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<TransactionHistoryPage> getTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return transactionHistoryService.history(id, from, to, type, status, cursor, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Update a wallet", description = "Updates an existing wallet")
     @PutMapping("/{id}")
-    public ResponseEntity<Wallet> updateWallet(@PathVariable Long id, @Valid @RequestBody Wallet walletDetails) {
+    public ResponseEntity<WalletResponse> updateWallet(@PathVariable Long id, @Valid @RequestBody Wallet walletDetails) {
+        Money.requireScale(walletDetails.getBalance(), walletDetails.getCurrencyCode());
         return walletRepository.findById(id)
                 .map(wallet -> {
                     wallet.setCustomerId(walletDetails.getCustomerId());
                     wallet.setCurrencyCode(walletDetails.getCurrencyCode());
                     wallet.setBalance(walletDetails.getBalance());
-                    return ResponseEntity.ok(walletRepository.save(wallet));
+                    Wallet savedWallet = walletRepository.save(wallet);
+                    walletCache.evict(savedWallet);
+                    return ResponseEntity.ok(walletCache.snapshot(savedWallet));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Delete a wallet", description = "Deletes a wallet by its ID")
+    @Operation(summary = "Delete a wallet", description = "Deletes a wallet by its ID; wallets with transactions cannot be deleted")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteWallet(@PathVariable Long id) {
         return walletRepository.findById(id)
                 .map(wallet -> {
-                    walletRepository.delete(wallet);
+                    if (archive != null && archive.hasTransactions(id)) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).<Void>build();
+                    }
+                    if (wallet.getBalanceSlots() > 0) {
+                        wallet = splitBalances.split(id, 0);
+                    }
+                    if (walletRepository.deleteIfUnreferenced(id) == 0) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).<Void>build();
+                    }
+                    walletCache.evict(wallet);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Get wallet by customer ID and currency", description = "Retrieves wallet details by customer ID and currency code")
+    @Operation(summary = "Split a wallet balance", description = "Spreads credits to a high-traffic wallet over the given number of sub-balance slots; 0 turns splitting off")
+    @PostMapping("/{id}/split")
+    public ResponseEntity<WalletResponse> splitWallet(@PathVariable Long id, @RequestParam int slots) {
+        return ResponseEntity.ok(walletCache.snapshot(splitBalances.split(id, slots)));
+    }
+
+    @Operation(summary = "Get wallet by customer ID and currency", description = "Retrieves wallet details by customer ID and currency code; strong=true bypasses the cache")
     @GetMapping("/search")
-    public ResponseEntity<Wallet> getWalletByCustomerAndCurrency(
+    public ResponseEntity<WalletResponse> getWalletByCustomerAndCurrency(
             @RequestParam Long customerId,
-            @RequestParam String currencyCode) {
-        return walletRepository.findByCustomerIdAndCurrencyCode(customerId, currencyCode)
+            @RequestParam String currencyCode,
+            @RequestParam(defaultValue = "false") boolean strong) {
+        return walletCache.findByCustomerAndCurrency(customerId, currencyCode, strong)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
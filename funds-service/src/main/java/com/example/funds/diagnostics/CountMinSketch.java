@@ -0,0 +1,59 @@
+package com.example.funds.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch over {@code long} keys. Estimates never undercount; they overcount
+ * by at most the weight of the keys sharing a cell in every row.
+ */
+final class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL};
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray cells;
+
+    CountMinSketch(int width, int depth) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + SEEDS.length);
+        }
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.cells = new AtomicLongArray(this.depth * this.width);
+    }
+
+    void add(long key, long weight) {
+        for (int row = 0; row < depth; row++) {
+            cells.getAndAdd(cell(row, key), weight);
+        }
+    }
+
+    long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells.get(cell(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every cell so that old weight fades out. Concurrent adds are never lost, only halved early.
+     */
+    void decay() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.getAndUpdate(i, value -> value >>> 1);
+        }
+    }
+
+    private int cell(int row, long key) {
+        return row * width + (int) (mix(key ^ SEEDS[row]) & (width - 1));
+    }
+
+    static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return key ^ (key >>> 33);
+    }
+}
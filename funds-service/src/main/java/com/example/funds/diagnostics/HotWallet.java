@@ -0,0 +1,9 @@
+package com.example.funds.diagnostics;
+
+import java.time.Duration;
+
+/**
+ * A wallet whose operations recently waited on row locks, with the approximate decayed wait.
+ */
+public record HotWallet(long walletId, Duration lockWait, boolean hot) {
+}
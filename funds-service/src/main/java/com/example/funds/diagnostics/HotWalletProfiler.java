@@ -0,0 +1,142 @@
+package com.example.funds.diagnostics;
+
+import com.example.funds.config.HotWalletProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks which wallets funds operations wait on. Lock-wait time is added to a count-min sketch
+ * keyed by wallet id, and wallets whose estimate beats a neighbour's are kept in a small
+ * candidate table from which the top K are read. Both structures are fixed-size and updated
+ * with atomics only; waits below the minimum are dropped before touching either, so
+ * uncontended operations cost one comparison.
+ *
+ * <p>Every decay interval the current top K is published as a gauge and all weights are halved,
+ * so the ranking follows recent contention.
+ */
+@Component
+public class HotWalletProfiler {
+    private static final int PROBES = 4;
+    private static final int CANDIDATES_PER_SLOT = 8;
+
+    private final HotWalletProperties properties;
+    private final long minLockWaitNanos;
+    private final long hotThresholdNanos;
+    private final CountMinSketch sketch;
+    // Wallet ids are positive, so zero marks an empty slot.
+    private final AtomicLongArray candidates;
+    private final MultiGauge lockWaitGauge;
+
+    public HotWalletProfiler(HotWalletProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.minLockWaitNanos = properties.getMinLockWait().toNanos();
+        this.hotThresholdNanos = properties.getHotThreshold().toNanos();
+        this.sketch = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+        this.candidates = new AtomicLongArray(
+                Integer.highestOneBit(Math.max(properties.getTopK(), 1) * CANDIDATES_PER_SLOT - 1) << 1);
+        this.lockWaitGauge = MultiGauge.builder("funds.hot_wallets.lock_wait")
+                .description("Decayed lock-wait time of the most contended wallets")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Attributes the lock wait of one operation to the wallets it touched; zero ids are ignored.
+     */
+    public void record(long walletId, long counterpartyWalletId, long lockWaitNanos) {
+        if (lockWaitNanos < minLockWaitNanos || !properties.isEnabled()) {
+            return;
+        }
+        if (walletId > 0) {
+            record(walletId, lockWaitNanos);
+        }
+        if (counterpartyWalletId > 0) {
+            record(counterpartyWalletId, lockWaitNanos);
+        }
+    }
+
+    private void record(long walletId, long lockWaitNanos) {
+        sketch.add(walletId, lockWaitNanos);
+        offer(walletId, sketch.estimate(walletId));
+    }
+
+    private void offer(long walletId, long estimate) {
+        int mask = candidates.length() - 1;
+        int base = (int) CountMinSketch.mix(walletId) & mask;
+        int victim = -1;
+        long victimId = 0L;
+        long victimEstimate = Long.MAX_VALUE;
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (base + probe) & mask;
+            long current = candidates.get(slot);
+            if (current == 0L) {
+                if (candidates.compareAndSet(slot, 0L, walletId)) {
+                    return;
+                }
+                current = candidates.get(slot);
+            }
+            if (current == walletId) {
+                return;
+            }
+            long currentEstimate = sketch.estimate(current);
+            if (currentEstimate < victimEstimate) {
+                victim = slot;
+                victimId = current;
+                victimEstimate = currentEstimate;
+            }
+        }
+        // Losing this race only means the wallet is offered again on its next contended operation.
+        if (estimate > victimEstimate) {
+            candidates.compareAndSet(victim, victimId, walletId);
+        }
+    }
+
+    public boolean isHot(long walletId) {
+        return properties.isEnabled() && sketch.estimate(walletId) >= hotThresholdNanos;
+    }
+
+    public HotWallet estimate(long walletId) {
+        long estimate = sketch.estimate(walletId);
+        return new HotWallet(walletId, Duration.ofNanos(estimate), estimate >= hotThresholdNanos);
+    }
+
+    public List<HotWallet> top(int limit) {
+        long[] ids = new long[candidates.length()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = candidates.get(i);
+        }
+        return Arrays.stream(ids)
+                .filter(id -> id != 0L)
+                .distinct()
+                .mapToObj(this::estimate)
+                .filter(wallet -> !wallet.lockWait().isZero())
+                .sorted(Comparator.comparing(HotWallet::lockWait).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public List<HotWallet> top() {
+        return top(properties.getTopK());
+    }
+
+    @Scheduled(fixedDelayString = "${funds.hot-wallets.decay-interval:10s}")
+    public void decay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lockWaitGauge.register(top().stream()
+                .map(wallet -> MultiGauge.Row.of(Tags.of("wallet_id", Long.toString(wallet.walletId())),
+                        wallet.lockWait().toNanos() / 1e9))
+                .toList(), true);
+        sketch.decay();
+    }
+}
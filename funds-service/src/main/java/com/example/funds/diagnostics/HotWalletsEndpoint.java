@@ -0,0 +1,32 @@
+package com.example.funds.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Exposes the hot-wallet ranking at {@code /actuator/hotwallets}.
+ */
+@Component
+@Endpoint(id = "hotwallets")
+public class HotWalletsEndpoint {
+    private final HotWalletProfiler profiler;
+
+    public HotWalletsEndpoint(HotWalletProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public List<HotWallet> hotWallets(@Nullable Integer limit) {
+        return limit == null ? profiler.top() : profiler.top(limit);
+    }
+
+    @ReadOperation
+    public HotWallet wallet(@Selector long walletId) {
+        return profiler.estimate(walletId);
+    }
+}
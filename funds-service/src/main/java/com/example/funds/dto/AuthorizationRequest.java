@@ -0,0 +1,53 @@
+package com.example.funds.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.Duration;
+
+public class AuthorizationRequest {
+    @NotNull
+    private Long walletId;
+
+    @NotNull
+    private String currencyCode;
+
+    @NotNull
+    @DecimalMin(value = "0.0", inclusive = false)
+    private BigDecimal amount;
+
+    // ISO-8601 duration such as PT15M; funds.holds.default-expiry when absent.
+    private Duration expiresIn;
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public String getCurrencyCode() {
+        return currencyCode;
+    }
+
+    public void setCurrencyCode(String currencyCode) {
+        this.currencyCode = currencyCode;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Duration getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(Duration expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.money.Money;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.service.hold.HoldService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record AuthorizationResponse(
+        Long id,
+        UUID referenceId,
+        Long walletId,
+        BigDecimal amount,
+        TransactionStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime expiresAt) {
+
+    public static AuthorizationResponse from(HoldService.Authorization authorization) {
+        Transaction transaction = authorization.transaction();
+        return new AuthorizationResponse(
+                transaction.getId(),
+                transaction.getReferenceId(),
+                transaction.getWallet().getId(),
+                Money.toDecimal(transaction.getAmount()),
+                transaction.getStatus(),
+                transaction.getCreatedAt(),
+                authorization.expiresAt());
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.funds.dto;
+
+public enum BatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
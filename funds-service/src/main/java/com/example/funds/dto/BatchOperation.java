@@ -0,0 +1,63 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.TransactionType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+public class BatchOperation {
+    @NotNull
+    private TransactionType type;
+
+    @NotNull
+    private Long walletId;
+
+    private Long targetWalletId;
+
+    @NotNull
+    private String currencyCode;
+
+    @NotNull
+    @DecimalMin(value = "0.0", inclusive = false)
+    private BigDecimal amount;
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public Long getTargetWalletId() {
+        return targetWalletId;
+    }
+
+    public void setTargetWalletId(Long targetWalletId) {
+        this.targetWalletId = targetWalletId;
+    }
+
+    public String getCurrencyCode() {
+        return currencyCode;
+    }
+
+    public void setCurrencyCode(String currencyCode) {
+        this.currencyCode = currencyCode;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.funds.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BatchRequest {
+    @NotNull
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+
+    @NotEmpty
+    @Size(max = 10000)
+    private List<@Valid BatchOperation> operations;
+
+    public BatchMode getMode() {
+        return mode;
+    }
+
+    public void setMode(BatchMode mode) {
+        this.mode = mode;
+    }
+
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.TransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchResponse(BatchMode mode, boolean committed, List<ItemResult> results) {
+
+    public record ItemResult(int index, TransactionStatus status, UUID referenceId, String error) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.funds.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import java.math.BigDecimal;
+
+public class CaptureRequest {
+    // The whole authorized amount when absent.
+    @DecimalMin(value = "0.0", inclusive = false)
+    private BigDecimal amount;
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.funds.dto;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque cursor tokens for keyset pagination: the sort key of the last returned row, packed as
+ * longs and base64url encoded.
+ */
+public final class CursorToken {
+
+    private CursorToken() {
+    }
+
+    public static String encode(long... keys) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * keys.length);
+        for (long key : keys) {
+            buffer.putLong(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static long[] decode(String token, int size) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != Long.BYTES * size) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = buffer.getLong();
+        }
+        return keys;
+    }
+}
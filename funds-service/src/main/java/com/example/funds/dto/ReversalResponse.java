@@ -0,0 +1,30 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.money.Money;
+import com.example.funds.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ReversalResponse(
+        Long id,
+        UUID referenceId,
+        String reversedReferenceId,
+        Long walletId,
+        BigDecimal amount,
+        TransactionStatus status,
+        LocalDateTime createdAt) {
+
+    public static ReversalResponse from(Transaction transaction, String reversedReferenceId) {
+        return new ReversalResponse(
+                transaction.getId(),
+                transaction.getReferenceId(),
+                reversedReferenceId,
+                transaction.getWallet().getId(),
+                Money.toDecimal(transaction.getAmount()),
+                transaction.getStatus(),
+                transaction.getCreatedAt());
+    }
+}
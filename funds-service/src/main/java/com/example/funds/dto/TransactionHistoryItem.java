@@ -0,0 +1,26 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.money.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionHistoryItem(
+        Long id,
+        UUID referenceId,
+        TransactionType transactionType,
+        TransactionStatus status,
+        BigDecimal amount,
+        LocalDateTime createdAt) {
+
+    /**
+     * Used by the history query, which reads the amount in scaled {@link Money} units.
+     */
+    public TransactionHistoryItem(Long id, UUID referenceId, TransactionType transactionType,
+                                  TransactionStatus status, long amount, LocalDateTime createdAt) {
+        this(id, referenceId, transactionType, status, Money.toDecimal(amount), createdAt);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.funds.dto;
+
+import java.util.List;
+
+public record TransactionHistoryPage(List<TransactionHistoryItem> items, String nextCursor) {
+}
@@ -0,0 +1,31 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.money.Money;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionResponse(
+        Long id,
+        UUID referenceId,
+        Long walletId,
+        TransactionType transactionType,
+        BigDecimal amount,
+        TransactionStatus status,
+        LocalDateTime createdAt) {
+
+    public static TransactionResponse from(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getReferenceId(),
+                transaction.getWallet().getId(),
+                transaction.getTransactionType(),
+                Money.toDecimal(transaction.getAmount()),
+                transaction.getStatus(),
+                transaction.getCreatedAt());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.money.Money;
+import com.example.funds.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransferResponse(
+        Long id,
+        UUID referenceId,
+        Long sourceWalletId,
+        Long targetWalletId,
+        BigDecimal amount,
+        TransactionStatus status,
+        LocalDateTime createdAt) {
+
+    public static TransferResponse from(Transaction transaction, Long targetWalletId) {
+        return new TransferResponse(
+                transaction.getId(),
+                transaction.getReferenceId(),
+                transaction.getWallet().getId(),
+                targetWalletId,
+                Money.toDecimal(transaction.getAmount()),
+                transaction.getStatus(),
+                transaction.getCreatedAt());
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.funds.dto;
+
+import java.util.List;
+
+public record WalletPage(List<WalletResponse> items, String nextCursor) {
+}
@@ -0,0 +1,32 @@
+package com.example.funds.dto;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record WalletResponse(
+        Long id,
+        Long customerId,
+        String currencyCode,
+        BigDecimal balance,
+        BigDecimal heldBalance,
+        int balanceSlots,
+        Long version,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    public static WalletResponse from(Wallet wallet, long balance) {
+        return new WalletResponse(
+                wallet.getId(),
+                wallet.getCustomerId(),
+                wallet.getCurrencyCode(),
+                Money.toDecimal(balance),
+                Money.toDecimal(wallet.getHeldBalance()),
+                wallet.getBalanceSlots(),
+                wallet.getVersion(),
+                wallet.getCreatedAt(),
+                wallet.getUpdatedAt());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.funds.jdbc;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the primary.
+ *
+ * <p>The routing decision needs the transaction's read-only flag, which Spring only publishes
+ * after the transaction manager has asked for a connection. The lazy proxy this class extends
+ * hands out a placeholder at that point and fetches the real connection on the first statement,
+ * by which time the flag is set. A thread pinned to the primary, for read-your-writes, skips the
+ * replica even in read-only transactions.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final Map<Target, DataSource> targets = new EnumMap<>(Target.class);
+    private final Map<Target, LongAdder> routed = new EnumMap<>(Target.class);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        for (Target target : Target.values()) {
+            routed.put(target, new LongAdder());
+        }
+        Router router = new Router();
+        router.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Routes this thread's connections to the primary until {@link #unpin()}.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Where a connection fetched on this thread right now would go.
+     */
+    public static Target currentTarget() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PINNED_TO_PRIMARY.get() == null
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+
+    public DataSource getTarget(Target target) {
+        return targets.get(target);
+    }
+
+    /**
+     * Connections fetched from the target so far.
+     */
+    public long getRouted(Target target) {
+        return routed.get(target).sum();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : targets.values()) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private final class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            Target target = currentTarget();
+            routed.get(target).increment();
+            return target;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.funds.jdbc;
+
+/**
+ * Counts the SQL statements, database round trips and rows issued on the current thread while it
+ * is open. Scopes nest: closing one adds its counts to the scope it was opened in.
+ * Counting only happens for connections obtained from a {@link StatementCountingDataSource}.
+ */
+public final class SqlStatementScope implements AutoCloseable {
+    private static final ThreadLocal<SqlStatementScope> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementScope parent;
+    private long statements;
+    private long roundTrips;
+    private long rowsRead;
+    private long rowsWritten;
+
+    private SqlStatementScope(SqlStatementScope parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatementScope open() {
+        SqlStatementScope scope = new SqlStatementScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static SqlStatementScope current() {
+        return CURRENT.get();
+    }
+
+    void executed(long rowsWritten) {
+        executedBatch(1, rowsWritten);
+    }
+
+    void executedBatch(int statements, long rowsWritten) {
+        this.statements += Math.max(statements, 1);
+        this.roundTrips++;
+        this.rowsWritten += Math.max(rowsWritten, 0L);
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRoundTrips() {
+        return roundTrips;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        CURRENT.set(parent);
+        parent.statements += statements;
+        parent.roundTrips += roundTrips;
+        parent.rowsRead += rowsRead;
+        parent.rowsWritten += rowsWritten;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", roundTrips=" + roundTrips
+                + ", rowsRead=" + rowsRead + ", rowsWritten=" + rowsWritten;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.funds.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement executed on its connections to the thread's open
+ * {@link SqlStatementScope}, if there is one. A batch counts as its queued statements but
+ * one round trip; rows read are counted as the caller walks a result set.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection counting(Connection target) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "createStatement", "prepareStatement", "prepareCall" ->
+                    counting((Statement) invoke(target, method, args), method.getReturnType());
+            default -> invoke(target, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Statement counting(Statement target, Class<?> statementType) {
+        int[] batched = new int[1];
+        InvocationHandler handler = (proxy, method, args) -> {
+            SqlStatementScope scope = SqlStatementScope.current();
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "addBatch" -> {
+                    batched[0]++;
+                    yield invoke(target, method, args);
+                }
+                case "clearBatch" -> {
+                    batched[0] = 0;
+                    yield invoke(target, method, args);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    int statements = batched[0];
+                    batched[0] = 0;
+                    Object counts = invoke(target, method, args);
+                    if (scope != null) {
+                        scope.executedBatch(statements, sum(counts));
+                    }
+                    yield counts;
+                }
+                case "executeUpdate", "executeLargeUpdate" -> {
+                    Object rows = invoke(target, method, args);
+                    if (scope != null) {
+                        scope.executed(((Number) rows).longValue());
+                    }
+                    yield rows;
+                }
+                case "execute" -> {
+                    Object result = invoke(target, method, args);
+                    if (scope != null) {
+                        scope.executed(0L);
+                    }
+                    yield result;
+                }
+                case "executeQuery" -> {
+                    ResultSet resultSet = (ResultSet) invoke(target, method, args);
+                    if (scope != null) {
+                        scope.executed(0L);
+                    }
+                    yield counting(resultSet, scope);
+                }
+                case "getResultSet" -> counting((ResultSet) invoke(target, method, args), scope);
+                default -> invoke(target, method, args);
+            };
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{statementType}, handler);
+    }
+
+    private static ResultSet counting(ResultSet target, SqlStatementScope scope) {
+        if (target == null || scope == null) {
+            return target;
+        }
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "next" -> {
+                Object hasRow = invoke(target, method, args);
+                if (Boolean.TRUE.equals(hasRow)) {
+                    scope.rowRead();
+                }
+                yield hasRow;
+            }
+            default -> invoke(target, method, args);
+        };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, handler);
+    }
+
+    private static long sum(Object updateCounts) {
+        long rows = 0L;
+        if (updateCounts instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+        } else if (updateCounts instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(count, 0L);
+            }
+        }
+        return rows;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.funds.jdbc;
+
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Creates read-only, forward-only statements for queries whose rows are handled one at a time
+ * and must not be buffered in full, such as exports and startup rebuilds.
+ */
+public final class StreamingStatements {
+    private static final int FETCH_SIZE = 1000;
+
+    private StreamingStatements() {
+    }
+
+    /**
+     * Returns a creator that binds {@code args} in order. MySQL Connector/J only streams rows one
+     * at a time when asked for a fetch size of Integer.MIN_VALUE; other drivers fetch in batches.
+     */
+    public static PreparedStatementCreator forwardOnly(String sql, Object... args) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            boolean mysql = connection.getMetaData().getDatabaseProductName().startsWith("MySQL");
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        };
+    }
+}
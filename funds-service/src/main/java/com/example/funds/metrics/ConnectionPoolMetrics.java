@@ -0,0 +1,44 @@
+package com.example.funds.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Complements the {@code hikaricp.connections.*} meters with a single saturation ratio:
+ * connections in use plus threads waiting for one, over the pool size. Above 1 the pool
+ * is the bottleneck and requests queue for connections.
+ */
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+    private final HikariDataSource pool;
+
+    public ConnectionPoolMetrics(DataSource dataSource) {
+        this.pool = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (pool == null) {
+            return;
+        }
+        Gauge.builder("funds.db.pool.saturation", this, ConnectionPoolMetrics::saturation)
+                .description("Active connections plus waiting threads, relative to the maximum pool size")
+                .register(registry);
+    }
+
+    private double saturation() {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        if (poolBean == null) {
+            return 0.0;
+        }
+        return (double) (poolBean.getActiveConnections() + poolBean.getThreadsAwaitingConnection())
+                / pool.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.funds.metrics;
+
+import com.example.funds.diagnostics.HotWalletProfiler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times funds operations end to end and per phase, and counts them by outcome. Every meter is
+ * registered up front so that recording an operation only reads the clock and updates
+ * existing meters instead of looking them up by name and tags. The lock-wait phase is also
+ * handed to the {@link HotWalletProfiler} under the wallets the operation was attributed to.
+ */
+@Component
+public class FundsMetrics {
+    private static final Duration MINIMUM_EXPECTED = Duration.ofNanos(100_000);
+    private static final Duration MAXIMUM_EXPECTED = Duration.ofSeconds(30);
+
+    private final Timer[] durations;
+    private final Timer[][] phases;
+    private final Counter[][] outcomes;
+    private final HotWalletProfiler hotWallets;
+
+    public FundsMetrics(MeterRegistry meterRegistry, HotWalletProfiler hotWallets) {
+        this.hotWallets = hotWallets;
+        FundsOperation[] operations = FundsOperation.values();
+        this.durations = new Timer[operations.length];
+        this.phases = new Timer[operations.length][OperationPhase.values().length];
+        this.outcomes = new Counter[operations.length][OperationOutcome.values().length];
+        for (FundsOperation operation : operations) {
+            durations[operation.ordinal()] = Timer.builder("funds.operation")
+                    .description("Time to complete a funds operation, including lock retries")
+                    .tag("operation", operation.tag())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(MINIMUM_EXPECTED)
+                    .maximumExpectedValue(MAXIMUM_EXPECTED)
+                    .register(meterRegistry);
+            for (OperationPhase phase : OperationPhase.values()) {
+                phases[operation.ordinal()][phase.ordinal()] = Timer.builder("funds.operation.phase")
+                        .description("Time a funds operation spent in one phase of its database transaction")
+                        .tag("operation", operation.tag())
+                        .tag("phase", phase.tag())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(MINIMUM_EXPECTED)
+                        .maximumExpectedValue(MAXIMUM_EXPECTED)
+                        .register(meterRegistry);
+            }
+            for (OperationOutcome outcome : OperationOutcome.values()) {
+                outcomes[operation.ordinal()][outcome.ordinal()] = Counter.builder("funds.operation.outcomes")
+                        .description("Funds operations by how they ended")
+                        .tag("operation", operation.tag())
+                        .tag("outcome", outcome.tag())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public <T> T record(FundsOperation operation, Long walletId, Long counterpartyWalletId, Supplier<T> work) {
+        return record(operation, () -> {
+            PhaseClock.attribute(walletId, counterpartyWalletId);
+            return work.get();
+        });
+    }
+
+    public <T> T record(FundsOperation operation, Supplier<T> work) {
+        long[] spent = PhaseClock.begin();
+        long start = System.nanoTime();
+        OperationOutcome outcome = OperationOutcome.ERROR;
+        try {
+            T result = work.get();
+            outcome = OperationOutcome.COMPLETED;
+            return result;
+        } catch (RuntimeException ex) {
+            outcome = OperationOutcome.of(ex);
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            PhaseClock.end(spent);
+            durations[operation.ordinal()].record(elapsed, TimeUnit.NANOSECONDS);
+            outcomes[operation.ordinal()][outcome.ordinal()].increment();
+            recordPhases(phases[operation.ordinal()], spent, elapsed);
+            hotWallets.record(PhaseClock.wallet(spent), PhaseClock.counterpartyWallet(spent),
+                    spent[OperationPhase.LOCK_ACQUIRE.ordinal()]);
+        }
+    }
+
+    private static void recordPhases(Timer[] timers, long[] spent, long elapsed) {
+        // Operations handed to a wallet lane run their transaction on the lane thread; there is nothing to split.
+        if (spent[OperationPhase.COMMIT.ordinal()] == 0L) {
+            return;
+        }
+        long accounted = 0L;
+        for (OperationPhase phase : OperationPhase.values()) {
+            if (phase != OperationPhase.BUSINESS_LOGIC) {
+                timers[phase.ordinal()].record(spent[phase.ordinal()], TimeUnit.NANOSECONDS);
+                accounted += spent[phase.ordinal()];
+            }
+        }
+        timers[OperationPhase.BUSINESS_LOGIC.ordinal()].record(Math.max(0L, elapsed - accounted), TimeUnit.NANOSECONDS);
+    }
+}
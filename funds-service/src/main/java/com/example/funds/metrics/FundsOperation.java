@@ -0,0 +1,20 @@
+package com.example.funds.metrics;
+
+import java.util.Locale;
+
+public enum FundsOperation {
+    CREDIT,
+    DEBIT,
+    TRANSFER,
+    REVERSE,
+    AUTHORIZE,
+    CAPTURE,
+    VOID,
+    BATCH;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.funds.metrics;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+public enum OperationOutcome {
+    COMPLETED,
+    INSUFFICIENT_FUNDS,
+    NOT_FOUND,
+    INVALID,
+    ALREADY_REVERSED,
+    NOT_REVERSIBLE,
+    LIMIT_EXCEEDED,
+    LOCK_FAILURE,
+    OVERLOADED,
+    ERROR;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String tag() {
+        return tag;
+    }
+
+    static OperationOutcome of(RuntimeException ex) {
+        if (ex instanceof ConcurrencyFailureException) {
+            return LOCK_FAILURE;
+        }
+        if (ex instanceof RejectedExecutionException) {
+            return OVERLOADED;
+        }
+        if (ex instanceof IllegalStateException) {
+            return switch (String.valueOf(ex.getMessage())) {
+                case "Insufficient funds" -> INSUFFICIENT_FUNDS;
+                case "Transaction already reversed" -> ALREADY_REVERSED;
+                case "Transaction cannot be reversed" -> NOT_REVERSIBLE;
+                case "Velocity limit exceeded" -> LIMIT_EXCEEDED;
+                default -> ERROR;
+            };
+        }
+        if (ex instanceof IllegalArgumentException) {
+            return ex.getMessage() != null && ex.getMessage().endsWith("not found") ? NOT_FOUND : INVALID;
+        }
+        return ERROR;
+    }
+}
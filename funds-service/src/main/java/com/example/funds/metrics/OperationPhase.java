@@ -0,0 +1,23 @@
+package com.example.funds.metrics;
+
+/**
+ * Where a funds operation spends its time. Lock acquisition covers locking reads and
+ * conditional updates, persist covers ledger inserts, and commit covers the flush of
+ * dirty wallets together with the database commit; business logic is what remains.
+ */
+public enum OperationPhase {
+    LOCK_ACQUIRE("lock_acquire"),
+    PERSIST("persist"),
+    COMMIT("commit"),
+    BUSINESS_LOGIC("business_logic");
+
+    private final String tag;
+
+    OperationPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
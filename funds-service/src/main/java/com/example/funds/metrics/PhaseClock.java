@@ -0,0 +1,74 @@
+package com.example.funds.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread accumulator for the phases of the funds operation currently being recorded.
+ * Outside of {@link FundsMetrics#record} every method is a no-op, so repository calls made
+ * by scheduled jobs or lane workers are not attributed to anything.
+ */
+public final class PhaseClock {
+    private static final int ACTIVE = OperationPhase.values().length;
+    private static final int COMMIT_STARTED = ACTIVE + 1;
+    private static final int WALLET = COMMIT_STARTED + 1;
+    private static final int COUNTERPARTY_WALLET = WALLET + 1;
+    private static final ThreadLocal<long[]> PHASES = ThreadLocal.withInitial(() -> new long[COUNTERPARTY_WALLET + 1]);
+
+    private PhaseClock() {
+    }
+
+    static long[] begin() {
+        long[] phases = PHASES.get();
+        Arrays.fill(phases, 0L);
+        phases[ACTIVE] = 1L;
+        return phases;
+    }
+
+    static void end(long[] phases) {
+        phases[ACTIVE] = 0L;
+    }
+
+    static void add(OperationPhase phase, long nanos) {
+        long[] phases = PHASES.get();
+        if (phases[ACTIVE] != 0L) {
+            phases[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Names the wallets whose rows the current operation locks, for contention profiling.
+     */
+    public static void attribute(Long walletId, Long counterpartyWalletId) {
+        long[] phases = PHASES.get();
+        if (phases[ACTIVE] != 0L) {
+            phases[WALLET] = walletId == null ? 0L : walletId;
+            phases[COUNTERPARTY_WALLET] = counterpartyWalletId == null ? 0L : counterpartyWalletId;
+        }
+    }
+
+    static long wallet(long[] phases) {
+        return phases[WALLET];
+    }
+
+    static long counterpartyWallet(long[] phases) {
+        return phases[COUNTERPARTY_WALLET];
+    }
+
+    /**
+     * Marks the end of the transaction callback; everything until {@link #stopCommit()} is commit time.
+     */
+    public static void startCommit() {
+        long[] phases = PHASES.get();
+        if (phases[ACTIVE] != 0L) {
+            phases[COMMIT_STARTED] = System.nanoTime();
+        }
+    }
+
+    public static void stopCommit() {
+        long[] phases = PHASES.get();
+        if (phases[COMMIT_STARTED] != 0L) {
+            phases[OperationPhase.COMMIT.ordinal()] += System.nanoTime() - phases[COMMIT_STARTED];
+            phases[COMMIT_STARTED] = 0L;
+        }
+    }
+}
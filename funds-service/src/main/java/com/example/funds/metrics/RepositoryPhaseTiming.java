@@ -0,0 +1,63 @@
+package com.example.funds.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Attributes repository calls to operation phases: locking reads and conditional updates wait
+ * on row locks, saves write ledger rows. The interceptor is added to every Spring Data
+ * repository proxy and classifies each method once.
+ */
+@Component
+public class RepositoryPhaseTiming implements BeanPostProcessor {
+    private final PhaseInterceptor interceptor = new PhaseInterceptor();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(interceptor)));
+        }
+        return bean;
+    }
+
+    private static final class PhaseInterceptor implements MethodInterceptor {
+        private final Map<Method, Optional<OperationPhase>> phases = new ConcurrentHashMap<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Optional<OperationPhase> phase = phases.computeIfAbsent(invocation.getMethod(), PhaseInterceptor::classify);
+            if (phase.isEmpty()) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                PhaseClock.add(phase.get(), System.nanoTime() - start);
+            }
+        }
+
+        private static Optional<OperationPhase> classify(Method method) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Lock.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, Modifying.class)) {
+                return Optional.of(OperationPhase.LOCK_ACQUIRE);
+            }
+            if (method.getName().startsWith("save")) {
+                return Optional.of(OperationPhase.PERSIST);
+            }
+            return Optional.empty();
+        }
+    }
+}
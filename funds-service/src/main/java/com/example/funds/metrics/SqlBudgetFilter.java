@@ -0,0 +1,80 @@
+package com.example.funds.metrics;
+
+import com.example.funds.config.SqlBudgetProperties;
+import com.example.funds.jdbc.SqlStatementScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlStatementScope} around each HTTP request, records what it issued per route,
+ * and logs requests that go over the configured statement or row budget. Work handed to other
+ * threads, such as wallet lanes or streamed responses, is not attributed to the request.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementScope scope = SqlStatementScope.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementScope scope) {
+        if (scope.getRoundTrips() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "route", route);
+        summary("funds.sql.statements", "SQL statements executed per HTTP request", tags)
+                .record(scope.getStatements());
+        summary("funds.sql.round_trips", "Database round trips per HTTP request", tags)
+                .record(scope.getRoundTrips());
+        summary("funds.sql.rows", "Rows read or written per HTTP request", tags.and("direction", "read"))
+                .record(scope.getRowsRead());
+        summary("funds.sql.rows", "Rows read or written per HTTP request", tags.and("direction", "written"))
+                .record(scope.getRowsWritten());
+        if (scope.getStatements() > properties.getMaxStatements() || scope.getRowsRead() > properties.getMaxRowsRead()) {
+            Counter.builder("funds.sql.budget.exceeded")
+                    .description("HTTP requests that issued more SQL than the budget allows")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} exceeded the SQL budget of {} statements / {} rows read: {}", request.getMethod(), route,
+                    properties.getMaxStatements(), properties.getMaxRowsRead(), scope);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.funds.model;
+
+import com.example.funds.money.AmountConverter;
+import com.example.funds.money.Money;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "balance_snapshot")
+@IdClass(BalanceSnapshot.Key.class)
+public class BalanceSnapshot {
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    @Column(name = "last_entry_id")
+    private Long lastEntryId;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = Money.SCALE)
+    @Convert(converter = AmountConverter.class)
+    private long balance;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public void setLastEntryId(Long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(long balance) {
+        this.balance = balance;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public static class Key implements Serializable {
+        private Long walletId;
+        private Long lastEntryId;
+
+        public Key() {
+        }
+
+        public Key(Long walletId, Long lastEntryId) {
+            this.walletId = walletId;
+            this.lastEntryId = lastEntryId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(walletId, key.walletId) && Objects.equals(lastEntryId, key.lastEntryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletId, lastEntryId);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.funds.model;
+
+import com.example.funds.money.AmountConverter;
+import com.example.funds.money.Money;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "journal_entry")
+public class JournalEntry {
+    // AUTO_INCREMENT rather than a pooled sequence: ids must grow in insertion order for snapshots to be exact.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "posting_id", nullable = false)
+    private UUID postingId;
+
+    @Column(name = "account", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private LedgerAccount account;
+
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = Money.SCALE)
+    @Convert(converter = AmountConverter.class)
+    private long amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getPostingId() {
+        return postingId;
+    }
+
+    public void setPostingId(UUID postingId) {
+        this.postingId = postingId;
+    }
+
+    public LedgerAccount getAccount() {
+        return account;
+    }
+
+    public void setAccount(LedgerAccount account) {
+        this.account = account;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.funds.model;
+
+public enum LedgerAccount {
+    WALLET,
+    SETTLEMENT
+}
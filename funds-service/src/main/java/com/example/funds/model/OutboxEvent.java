@@ -0,0 +1,100 @@
+package com.example.funds.model;
+
+import com.example.funds.money.AmountConverter;
+import com.example.funds.money.Money;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "reference_id", nullable = false)
+    private UUID referenceId;
+
+    @Column(name = "original_reference_id")
+    private UUID originalReferenceId;
+
+    @Column(name = "event_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TransactionType eventType;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(name = "counterparty_wallet_id")
+    private Long counterpartyWalletId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = Money.SCALE)
+    @Convert(converter = AmountConverter.class)
+    private long amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(UUID referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public UUID getOriginalReferenceId() {
+        return originalReferenceId;
+    }
+
+    public void setOriginalReferenceId(UUID originalReferenceId) {
+        this.originalReferenceId = originalReferenceId;
+    }
+
+    public TransactionType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(TransactionType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public Long getCounterpartyWalletId() {
+        return counterpartyWalletId;
+    }
+
+    public void setCounterpartyWalletId(Long counterpartyWalletId) {
+        this.counterpartyWalletId = counterpartyWalletId;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
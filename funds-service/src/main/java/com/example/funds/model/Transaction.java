@@ -1,29 +1,36 @@
 package com.example.funds.model;
 
+import com.example.funds.money.AmountConverter;
+import com.example.funds.money.Money;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "transaction")
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wallet_id", nullable = false)
     private Wallet wallet;
 
-    @Column(name = "amount", nullable = false)
-    private BigDecimal amount;
+    @Column(name = "counterparty_wallet_id")
+    private Long counterpartyWalletId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = Money.SCALE)
+    @Convert(converter = AmountConverter.class)
+    private long amount;
 
     @Column(name = "transaction_type", nullable = false)
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
 
     @Column(name = "reference_id")
-    private String referenceId;
+    private UUID referenceId;
 
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
@@ -34,7 +41,9 @@ public class Transaction {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     public Long getId() {
@@ -53,11 +62,19 @@ public class Transaction {
         this.wallet = wallet;
     }
 
-    public BigDecimal getAmount() {
+    public Long getCounterpartyWalletId() {
+        return counterpartyWalletId;
+    }
+
+    public void setCounterpartyWalletId(Long counterpartyWalletId) {
+        this.counterpartyWalletId = counterpartyWalletId;
+    }
+
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
@@ -69,11 +86,11 @@ public class Transaction {
         this.transactionType = transactionType;
     }
 
-    public String getReferenceId() {
+    public UUID getReferenceId() {
         return referenceId;
     }
 
-    public void setReferenceId(String referenceId) {
+    public void setReferenceId(UUID referenceId) {
         this.referenceId = referenceId;
     }
 
@@ -88,4 +105,8 @@ public class Transaction {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.funds.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "transaction_hold")
+public class TransactionHold {
+    @Id
+    @Column(name = "reference_id")
+    private UUID referenceId;
+
+    @Column(name = "authorized_at", nullable = false)
+    private LocalDateTime authorizedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public UUID getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(UUID referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public LocalDateTime getAuthorizedAt() {
+        return authorizedAt;
+    }
+
+    public void setAuthorizedAt(LocalDateTime authorizedAt) {
+        this.authorizedAt = authorizedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
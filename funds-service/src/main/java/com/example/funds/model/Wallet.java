@@ -1,7 +1,12 @@
 package com.example.funds.model;
 
+import com.example.funds.money.AmountConverter;
+import com.example.funds.money.AmountJson;
+import com.example.funds.money.Money;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -17,8 +22,21 @@ public class Wallet {
     @Column(name = "currency_code", nullable = false, length = 3)
     private String currencyCode;
 
-    @Column(name = "balance", nullable = false)
-    private BigDecimal balance;
+    @Column(name = "balance", nullable = false, precision = 19, scale = Money.SCALE)
+    @Convert(converter = AmountConverter.class)
+    @JsonSerialize(using = AmountJson.Serializer.class)
+    @JsonDeserialize(using = AmountJson.Deserializer.class)
+    private long balance;
+
+    @Column(name = "held_balance", nullable = false, precision = 19, scale = Money.SCALE)
+    @Convert(converter = AmountConverter.class)
+    @JsonSerialize(using = AmountJson.Serializer.class)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long heldBalance;
+
+    @Column(name = "balance_slots", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int balanceSlots;
 
     @Version
     private Long version;
@@ -65,14 +83,30 @@ public class Wallet {
         this.currencyCode = currencyCode;
     }
 
-    public BigDecimal getBalance() {
+    public long getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(long balance) {
         this.balance = balance;
     }
 
+    public long getHeldBalance() {
+        return heldBalance;
+    }
+
+    public void setHeldBalance(long heldBalance) {
+        this.heldBalance = heldBalance;
+    }
+
+    public int getBalanceSlots() {
+        return balanceSlots;
+    }
+
+    public void setBalanceSlots(int balanceSlots) {
+        this.balanceSlots = balanceSlots;
+    }
+
     public Long getVersion() {
         return version;
     }
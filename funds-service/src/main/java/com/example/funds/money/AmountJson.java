@@ -0,0 +1,63 @@
+package com.example.funds.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Writes scaled {@link Money} units as JSON decimals and reads them back, rejecting amounts with
+ * more than {@value Money#SCALE} decimal places instead of rounding them.
+ */
+public final class AmountJson {
+
+    private AmountJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long units, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(Money.toDecimal(units));
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                BigDecimal amount = parser.getDecimalValue();
+                try {
+                    return Money.of(amount);
+                } catch (IllegalArgumentException ex) {
+                    throw context.weirdNumberException(amount, Long.class, ex.getMessage());
+                }
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                String text = parser.getText().trim();
+                try {
+                    return Money.of(new BigDecimal(text));
+                } catch (IllegalArgumentException ex) {
+                    throw context.weirdStringException(text, Long.class, ex.getMessage());
+                }
+            }
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.funds.money;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Minor-unit digits per currency from the ISO 4217 table the JDK ships. Currencies without minor
+ * units defined, or with more digits than amounts are stored with, are not supported.
+ */
+public final class CurrencyScale {
+    private static final Map<String, Integer> DIGITS = Currency.getAvailableCurrencies().stream()
+            .filter(currency -> currency.getDefaultFractionDigits() >= 0
+                    && currency.getDefaultFractionDigits() <= Money.SCALE)
+            .collect(Collectors.toUnmodifiableMap(Currency::getCurrencyCode, Currency::getDefaultFractionDigits));
+
+    private CurrencyScale() {
+    }
+
+    public static int digits(String currencyCode) {
+        Integer digits = currencyCode == null ? null : DIGITS.get(currencyCode);
+        if (digits == null) {
+            throw new IllegalArgumentException("Unsupported currency: " + currencyCode);
+        }
+        return digits;
+    }
+}
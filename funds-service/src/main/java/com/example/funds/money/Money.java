@@ -0,0 +1,67 @@
+package com.example.funds.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Arithmetic and scale rules for amounts. An amount is a {@code long} count of ten-thousandths,
+ * the scale of every DECIMAL(19,4) amount column, so it maps to the database exactly and adding or
+ * comparing amounts allocates nothing. An amount may use no more decimal places than its currency
+ * has minor-unit digits in ISO 4217; finer amounts are rejected, never rounded.
+ */
+public final class Money {
+    public static final int SCALE = 4;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal to scaled units, rejecting more than {@value #SCALE} decimal places.
+     */
+    public static long of(BigDecimal amount) {
+        if (amount.scale() > SCALE && amount.stripTrailingZeros().scale() > SCALE) {
+            throw new IllegalArgumentException("Amount has more than " + SCALE + " decimal places");
+        }
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount out of range");
+        }
+    }
+
+    /**
+     * Converts a decimal to scaled units, rejecting more decimal places than the currency has.
+     */
+    public static long of(BigDecimal amount, String currencyCode) {
+        long units = of(amount);
+        requireScale(units, currencyCode);
+        return units;
+    }
+
+    public static void requireScale(long units, String currencyCode) {
+        if (units % POWERS_OF_TEN[SCALE - CurrencyScale.digits(currencyCode)] != 0) {
+            throw new IllegalArgumentException("Amount has more decimal places than " + currencyCode + " allows");
+        }
+    }
+
+    public static BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public static long add(long augend, long addend) {
+        try {
+            return Math.addExact(augend, addend);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount out of range");
+        }
+    }
+
+    public static long subtract(long minuend, long subtrahend) {
+        try {
+            return Math.subtractExact(minuend, subtrahend);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount out of range");
+        }
+    }
+}
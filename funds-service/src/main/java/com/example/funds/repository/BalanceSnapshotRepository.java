@@ -0,0 +1,25 @@
+package com.example.funds.repository;
+
+import com.example.funds.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.Key> {
+    Optional<BalanceSnapshot> findFirstByWalletIdOrderByLastEntryIdDesc(Long walletId);
+
+    @Query("select s from BalanceSnapshot s where s.walletId in :walletIds and s.lastEntryId = "
+            + "(select max(o.lastEntryId) from BalanceSnapshot o where o.walletId = s.walletId)")
+    List<BalanceSnapshot> findLatest(@Param("walletIds") Collection<Long> walletIds);
+
+    @Modifying
+    @Query("delete from BalanceSnapshot s where s.walletId = :walletId and s.lastEntryId < :lastEntryId")
+    int deleteOlderThan(@Param("walletId") Long walletId, @Param("lastEntryId") long lastEntryId);
+}
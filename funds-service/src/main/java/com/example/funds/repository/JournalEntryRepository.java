@@ -0,0 +1,45 @@
+package com.example.funds.repository;
+
+import com.example.funds.model.JournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+    @Query("select count(e) as entries, max(e.id) as lastEntryId, coalesce(sum(e.amount), 0) as total "
+            + "from JournalEntry e where e.walletId = :walletId and e.id > :afterId")
+    Tail findTail(@Param("walletId") Long walletId, @Param("afterId") long afterId);
+
+    @Query("select e.walletId as walletId, sum(e.amount) as total from JournalEntry e "
+            + "where e.walletId in :walletIds and e.id > coalesce("
+            + "(select max(s.lastEntryId) from BalanceSnapshot s where s.walletId = e.walletId), 0) "
+            + "group by e.walletId")
+    List<WalletTotal> sumTails(@Param("walletIds") Collection<Long> walletIds);
+
+    @Query("select coalesce(max(e.id), 0) from JournalEntry e")
+    long findLastEntryId();
+
+    @Query("select distinct e.walletId from JournalEntry e "
+            + "where e.id > :afterId and e.id <= :upToId and e.walletId is not null")
+    List<Long> findWalletIdsBetween(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    interface Tail {
+        long getEntries();
+
+        Long getLastEntryId();
+
+        BigDecimal getTotal();
+    }
+
+    interface WalletTotal {
+        Long getWalletId();
+
+        BigDecimal getTotal();
+    }
+}
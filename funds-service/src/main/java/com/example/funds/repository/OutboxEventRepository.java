@@ -0,0 +1,32 @@
+package com.example.funds.repository;
+
+import com.example.funds.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Oldest undelivered events, locked FOR UPDATE SKIP LOCKED (lock timeout -2): rows another
+     * relay has already claimed are passed over instead of waited for.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> claim(Limit limit);
+
+    /**
+     * Undelivered events, estimated from the id range so it stays two index probes however large
+     * the backlog; pooled id blocks leave gaps, so this can overstate it.
+     */
+    @Query("select coalesce(max(e.id) - min(e.id) + 1, 0) from OutboxEvent e")
+    long estimateBacklog();
+}
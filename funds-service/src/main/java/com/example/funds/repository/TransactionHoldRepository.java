@@ -0,0 +1,27 @@
+package com.example.funds.repository;
+
+import com.example.funds.model.TransactionHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TransactionHoldRepository extends JpaRepository<TransactionHold, UUID> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TransactionHold> findForUpdateByReferenceId(UUID referenceId);
+
+    /**
+     * Keyset page of outstanding holds in primary key order, for reloading the expiry wheel.
+     */
+    @Query("select h from TransactionHold h where (:afterReferenceId is null or h.referenceId > :afterReferenceId) "
+            + "order by h.referenceId")
+    List<TransactionHold> findPage(@Param("afterReferenceId") UUID afterReferenceId, Limit limit);
+}
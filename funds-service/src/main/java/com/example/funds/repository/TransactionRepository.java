@@ -1,12 +1,61 @@
 package com.example.funds.repository;
 
+import com.example.funds.dto.TransactionHistoryItem;
 import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Optional<Transaction> findByReferenceId(String referenceId);
+    Optional<Transaction> findByReferenceId(UUID referenceId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.referenceId = :referenceId")
+    Optional<Transaction> findForUpdateByReferenceId(@Param("referenceId") UUID referenceId);
+
+    /**
+     * As {@link #findForUpdateByReferenceId}, but only rows created since {@code since}, letting
+     * MySQL skip every monthly partition that ends earlier.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.referenceId = :referenceId and t.createdAt >= :since")
+    Optional<Transaction> findForUpdateByReferenceIdCreatedSince(@Param("referenceId") UUID referenceId,
+                                                                 @Param("since") LocalDateTime since);
+
+    /**
+     * Newest-first page of a wallet's history, seeking past (beforeCreatedAt, beforeId). Only
+     * columns in idx_transaction_wallet_history are read, so MySQL answers from the index alone.
+     * Only rows whose wallet_id is this wallet are listed: a transfer is one row on its source
+     * wallet and does not appear in the target's history.
+     */
+    @Query("select new com.example.funds.dto.TransactionHistoryItem("
+            + "t.id, t.referenceId, t.transactionType, t.status, t.amount, t.createdAt) "
+            + "from Transaction t where t.wallet.id = :walletId "
+            + "and (:from is null or t.createdAt >= :from) "
+            + "and (:to is null or t.createdAt < :to) "
+            + "and (:type is null or t.transactionType = :type) "
+            + "and (:status is null or t.status = :status) "
+            + "and (:beforeCreatedAt is null or t.createdAt < :beforeCreatedAt "
+            + "or (t.createdAt = :beforeCreatedAt and t.id < :beforeId)) "
+            + "order by t.createdAt desc, t.id desc")
+    List<TransactionHistoryItem> findHistory(@Param("walletId") Long walletId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("type") TransactionType type,
+                                             @Param("status") TransactionStatus status,
+                                             @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                             @Param("beforeId") Long beforeId,
+                                             Limit limit);
 }
\ No newline at end of file
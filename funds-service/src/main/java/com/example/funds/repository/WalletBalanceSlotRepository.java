@@ -0,0 +1,42 @@
+package com.example.funds.repository;
+
+import com.example.funds.model.WalletBalanceSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WalletBalanceSlotRepository extends JpaRepository<WalletBalanceSlot, WalletBalanceSlot.Key> {
+    @Modifying
+    @Query("update WalletBalanceSlot s set s.balance = s.balance + :amount "
+            + "where s.walletId = :walletId and s.slot = :slot")
+    int addToSlot(@Param("walletId") Long walletId, @Param("slot") int slot, @Param("amount") long amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<WalletBalanceSlot> findAllByWalletIdOrderBySlotAsc(Long walletId);
+
+    @Query("select coalesce(sum(s.balance), 0) from WalletBalanceSlot s where s.walletId = :walletId")
+    BigDecimal sumBalance(@Param("walletId") Long walletId);
+
+    @Query("select s.walletId as walletId, sum(s.balance) as total from WalletBalanceSlot s "
+            + "where s.walletId in :walletIds group by s.walletId")
+    List<SlotTotal> sumBalances(@Param("walletIds") Collection<Long> walletIds);
+
+    @Modifying
+    @Query("delete from WalletBalanceSlot s where s.walletId = :walletId")
+    int deleteAllByWalletId(@Param("walletId") Long walletId);
+
+    interface SlotTotal {
+        Long getWalletId();
+
+        BigDecimal getTotal();
+    }
+}
@@ -1,17 +1,84 @@
 package com.example.funds.repository;
 
 import com.example.funds.model.Wallet;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Wallet> findByIdAndCurrencyCode(Long id, String currencyCode);
-    
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Wallet> findAllByIdInAndCurrencyCodeOrderByIdAsc(Collection<Long> ids, String currencyCode);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Wallet> findForUpdateById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Wallet> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    Optional<Wallet> findSharedByIdAndCurrencyCode(Long id, String currencyCode);
+
+    Optional<Wallet> findWithoutLockByIdAndCurrencyCode(Long id, String currencyCode);
+
+    List<Wallet> findWithoutLockByIdInAndCurrencyCode(Collection<Long> ids, String currencyCode);
+
+    boolean existsByIdAndCurrencyCode(Long id, String currencyCode);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance + :amount, w.version = w.version + 1, w.updatedAt = :now "
+            + "where w.id = :id and w.currencyCode = :currencyCode")
+    int incrementBalance(@Param("id") Long id, @Param("currencyCode") String currencyCode,
+                         @Param("amount") long amount, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance - :amount, w.version = w.version + 1, w.updatedAt = :now "
+            + "where w.id = :id and w.currencyCode = :currencyCode and w.balance >= :amount")
+    int decrementBalance(@Param("id") Long id, @Param("currencyCode") String currencyCode,
+                         @Param("amount") long amount, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance + :delta, w.version = w.version + 1, w.updatedAt = :now "
+            + "where w.id = :id and w.balance + :delta >= 0")
+    int adjustBalance(@Param("id") Long id, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes a wallet unless a transaction row references it; returns 0 if it was kept or is
+     * missing. The transaction table has no foreign keys, so this check takes their place. Every
+     * writer locks the wallet before inserting, and the DELETE holds the row lock while it checks.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM wallet WHERE id = :id "
+            + "AND NOT EXISTS (SELECT 1 FROM transaction t WHERE t.wallet_id = :id) "
+            + "AND NOT EXISTS (SELECT 1 FROM transaction t WHERE t.counterparty_wallet_id = :id)", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("id") Long id);
+
     Optional<Wallet> findByCustomerIdAndCurrencyCode(Long customerId, String currencyCode);
-}
\ No newline at end of file
+
+    @Query("select w.customerId from Wallet w where w.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id);
+
+    List<Wallet> findAllByBalanceSlotsGreaterThan(int balanceSlots);
+
+    @Query("select w from Wallet w where w.id > :afterId "
+            + "and (:customerId is null or w.customerId = :customerId) "
+            + "and (:currencyCode is null or w.currencyCode = :currencyCode) "
+            + "order by w.id")
+    List<Wallet> findPage(@Param("afterId") long afterId, @Param("customerId") Long customerId,
+                          @Param("currencyCode") String currencyCode, Limit limit);
+}
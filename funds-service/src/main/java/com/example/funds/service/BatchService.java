@@ -0,0 +1,257 @@
+package com.example.funds.service;
+
+import com.example.funds.dto.BatchMode;
+import com.example.funds.dto.BatchOperation;
+import com.example.funds.dto.BatchRequest;
+import com.example.funds.dto.BatchResponse;
+import com.example.funds.metrics.FundsOperation;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.journal.JournalService;
+import com.example.funds.service.limit.VelocityLimiter;
+import com.example.funds.service.outbox.OutboxWriter;
+import com.example.funds.service.split.SplitBalanceService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of credits, debits and transfers in one database transaction. Every wallet the
+ * batch touches is locked up front by a single statement in id order, each operation is then
+ * checked and applied in memory, and the resulting transaction rows are written as JDBC batches.
+ * In journal mode the wallet rows are left alone: balances are read from the journal once for
+ * all locked wallets, and each operation appends its postings instead.
+ */
+@Service
+public class BatchService {
+    private static final String ROLLED_BACK = "Batch rolled back";
+
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionFactory transactionFactory;
+    private final SplitBalanceService splitBalances;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryTemplate lockRetryTemplate;
+    private final ApplicationEventPublisher events;
+    private final JournalService journal;
+    private final OutboxWriter outbox;
+    private final VelocityLimiter limiter;
+
+    public BatchService(WalletRepository walletRepository, TransactionRepository transactionRepository,
+                        TransactionFactory transactionFactory, SplitBalanceService splitBalances,
+                        PlatformTransactionManager transactionManager, LockRetryTemplate lockRetryTemplate,
+                        ApplicationEventPublisher events, ObjectProvider<JournalService> journal,
+                        OutboxWriter outbox, VelocityLimiter limiter) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionFactory = transactionFactory;
+        this.splitBalances = splitBalances;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockRetryTemplate = lockRetryTemplate;
+        this.events = events;
+        this.journal = journal.getIfAvailable();
+        this.outbox = outbox;
+        this.limiter = limiter;
+    }
+
+    public BatchResponse execute(BatchRequest request) {
+        // Velocity reservations of the items applied; all are given back unless the batch commits.
+        List<VelocityLimiter.Reservation> reservations = new ArrayList<>();
+        try {
+            BatchResponse response = lockRetryTemplate.execute("batch", () -> {
+                release(reservations);
+                return transactionTemplate.execute(status -> {
+                    BatchResponse result = apply(request, reservations);
+                    if (!result.committed()) {
+                        status.setRollbackOnly();
+                    }
+                    return result;
+                });
+            });
+            if (!response.committed()) {
+                release(reservations);
+            }
+            return response;
+        } catch (RuntimeException ex) {
+            release(reservations);
+            throw ex;
+        }
+    }
+
+    private BatchResponse apply(BatchRequest request, List<VelocityLimiter.Reservation> reservations) {
+        List<BatchOperation> operations = request.getOperations();
+        TreeSet<Long> walletIds = new TreeSet<>();
+        for (BatchOperation operation : operations) {
+            walletIds.add(operation.getWalletId());
+            if (operation.getTargetWalletId() != null) {
+                walletIds.add(operation.getTargetWalletId());
+            }
+        }
+        // The exclusive locks also cover journal mode, which needs at least a shared lock on every wallet it posts to.
+        Ledger ledger = new Ledger(walletRepository.findAllByIdInOrderByIdAsc(walletIds).stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity())));
+
+        List<BatchResponse.ItemResult> results = new ArrayList<>(operations.size());
+        List<Transaction> transactions = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            Transaction transaction;
+            try {
+                transaction = apply(operation, ledger, reservations);
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                results.add(new BatchResponse.ItemResult(i, TransactionStatus.FAILED, null, ex.getMessage()));
+                if (request.getMode() == BatchMode.ALL_OR_NOTHING) {
+                    return rolledBack(request.getMode(), operations.size(), results);
+                }
+                continue;
+            }
+            transactions.add(transaction);
+            results.add(new BatchResponse.ItemResult(i, TransactionStatus.COMPLETED, transaction.getReferenceId(), null));
+        }
+        transactionRepository.saveAll(transactions);
+        outbox.appendAll(transactions);
+        events.publishEvent(new WalletsChangedEvent(ledger.wallets.keySet()));
+        return new BatchResponse(request.getMode(), true, results);
+    }
+
+    private Transaction apply(BatchOperation operation, Ledger ledger, List<VelocityLimiter.Reservation> reservations) {
+        long amount = Money.of(operation.getAmount(), operation.getCurrencyCode());
+        switch (operation.getType()) {
+            case CREDIT -> {
+                Wallet wallet = ledger.wallet(operation.getWalletId(), operation.getCurrencyCode(), "Wallet not found");
+                ledger.credit(wallet, amount);
+                return transactionFactory.completed(wallet, amount, TransactionType.CREDIT);
+            }
+            case DEBIT -> {
+                Wallet wallet = ledger.wallet(operation.getWalletId(), operation.getCurrencyCode(), "Wallet not found");
+                limited(FundsOperation.DEBIT, wallet, amount, reservations, () -> ledger.debit(wallet, amount));
+                return transactionFactory.completed(wallet, amount, TransactionType.DEBIT);
+            }
+            case TRANSFER -> {
+                if (operation.getTargetWalletId() == null) {
+                    throw new IllegalArgumentException("Target wallet is required for a transfer");
+                }
+                Wallet source = ledger.wallet(operation.getWalletId(), operation.getCurrencyCode(),
+                        "Source wallet not found");
+                Wallet target = ledger.wallet(operation.getTargetWalletId(), operation.getCurrencyCode(),
+                        "Target wallet not found");
+                limited(FundsOperation.TRANSFER, source, amount, reservations, () -> ledger.transfer(source, target, amount));
+                return transactionFactory.completedTransfer(source, target.getId(), amount);
+            }
+            default -> throw new IllegalArgumentException("Unsupported batch operation: " + operation.getType());
+        }
+    }
+
+    private void limited(FundsOperation operation, Wallet wallet, long amount,
+                         List<VelocityLimiter.Reservation> reservations, Runnable withdrawal) {
+        VelocityLimiter.Reservation reservation = limiter.reserve(operation, wallet.getId(), wallet.getCurrencyCode(), amount);
+        try {
+            withdrawal.run();
+        } catch (RuntimeException ex) {
+            reservation.release();
+            throw ex;
+        }
+        reservations.add(reservation);
+    }
+
+    private static void release(List<VelocityLimiter.Reservation> reservations) {
+        reservations.forEach(VelocityLimiter.Reservation::release);
+        reservations.clear();
+    }
+
+    /**
+     * The wallets a batch has locked and where its balance changes go: the locked rows, written
+     * back when the transaction flushes, or journal postings checked against balances read once.
+     */
+    private final class Ledger {
+        private final Map<Long, Wallet> wallets;
+        private final Map<Long, Long> journalBalances;
+
+        Ledger(Map<Long, Wallet> wallets) {
+            this.wallets = wallets;
+            this.journalBalances = journal == null ? null : new HashMap<>(journal.balances(wallets.keySet()));
+        }
+
+        Wallet wallet(Long walletId, String currencyCode, String notFoundMessage) {
+            Wallet wallet = wallets.get(walletId);
+            if (wallet == null || !wallet.getCurrencyCode().equals(currencyCode)) {
+                throw new IllegalArgumentException(notFoundMessage);
+            }
+            return wallet;
+        }
+
+        void credit(Wallet wallet, long amount) {
+            if (journal == null) {
+                wallet.setBalance(Money.add(wallet.getBalance(), amount));
+                return;
+            }
+            journalBalances.merge(wallet.getId(), amount, Money::add);
+            journal.post(wallet.getId(), amount);
+        }
+
+        void debit(Wallet wallet, long amount) {
+            if (journal == null) {
+                withdraw(wallet, amount);
+                return;
+            }
+            withdrawJournaled(wallet, amount);
+            journal.post(wallet.getId(), -amount);
+        }
+
+        void transfer(Wallet source, Wallet target, long amount) {
+            if (journal == null) {
+                withdraw(source, amount);
+                target.setBalance(Money.add(target.getBalance(), amount));
+                return;
+            }
+            withdrawJournaled(source, amount);
+            journalBalances.merge(target.getId(), amount, Money::add);
+            journal.postTransfer(source.getId(), target.getId(), amount);
+        }
+
+        private void withdraw(Wallet wallet, long amount) {
+            splitBalances.sweepIfShort(wallet, amount);
+            if (wallet.getBalance() < amount) {
+                throw new IllegalStateException("Insufficient funds");
+            }
+            wallet.setBalance(Money.subtract(wallet.getBalance(), amount));
+        }
+
+        private void withdrawJournaled(Wallet wallet, long amount) {
+            // Split balances are off in journal mode, so the frozen column plus the journal is all there is.
+            long journaled = journalBalances.getOrDefault(wallet.getId(), 0L);
+            if (Money.add(wallet.getBalance(), journaled) < amount) {
+                throw new IllegalStateException("Insufficient funds");
+            }
+            journalBalances.put(wallet.getId(), Money.subtract(journaled, amount));
+        }
+    }
+
+    private static BatchResponse rolledBack(BatchMode mode, int size, List<BatchResponse.ItemResult> results) {
+        List<BatchResponse.ItemResult> rolledBack = new ArrayList<>(size);
+        for (BatchResponse.ItemResult result : results) {
+            rolledBack.add(result.status() == TransactionStatus.FAILED
+                    ? result
+                    : new BatchResponse.ItemResult(result.index(), TransactionStatus.FAILED, null, ROLLED_BACK));
+        }
+        for (int i = results.size(); i < size; i++) {
+            rolledBack.add(new BatchResponse.ItemResult(i, TransactionStatus.FAILED, null, ROLLED_BACK));
+        }
+        return new BatchResponse(mode, false, rolledBack);
+    }
+}
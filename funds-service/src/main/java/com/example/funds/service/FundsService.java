@@ -1,116 +1,280 @@
 package com.example.funds.service;
 
+import com.example.funds.metrics.FundsMetrics;
+import com.example.funds.metrics.FundsOperation;
+import com.example.funds.metrics.PhaseClock;
 import com.example.funds.model.*;
-import com.example.funds.repository.WalletRepository;
+import com.example.funds.money.Money;
 import com.example.funds.repository.TransactionRepository;
+import com.example.funds.service.archive.TransactionArchive;
+import com.example.funds.service.balance.BalanceUpdateStrategy;
+import com.example.funds.service.hold.HoldService;
+import com.example.funds.service.journal.JournalService;
+import com.example.funds.service.lane.WalletLaneExecutor;
+import com.example.funds.service.limit.VelocityLimiter;
+import com.example.funds.service.outbox.OutboxWriter;
+import com.example.funds.service.split.SplitBalanceService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
 @Service
 public class FundsService {
-    private final WalletRepository walletRepository;
+    // Transaction.createdAt is the reference's issue time, which MySQL rounds to the second; rows written
+    // before that was so were stamped just after it. A day covers both.
+    private static final Duration REFERENCE_CLOCK_SKEW = Duration.ofDays(1);
+
     private final TransactionRepository transactionRepository;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final TransactionFactory transactionFactory;
+    private final SplitBalanceService splitBalances;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryTemplate lockRetryTemplate;
+    private final WalletLaneExecutor walletLanes;
+    private final ApplicationEventPublisher events;
+    private final FundsMetrics metrics;
+    private final TransactionArchive archive;
+    private final OutboxWriter outbox;
+    private final HoldService holds;
+    private final VelocityLimiter limiter;
+    private final boolean journaled;
 
-    public FundsService(WalletRepository walletRepository, TransactionRepository transactionRepository) {
-        this.walletRepository = walletRepository;
+    public FundsService(TransactionRepository transactionRepository, BalanceUpdateStrategy balanceUpdateStrategy,
+                        TransactionFactory transactionFactory, SplitBalanceService splitBalances,
+                        PlatformTransactionManager transactionManager,
+                        LockRetryTemplate lockRetryTemplate, ObjectProvider<WalletLaneExecutor> walletLanes,
+                        ApplicationEventPublisher events, FundsMetrics metrics,
+                        ObjectProvider<JournalService> journal, ObjectProvider<TransactionArchive> archive,
+                        OutboxWriter outbox, HoldService holds, VelocityLimiter limiter) {
         this.transactionRepository = transactionRepository;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.transactionFactory = transactionFactory;
+        this.splitBalances = splitBalances;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockRetryTemplate = lockRetryTemplate;
+        // Journal postings are plain inserts, so lanes and split balances have no hot row left to relieve;
+        // both also change wallet rows directly, which the journal's balance checks would not see.
+        this.journaled = journal.getIfAvailable() != null;
+        this.walletLanes = journaled ? null : walletLanes.getIfAvailable();
+        this.events = events;
+        this.metrics = metrics;
+        this.archive = archive.getIfAvailable();
+        this.outbox = outbox;
+        this.holds = holds;
+        this.limiter = limiter;
     }
 
-    @Transactional
     public Transaction credit(Long walletId, String currencyCode, BigDecimal amount) {
-        Wallet wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
-
-        Transaction transaction = new Transaction();
-        transaction.setWallet(wallet);
-        transaction.setAmount(amount);
-        transaction.setTransactionType(TransactionType.CREDIT);
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setReferenceId(UUID.randomUUID().toString());
+        return metrics.record(FundsOperation.CREDIT, walletId, null, () -> doCredit(walletId, currencyCode, Money.of(amount, currencyCode)));
+    }
 
-        wallet.setBalance(wallet.getBalance().add(amount));
-        walletRepository.save(wallet);
-        return transactionRepository.save(transaction);
+    private Transaction doCredit(Long walletId, String currencyCode, long amount) {
+        if (isSplit(walletId)) {
+            return inTransaction(FundsOperation.CREDIT, () -> changed(splitBalances.credit(walletId, currencyCode, amount)));
+        }
+        if (walletLanes != null) {
+            return walletLanes.execute(TransactionType.CREDIT, walletId, currencyCode, amount);
+        }
+        return inTransaction(FundsOperation.CREDIT, () -> {
+            Wallet wallet = balanceUpdateStrategy.credit(walletId, currencyCode, amount);
+            events.publishEvent(new WalletsChangedEvent(List.of(walletId)));
+            return outbox.append(transactionRepository.save(transactionFactory.completed(wallet, amount, TransactionType.CREDIT)));
+        });
     }
 
-    @Transactional
     public Transaction debit(Long walletId, String currencyCode, BigDecimal amount) {
-        Wallet wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        return metrics.record(FundsOperation.DEBIT, walletId, null, () -> limited(FundsOperation.DEBIT, walletId, currencyCode,
+                Money.of(amount, currencyCode), units -> doDebit(walletId, currencyCode, units)));
+    }
 
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            throw new IllegalStateException("Insufficient funds");
+    private Transaction doDebit(Long walletId, String currencyCode, long amount) {
+        if (isSplit(walletId)) {
+            return inTransaction(FundsOperation.DEBIT, () -> changed(splitBalances.debit(walletId, currencyCode, amount)));
         }
-
-        Transaction transaction = new Transaction();
-        transaction.setWallet(wallet);
-        transaction.setAmount(amount);
-        transaction.setTransactionType(TransactionType.DEBIT);
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setReferenceId(UUID.randomUUID().toString());
-
-        wallet.setBalance(wallet.getBalance().subtract(amount));
-        walletRepository.save(wallet);
-        return transactionRepository.save(transaction);
+        if (walletLanes != null) {
+            return walletLanes.execute(TransactionType.DEBIT, walletId, currencyCode, amount);
+        }
+        return inTransaction(FundsOperation.DEBIT, () -> {
+            Wallet wallet = balanceUpdateStrategy.debit(walletId, currencyCode, amount);
+            events.publishEvent(new WalletsChangedEvent(List.of(walletId)));
+            return outbox.append(transactionRepository.save(transactionFactory.completed(wallet, amount, TransactionType.DEBIT)));
+        });
     }
 
-    @Transactional
     public Transaction reverse(String referenceId) {
-        Transaction originalTransaction = transactionRepository.findByReferenceId(referenceId)
-                .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
+        return metrics.record(FundsOperation.REVERSE,
+                () -> inTransaction(FundsOperation.REVERSE, () -> doReverse(referenceId)));
+    }
+
+    private Transaction doReverse(String referenceId) {
+        // Locking the original row serialises concurrent reversals of the same transaction.
+        UUID reference = parseReferenceId(referenceId);
+        Transaction originalTransaction = findForUpdate(reference).orElseThrow(() -> archive != null && archive.isArchived(reference)
+                ? new IllegalStateException("Transaction cannot be reversed")
+                : new IllegalArgumentException("Transaction not found"));
 
         if (originalTransaction.getStatus() == TransactionStatus.REVERSED) {
             throw new IllegalStateException("Transaction already reversed");
         }
+        if (originalTransaction.getStatus() != TransactionStatus.COMPLETED) {
+            // Pending holds are voided instead; failed ones moved no money.
+            throw new IllegalStateException("Transaction cannot be reversed");
+        }
+        if (archive != null && archive.isClosed(originalTransaction.getCreatedAt())) {
+            // Past retention the row's partition may be archived at any moment; archives are immutable.
+            throw new IllegalStateException("Transaction cannot be reversed");
+        }
 
-        Wallet wallet = originalTransaction.getWallet();
-        BigDecimal amount = originalTransaction.getAmount();
+        // Only the id is read from the lazy association; the strategy loads the wallet under its own lock.
+        Long walletId = originalTransaction.getWallet().getId();
+        PhaseClock.attribute(walletId, originalTransaction.getCounterpartyWalletId());
+        long amount = originalTransaction.getAmount();
+        Wallet wallet = switch (originalTransaction.getTransactionType()) {
+            case CREDIT -> withdraw(walletId, amount);
+            case DEBIT -> balanceUpdateStrategy.adjust(walletId, amount);
+            case TRANSFER -> reverseTransfer(walletId, originalTransaction.getCounterpartyWalletId(), amount);
+            default -> throw new IllegalStateException("Transaction cannot be reversed");
+        };
 
-        Transaction reverseTransaction = new Transaction();
-        reverseTransaction.setWallet(wallet);
-        reverseTransaction.setAmount(amount);
-        reverseTransaction.setTransactionType(TransactionType.REVERSE);
-        reverseTransaction.setStatus(TransactionStatus.COMPLETED);
-        reverseTransaction.setReferenceId(UUID.randomUUID().toString());
+        originalTransaction.setStatus(TransactionStatus.REVERSED);
+        events.publishEvent(new WalletsChangedEvent(originalTransaction.getCounterpartyWalletId() == null
+                ? List.of(walletId)
+                : List.of(walletId, originalTransaction.getCounterpartyWalletId())));
+        return outbox.append(transactionRepository.save(transactionFactory.completed(wallet, amount, TransactionType.REVERSE)),
+                reference);
+    }
 
-        if (originalTransaction.getTransactionType() == TransactionType.CREDIT) {
-            wallet.setBalance(wallet.getBalance().subtract(amount));
-        } else if (originalTransaction.getTransactionType() == TransactionType.DEBIT) {
-            wallet.setBalance(wallet.getBalance().add(amount));
+    private Wallet reverseTransfer(Long sourceWalletId, Long targetWalletId, long amount) {
+        if (targetWalletId == null) {
+            // Recorded before transfers kept their target wallet.
+            throw new IllegalStateException("Transaction cannot be reversed");
         }
+        // Lock in ascending id order like transfers do, so a reversal cannot deadlock against them.
+        if (sourceWalletId < targetWalletId) {
+            Wallet source = balanceUpdateStrategy.adjust(sourceWalletId, amount);
+            withdraw(targetWalletId, amount);
+            return source;
+        }
+        withdraw(targetWalletId, amount);
+        return balanceUpdateStrategy.adjust(sourceWalletId, amount);
+    }
 
-        originalTransaction.setStatus(TransactionStatus.REVERSED);
-        walletRepository.save(wallet);
-        transactionRepository.save(originalTransaction);
-        return transactionRepository.save(reverseTransaction);
+    private Wallet withdraw(Long walletId, long amount) {
+        if (isSplit(walletId)) {
+            splitBalances.sweepIfShort(walletId, amount);
+        }
+        return balanceUpdateStrategy.adjust(walletId, -amount);
     }
 
-    @Transactional
     public Transaction transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, BigDecimal amount) {
-        Wallet sourceWallet = walletRepository.findByIdAndCurrencyCode(sourceWalletId, currencyCode)
-                .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
-        Wallet targetWallet = walletRepository.findByIdAndCurrencyCode(targetWalletId, currencyCode)
-                .orElseThrow(() -> new IllegalArgumentException("Target wallet not found"));
+        return metrics.record(FundsOperation.TRANSFER, sourceWalletId, targetWalletId,
+                () -> limited(FundsOperation.TRANSFER, sourceWalletId, currencyCode, Money.of(amount, currencyCode),
+                        units -> doTransfer(sourceWalletId, targetWalletId, currencyCode, units)));
+    }
+
+    private Transaction doTransfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount) {
+        if (isSplit(sourceWalletId) || isSplit(targetWalletId)) {
+            return inTransaction(FundsOperation.TRANSFER, () -> {
+                Transaction transaction = splitBalances.transfer(sourceWalletId, targetWalletId, currencyCode, amount);
+                events.publishEvent(new WalletsChangedEvent(List.of(sourceWalletId, targetWalletId)));
+                return outbox.append(transaction);
+            });
+        }
+        return inTransaction(FundsOperation.TRANSFER, () -> {
+            BalanceUpdateStrategy.TransferLegs legs =
+                    balanceUpdateStrategy.transfer(sourceWalletId, targetWalletId, currencyCode, amount);
+            events.publishEvent(new WalletsChangedEvent(List.of(sourceWalletId, targetWalletId)));
+            return outbox.append(transactionRepository.save(
+                    transactionFactory.completedTransfer(legs.source(), targetWalletId, amount)));
+        });
+    }
+
+    /**
+     * Places a hold of {@code amount} on a wallet until it is captured, voided or expires after
+     * {@code expiresIn} (the configured default when null).
+     */
+    public HoldService.Authorization authorize(Long walletId, String currencyCode, BigDecimal amount, Duration expiresIn) {
+        return metrics.record(FundsOperation.AUTHORIZE, walletId, null, () -> limited(FundsOperation.AUTHORIZE, walletId,
+                currencyCode, Money.of(amount, currencyCode), units -> inTransaction(FundsOperation.AUTHORIZE,
+                        () -> holds.authorize(walletId, currencyCode, units, expiresIn))));
+    }
+
+    /**
+     * Debits a held amount: all of it when {@code amount} is null, otherwise at most the
+     * authorized amount, releasing the rest.
+     */
+    public Transaction capture(String referenceId, BigDecimal amount) {
+        return metrics.record(FundsOperation.CAPTURE, () -> inTransaction(FundsOperation.CAPTURE,
+                () -> outbox.append(holds.capture(parseReferenceId(referenceId), amount == null ? null : Money.of(amount)))));
+    }
+
+    public Transaction voidAuthorization(String referenceId) {
+        return metrics.record(FundsOperation.VOID,
+                () -> inTransaction(FundsOperation.VOID, () -> holds.voidHold(parseReferenceId(referenceId))));
+    }
 
-        if (sourceWallet.getBalance().compareTo(amount) < 0) {
-            throw new IllegalStateException("Insufficient funds");
+    /**
+     * Runs a spend from {@code walletId} once it fits the velocity limits, giving its share of
+     * them back if it then fails.
+     */
+    private <T> T limited(FundsOperation operation, Long walletId, String currencyCode, long amount, LongFunction<T> work) {
+        VelocityLimiter.Reservation reservation = limiter.reserve(operation, walletId, currencyCode, amount);
+        try {
+            return work.apply(amount);
+        } catch (RuntimeException ex) {
+            reservation.release();
+            throw ex;
         }
+    }
 
-        Transaction transaction = new Transaction();
-        transaction.setWallet(sourceWallet);
-        transaction.setAmount(amount);
-        transaction.setTransactionType(TransactionType.TRANSFER);
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setReferenceId(UUID.randomUUID().toString());
+    private boolean isSplit(Long walletId) {
+        return !journaled && splitBalances.isSplit(walletId);
+    }
+
+    private Transaction changed(Transaction transaction) {
+        events.publishEvent(new WalletsChangedEvent(List.of(transaction.getWallet().getId())));
+        return outbox.append(transaction);
+    }
 
-        sourceWallet.setBalance(sourceWallet.getBalance().subtract(amount));
-        targetWallet.setBalance(targetWallet.getBalance().add(amount));
+    private Optional<Transaction> findForUpdate(UUID referenceId) {
+        // The reference index is per partition; a UUIDv7's timestamp bounds created_at and prunes older months.
+        return ReferenceIdGenerator.timestampOf(referenceId)
+                .map(issuedAt -> transactionRepository.findForUpdateByReferenceIdCreatedSince(referenceId,
+                        LocalDateTime.ofInstant(issuedAt.minus(REFERENCE_CLOCK_SKEW), ZoneId.systemDefault())))
+                .orElseGet(() -> transactionRepository.findForUpdateByReferenceId(referenceId));
+    }
+
+    private static UUID parseReferenceId(String referenceId) {
+        try {
+            return UUID.fromString(referenceId);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Transaction not found");
+        }
+    }
 
-        walletRepository.save(sourceWallet);
-        walletRepository.save(targetWallet);
-        return transactionRepository.save(transaction);
+    private <T> T inTransaction(FundsOperation operation, Supplier<T> work) {
+        return lockRetryTemplate.execute(operation.tag(), () -> {
+            try {
+                return transactionTemplate.execute(status -> {
+                    T result = work.get();
+                    PhaseClock.startCommit();
+                    return result;
+                });
+            } finally {
+                PhaseClock.stopCommit();
+            }
+        });
     }
 }
\ No newline at end of file
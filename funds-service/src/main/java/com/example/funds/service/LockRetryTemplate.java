@@ -0,0 +1,91 @@
+package com.example.funds.service;
+
+import com.example.funds.config.RetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work when the database aborts it because of a deadlock or a
+ * lock wait timeout, or when an optimistic version check fails. The action must
+ * start its own transaction so that every attempt begins from a clean state.
+ */
+@Component
+public class LockRetryTemplate {
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int MYSQL_DEADLOCK = 1213;
+
+    private final RetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public LockRetryTemplate(RetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException ex) {
+                String cause = classify(ex);
+                if (attempt >= properties.getMaxAttempts()) {
+                    counter(operation, cause, "exhausted").increment();
+                    throw ex;
+                }
+                counter(operation, cause, "retried").increment();
+                if (!backOff(attempt)) {
+                    throw ex;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    private boolean backOff(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long ceiling = Math.min(max, initial << Math.min(attempt - 1, 20));
+        try {
+            // Full jitter: spreads competing retries so they do not collide again in lockstep.
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter counter(String operation, String cause, String outcome) {
+        return Counter.builder("funds.lock.retries")
+                .description("Operations re-run after a deadlock, lock wait timeout or version conflict")
+                .tag("operation", operation)
+                .tag("cause", cause)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    static String classify(Throwable ex) {
+        if (ex instanceof OptimisticLockingFailureException) {
+            return "optimistic_conflict";
+        }
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlException) {
+                if (sqlException.getErrorCode() == MYSQL_DEADLOCK) {
+                    return "deadlock";
+                }
+                if (sqlException.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT) {
+                    return "lock_timeout";
+                }
+            }
+        }
+        return "lock_failure";
+    }
+}
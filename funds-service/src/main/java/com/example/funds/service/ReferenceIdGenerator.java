@@ -0,0 +1,65 @@
+package com.example.funds.service;
+
+import com.example.funds.config.IdProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDv7 reference ids without locks or SecureRandom.
+ *
+ * <p>The 48-bit millisecond timestamp and the 12-bit {@code rand_a} field are used together as
+ * a monotonic counter, so ids from one instance always increase and inserts land at the right
+ * edge of the index. The top 10 bits of {@code rand_b} carry the node id, keeping ids from
+ * different instances distinct; the remaining 52 bits are random.
+ */
+@Component
+public class ReferenceIdGenerator {
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long RANDOM_MASK = (1L << 52) - 1;
+
+    private final long nodeBits;
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    public ReferenceIdGenerator(IdProperties properties) {
+        int nodeId = properties.getNodeId();
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << 52;
+    }
+
+    public UUID next() {
+        long candidate = System.currentTimeMillis() << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = lastTimestampAndSequence.get();
+            // Within the same millisecond (or if the clock stepped back) keep counting upwards;
+            // a sequence overflow simply borrows from the next millisecond.
+            next = candidate > current ? candidate : current + 1;
+        } while (!lastTimestampAndSequence.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long mostSignificant = (timestamp << 16) | 0x7000L | sequence;
+        long leastSignificant = 0x8000000000000000L | nodeBits | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Issue time of a UUIDv7 reference; empty for the random UUIDs issued before references were time-ordered.
+     */
+    public static Optional<Instant> timestampOf(UUID referenceId) {
+        if (referenceId.version() != 7) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(referenceId.getMostSignificantBits() >>> 16));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.funds.service;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Wallet;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+@Component
+public class TransactionFactory {
+    private final ReferenceIdGenerator referenceIdGenerator;
+
+    public TransactionFactory(ReferenceIdGenerator referenceIdGenerator) {
+        this.referenceIdGenerator = referenceIdGenerator;
+    }
+
+    public Transaction completed(Wallet wallet, long amount, TransactionType type) {
+        Transaction transaction = new Transaction();
+        transaction.setWallet(wallet);
+        transaction.setAmount(amount);
+        transaction.setTransactionType(type);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        UUID referenceId = referenceIdGenerator.next();
+        transaction.setReferenceId(referenceId);
+        // created_at is the reference's issue time, so the (reference_id, created_at) unique key of the
+        // partitioned table rejects a repeated reference just as a key on reference_id alone would.
+        transaction.setCreatedAt(LocalDateTime.ofInstant(ReferenceIdGenerator.timestampOf(referenceId).orElseThrow(),
+                ZoneId.systemDefault()));
+        return transaction;
+    }
+
+    public Transaction completedTransfer(Wallet source, Long targetWalletId, long amount) {
+        Transaction transaction = completed(source, amount, TransactionType.TRANSFER);
+        transaction.setCounterpartyWalletId(targetWalletId);
+        return transaction;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.funds.service;
+
+import com.example.funds.dto.CursorToken;
+import com.example.funds.dto.TransactionHistoryItem;
+import com.example.funds.dto.TransactionHistoryPage;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.archive.TransactionArchive;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads a wallet's transaction history newest first, paging by (created_at, id) so every page is
+ * a short range scan of the history index no matter how deep the caller goes. Once the table runs
+ * out, a page continues into the archive of dropped partitions, which holds only older rows, so
+ * the same cursor walks seamlessly from one into the other.
+ *
+ * <p>The history lists the wallet's own rows, so transfers appear under their source wallet only.
+ */
+@Service
+public class TransactionHistoryService {
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionArchive archive;
+
+    public TransactionHistoryService(TransactionRepository transactionRepository, WalletRepository walletRepository,
+                                     ObjectProvider<TransactionArchive> archive) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.archive = archive.getIfAvailable();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TransactionHistoryPage> history(Long walletId, LocalDateTime from, LocalDateTime to,
+                                                    TransactionType type, TransactionStatus status,
+                                                    String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!walletRepository.existsById(walletId)) {
+            return Optional.empty();
+        }
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            long[] keys = CursorToken.decode(cursor, 2);
+            beforeCreatedAt = fromMicros(keys[0]);
+            beforeId = keys[1];
+        }
+        List<TransactionHistoryItem> items = transactionRepository.findHistory(
+                walletId, from, to, type, status, beforeCreatedAt, beforeId, Limit.of(limit));
+        if (items.size() < limit && archive != null) {
+            List<TransactionHistoryItem> archived = archive.history(walletId, from, to, type, status,
+                    beforeCreatedAt, beforeId, limit - items.size());
+            if (!archived.isEmpty()) {
+                items = new ArrayList<>(items);
+                items.addAll(archived);
+            }
+        }
+        String nextCursor = null;
+        if (items.size() == limit) {
+            TransactionHistoryItem last = items.get(items.size() - 1);
+            nextCursor = CursorToken.encode(toMicros(last.createdAt()), last.id());
+        }
+        return Optional.of(new TransactionHistoryPage(items, nextCursor));
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant(ZoneOffset.UTC));
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.funds.service;
+
+import com.example.funds.config.WalletCacheProperties;
+import com.example.funds.dto.WalletResponse;
+import com.example.funds.model.Wallet;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.split.SplitBalanceService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through cache of wallet snapshots for the balance lookup endpoints. Entries are evicted
+ * after every commit that changes a wallet and otherwise expire after a short TTL, which bounds
+ * how stale a cached read can be; callers that need the committed value use a strong read.
+ * Other reads run read-only and so may be served by a replica when one is configured; strong
+ * reads run in a read-write transaction, which keeps them on the primary even though the
+ * repository's own finders are read-only.
+ *
+ * <p>A read that loaded a wallet before a change committed must not cache it after the change's
+ * eviction. Every eviction takes the next value of a generation counter and records it in the
+ * wallet's stripe; a loaded snapshot is only cached if its stripe has not been evicted since the
+ * load began, checked under the entry's lock so it cannot interleave with an eviction.
+ */
+@Service
+public class WalletCache {
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final WalletRepository walletRepository;
+    private final SplitBalanceService splitBalances;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate readWrite;
+    private final boolean enabled;
+    private final Cache<Long, WalletResponse> byId;
+    private final Cache<CustomerCurrency, Long> idByCustomerCurrency;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLongArray evictedAt = new AtomicLongArray(EVICTION_STRIPES);
+
+    public WalletCache(WalletRepository walletRepository, SplitBalanceService splitBalances,
+                       WalletCacheProperties properties, MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager) {
+        this.walletRepository = walletRepository;
+        this.splitBalances = splitBalances;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.enabled = properties.isEnabled();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.idByCustomerCurrency = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "wallets");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByCustomerCurrency, "wallet_ids");
+    }
+
+    public Optional<WalletResponse> findById(Long id, boolean strong) {
+        if (strong) {
+            return readWrite.execute(status -> walletRepository.findById(id).map(this::snapshot));
+        }
+        if (!enabled) {
+            return readOnly.execute(status -> walletRepository.findById(id).map(this::snapshot));
+        }
+        WalletResponse cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        return readOnly.execute(status -> walletRepository.findById(id).map(this::snapshot))
+                .map(snapshot -> put(snapshot, loadedAt));
+    }
+
+    public Optional<WalletResponse> findByCustomerAndCurrency(Long customerId, String currencyCode, boolean strong) {
+        if (strong) {
+            return readWrite.execute(status ->
+                    walletRepository.findByCustomerIdAndCurrencyCode(customerId, currencyCode).map(this::snapshot));
+        }
+        if (!enabled) {
+            return readOnly.execute(status ->
+                    walletRepository.findByCustomerIdAndCurrencyCode(customerId, currencyCode).map(this::snapshot));
+        }
+        CustomerCurrency key = new CustomerCurrency(customerId, currencyCode);
+        Long id = idByCustomerCurrency.getIfPresent(key);
+        if (id != null) {
+            WalletResponse cached = byId.getIfPresent(id);
+            if (cached != null && cached.customerId().equals(customerId) && cached.currencyCode().equals(currencyCode)) {
+                return Optional.of(cached);
+            }
+        }
+        long loadedAt = generation.get();
+        return readOnly.execute(status ->
+                        walletRepository.findByCustomerIdAndCurrencyCode(customerId, currencyCode).map(this::snapshot))
+                .map(snapshot -> put(snapshot, loadedAt));
+    }
+
+    public WalletResponse snapshot(Wallet wallet) {
+        return WalletResponse.from(wallet, splitBalances.totalBalance(wallet));
+    }
+
+    /**
+     * Evicts a wallet after a committed change to it. A customer and currency lookup checks the
+     * snapshot it finds, so a mapping left behind by a wallet that changed either only costs a reload.
+     */
+    public void evict(Wallet wallet) {
+        evict(wallet.getId());
+        idByCustomerCurrency.invalidate(new CustomerCurrency(wallet.getCustomerId(), wallet.getCurrencyCode()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletsChanged(WalletsChangedEvent event) {
+        event.walletIds().forEach(this::evict);
+    }
+
+    private void evict(Long walletId) {
+        long evicted = generation.incrementAndGet();
+        evictedAt.accumulateAndGet(stripe(walletId), evicted, Math::max);
+        byId.invalidate(walletId);
+    }
+
+    private WalletResponse put(WalletResponse snapshot, long loadedAt) {
+        byId.asMap().compute(snapshot.id(),
+                (id, current) -> evictedAt.get(stripe(id)) > loadedAt ? current : snapshot);
+        idByCustomerCurrency.put(new CustomerCurrency(snapshot.customerId(), snapshot.currencyCode()), snapshot.id());
+        return snapshot;
+    }
+
+    private static int stripe(Long walletId) {
+        return Long.hashCode(walletId) & (EVICTION_STRIPES - 1);
+    }
+
+    private record CustomerCurrency(Long customerId, String currencyCode) {
+    }
+}
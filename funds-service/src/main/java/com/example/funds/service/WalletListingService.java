@@ -0,0 +1,115 @@
+package com.example.funds.service;
+
+import com.example.funds.dto.CursorToken;
+import com.example.funds.dto.WalletPage;
+import com.example.funds.dto.WalletResponse;
+import com.example.funds.jdbc.StreamingStatements;
+import com.example.funds.model.Wallet;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.journal.JournalService;
+import com.example.funds.service.split.SplitBalanceService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists wallets without materialising the whole table: keyset pages ordered by id for the JSON
+ * API, and a forward-only cursor for the NDJSON export so memory stays flat however many rows exist.
+ */
+@Service
+public class WalletListingService {
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int FLUSH_EVERY = 1000;
+
+    private final WalletRepository walletRepository;
+    private final SplitBalanceService splitBalances;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean journaled;
+
+    public WalletListingService(WalletRepository walletRepository, SplitBalanceService splitBalances,
+                                JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                ObjectProvider<JournalService> journal) {
+        this.walletRepository = walletRepository;
+        this.splitBalances = splitBalances;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.journaled = journal.getIfAvailable() != null;
+    }
+
+    @Transactional(readOnly = true)
+    public WalletPage page(Long customerId, String currencyCode, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long afterId = cursor == null ? 0L : CursorToken.decode(cursor, 1)[0];
+        List<Wallet> wallets = walletRepository.findPage(afterId, customerId, currencyCode, Limit.of(limit));
+        Map<Long, Long> balances = splitBalances.totalBalances(wallets);
+        List<WalletResponse> items = wallets.stream()
+                .map(wallet -> WalletResponse.from(wallet, balances.get(wallet.getId())))
+                .toList();
+        String nextCursor = wallets.size() < limit ? null : CursorToken.encode(wallets.get(wallets.size() - 1).getId());
+        return new WalletPage(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void stream(Long customerId, String currencyCode, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT w.id, w.customer_id, w.currency_code, w.held_balance, "
+                + "w.balance_slots, w.version, w.created_at, w.updated_at, w.balance + CASE WHEN w.balance_slots > 0 THEN "
+                + "(SELECT COALESCE(SUM(s.balance), 0) FROM wallet_balance_slot s WHERE s.wallet_id = w.id) "
+                + "ELSE 0 END" + (journaled ? " + " + JournalService.balanceSql("w.id") : "")
+                + " AS total_balance FROM wallet w WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (customerId != null) {
+            sql.append(" AND w.customer_id = ?");
+            args.add(customerId);
+        }
+        if (currencyCode != null) {
+            sql.append(" AND w.currency_code = ?");
+            args.add(currencyCode);
+        }
+        sql.append(" ORDER BY w.id");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            int[] written = {0};
+            jdbcTemplate.query(StreamingStatements.forwardOnly(sql.toString(), args.toArray()), rs -> {
+                try {
+                    generator.writeObject(toResponse(rs));
+                    generator.writeRaw('\n');
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    private static WalletResponse toResponse(ResultSet rs) throws SQLException {
+        return new WalletResponse(
+                rs.getLong("id"),
+                rs.getLong("customer_id"),
+                rs.getString("currency_code"),
+                rs.getBigDecimal("total_balance"),
+                rs.getBigDecimal("held_balance"),
+                rs.getInt("balance_slots"),
+                rs.getLong("version"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.funds.service;
+
+import java.util.Collection;
+
+/**
+ * Published inside a transaction that changed wallet balances; listeners that must only see
+ * committed state should use {@code @TransactionalEventListener}.
+ */
+public record WalletsChangedEvent(Collection<Long> walletIds) {
+}
@@ -0,0 +1,27 @@
+package com.example.funds.service.archive;
+
+import com.example.funds.dto.TransactionHistoryItem;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transaction row as it is stored in an archive file.
+ */
+public record ArchivedTransaction(
+        long id,
+        UUID referenceId,
+        long walletId,
+        Long counterpartyWalletId,
+        TransactionType transactionType,
+        TransactionStatus status,
+        BigDecimal amount,
+        LocalDateTime createdAt) {
+
+    public TransactionHistoryItem toHistoryItem() {
+        return new TransactionHistoryItem(id, referenceId, transactionType, status, amount, createdAt);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.funds.service.archive;
+
+import com.example.funds.config.TransactionArchiveProperties;
+import com.example.funds.dto.TransactionHistoryItem;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.service.ReferenceIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read side of the transaction archive. Partitions are archived oldest first, so everything
+ * created before the horizon lives in archive files and everything after it in the table. The
+ * horizon is set by {@link TransactionPartitionManager} and stays unset until a partition has been
+ * archived and dropped, so until then no lookup touches the archive tables at all.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.transaction-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionArchive {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchiveProperties properties;
+    private final Path directory;
+    private volatile Horizon horizon;
+
+    private record Horizon(LocalDateTime createdAt, Instant instant) {
+    }
+
+    private record SegmentLocation(String fileName, long offset, long length) {
+    }
+
+    public TransactionArchive(JdbcTemplate jdbcTemplate, TransactionArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+    }
+
+    /**
+     * Whether a transaction this old may no longer change. Closed partitions are only archived once
+     * every row in them is closed, so no reversal can race the export.
+     */
+    public boolean isClosed(LocalDateTime createdAt) {
+        return createdAt.isBefore(LocalDateTime.now().minus(properties.getRetention()));
+    }
+
+    /**
+     * Whether a reference missing from the table was archived rather than never issued. Only
+     * UUIDv7 references carry their creation time; older random references are reported as missing.
+     */
+    public boolean isArchived(UUID referenceId) {
+        Horizon current = horizon;
+        if (current == null) {
+            return false;
+        }
+        return ReferenceIdGenerator.timestampOf(referenceId)
+                .map(issuedAt -> issuedAt.isBefore(current.instant()))
+                .orElse(false);
+    }
+
+    /**
+     * Whether any archived transaction involves the wallet, either as its own row or as the target
+     * of a transfer.
+     */
+    public boolean hasTransactions(Long walletId) {
+        if (horizon == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM transaction_archive_segment WHERE wallet_id = ?) "
+                        + "OR EXISTS (SELECT 1 FROM transaction_archive_balance WHERE wallet_id = ?)",
+                Boolean.class, walletId, walletId));
+    }
+
+    /**
+     * Continues a history page into the archive: up to {@code limit} archived rows of the wallet,
+     * newest first, matching the same filters and cursor as the table query.
+     */
+    public List<TransactionHistoryItem> history(Long walletId, LocalDateTime from, LocalDateTime to,
+                                                TransactionType type, TransactionStatus status,
+                                                LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        Horizon current = horizon;
+        if (current == null || limit <= 0 || (from != null && !from.isBefore(current.createdAt()))) {
+            return List.of();
+        }
+        LocalDateTime upper = beforeCreatedAt != null && (to == null || beforeCreatedAt.isBefore(to)) ? beforeCreatedAt : to;
+        List<SegmentLocation> segments = jdbcTemplate.query(
+                "SELECT a.file_name, s.byte_offset, s.byte_length FROM transaction_archive_segment s "
+                        + "JOIN transaction_archive a ON a.id = s.archive_id "
+                        + "WHERE s.wallet_id = ? AND a.completed_at IS NOT NULL AND a.range_end <= ? "
+                        + "AND (? IS NULL OR s.first_created_at <= ?) AND (? IS NULL OR s.last_created_at >= ?) "
+                        + "ORDER BY a.range_end DESC",
+                (rs, rowNum) -> new SegmentLocation(rs.getString(1), rs.getLong(2), rs.getLong(3)),
+                walletId, current.createdAt(), upper, upper, from, from);
+
+        List<TransactionHistoryItem> items = new ArrayList<>(Math.min(limit, 64));
+        for (SegmentLocation segment : segments) {
+            for (ArchivedTransaction row : read(segment)) {
+                if (matches(row, from, to, type, status, beforeCreatedAt, beforeId)) {
+                    items.add(row.toHistoryItem());
+                    if (items.size() == limit) {
+                        return items;
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Creation time before which every transaction lives in the archive rather than the table, or
+     * null while nothing has been archived and dropped.
+     */
+    public LocalDateTime horizon() {
+        Horizon current = horizon;
+        return current == null ? null : current.createdAt();
+    }
+
+    void setHorizon(LocalDateTime createdAt, Instant instant) {
+        this.horizon = createdAt == null ? null : new Horizon(createdAt, instant);
+    }
+
+    private List<ArchivedTransaction> read(SegmentLocation segment) {
+        try {
+            return TransactionArchiveFile.read(directory.resolve(segment.fileName()), segment.offset(), segment.length());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read archive " + segment.fileName(), ex);
+        }
+    }
+
+    private static boolean matches(ArchivedTransaction row, LocalDateTime from, LocalDateTime to,
+                                   TransactionType type, TransactionStatus status,
+                                   LocalDateTime beforeCreatedAt, Long beforeId) {
+        LocalDateTime createdAt = row.createdAt();
+        return (from == null || !createdAt.isBefore(from))
+                && (to == null || createdAt.isBefore(to))
+                && (type == null || row.transactionType() == type)
+                && (status == null || row.status() == status)
+                && (beforeCreatedAt == null || createdAt.isBefore(beforeCreatedAt)
+                        || (createdAt.equals(beforeCreatedAt) && row.id() < beforeId));
+    }
+}
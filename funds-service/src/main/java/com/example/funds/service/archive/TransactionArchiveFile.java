@@ -0,0 +1,241 @@
+package com.example.funds.service.archive;
+
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archive file layout: a concatenation of gzip members, one per wallet, each holding that
+ * wallet's rows newest first as tab-separated lines. The whole file still reads with zcat, and
+ * the byte range of every member is recorded in the archive index so one wallet's rows can be
+ * inflated without touching the rest of the file.
+ */
+public final class TransactionArchiveFile {
+    private static final char SEPARATOR = '\t';
+
+    private TransactionArchiveFile() {
+    }
+
+    /**
+     * Byte range and row span of one wallet's member.
+     */
+    public record Segment(long walletId, long offset, long length, int rows,
+                          LocalDateTime firstCreatedAt, LocalDateTime lastCreatedAt) {
+    }
+
+    public static SegmentWriter create(Path file) throws IOException {
+        return new SegmentWriter(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+    }
+
+    public static List<ArchivedTransaction> read(Path file, long offset, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(offset);
+            InputStream member = new BoundedInputStream(Channels.newInputStream(channel), length);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new GZIPInputStream(member), StandardCharsets.UTF_8))) {
+                List<ArchivedTransaction> rows = new ArrayList<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    rows.add(parse(line));
+                }
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Writes rows grouped by wallet. Rows must arrive ordered by wallet; a new wallet id closes the
+     * previous member and reports its segment.
+     */
+    public static final class SegmentWriter implements AutoCloseable {
+        private final CountingOutputStream out;
+        private Writer member;
+        private long walletId;
+        private long memberOffset;
+        private int memberRows;
+        private LocalDateTime firstCreatedAt;
+        private LocalDateTime lastCreatedAt;
+        private long rows;
+
+        private SegmentWriter(OutputStream out) {
+            this.out = new CountingOutputStream(out);
+        }
+
+        /**
+         * Appends a row; returns the segment of the previous wallet if this row started a new one.
+         */
+        public Segment write(ArchivedTransaction row) throws IOException {
+            Segment finished = null;
+            if (member != null && row.walletId() != walletId) {
+                finished = finishMember();
+            }
+            if (member == null) {
+                walletId = row.walletId();
+                memberOffset = out.count;
+                memberRows = 0;
+                firstCreatedAt = row.createdAt();
+                lastCreatedAt = row.createdAt();
+                member = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out), StandardCharsets.UTF_8));
+            }
+            format(row, member);
+            memberRows++;
+            rows++;
+            if (row.createdAt().isBefore(firstCreatedAt)) {
+                firstCreatedAt = row.createdAt();
+            }
+            if (row.createdAt().isAfter(lastCreatedAt)) {
+                lastCreatedAt = row.createdAt();
+            }
+            return finished;
+        }
+
+        /**
+         * Closes the last member and returns its segment, or null if nothing was written.
+         */
+        public Segment finish() throws IOException {
+            return member == null ? null : finishMember();
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.closeTarget();
+        }
+
+        private Segment finishMember() throws IOException {
+            // Closing the writer finishes the gzip trailer; the counting stream ignores the close.
+            member.close();
+            member = null;
+            return new Segment(walletId, memberOffset, out.count - memberOffset, memberRows,
+                    firstCreatedAt, lastCreatedAt);
+        }
+    }
+
+    private static void format(ArchivedTransaction row, Writer out) throws IOException {
+        out.write(Long.toString(row.id()));
+        out.write(SEPARATOR);
+        out.write(row.referenceId() == null ? "" : row.referenceId().toString());
+        out.write(SEPARATOR);
+        out.write(Long.toString(row.walletId()));
+        out.write(SEPARATOR);
+        out.write(row.counterpartyWalletId() == null ? "" : row.counterpartyWalletId().toString());
+        out.write(SEPARATOR);
+        out.write(row.transactionType().name());
+        out.write(SEPARATOR);
+        out.write(row.status().name());
+        out.write(SEPARATOR);
+        out.write(row.amount().toPlainString());
+        out.write(SEPARATOR);
+        out.write(row.createdAt().toString());
+        out.write('\n');
+    }
+
+    private static ArchivedTransaction parse(String line) {
+        String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        if (fields.length != 8) {
+            throw new IllegalStateException("Malformed archive row: " + line);
+        }
+        return new ArchivedTransaction(
+                Long.parseLong(fields[0]),
+                fields[1].isEmpty() ? null : UUID.fromString(fields[1]),
+                Long.parseLong(fields[2]),
+                fields[3].isEmpty() ? null : Long.valueOf(fields[3]),
+                TransactionType.valueOf(fields[4]),
+                TransactionStatus.valueOf(fields[5]),
+                new BigDecimal(fields[6]),
+                LocalDateTime.parse(fields[7]));
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        void closeTarget() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Stops at the end of one member; GZIPInputStream would otherwise carry on into the next.
+     */
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.funds.service.archive;
+
+import com.example.funds.config.TransactionArchiveProperties;
+import com.example.funds.jdbc.StreamingStatements;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams one closed partition into an archive file and records where each wallet's rows landed.
+ * The rows are read with a forward-only cursor and no transaction: nothing writes to a closed
+ * partition, so the export needs no snapshot and holds no locks. The archive row is only marked
+ * complete once the file is on disk and its row count matches the partition, and once the
+ * per-wallet net of its rows has been recorded for ledger reconciliation.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.transaction-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionArchiver {
+    private static final String EXPORT_SQL = "SELECT id, reference_id, wallet_id, counterparty_wallet_id, "
+            + "transaction_type, status, amount, created_at FROM transaction PARTITION (%s) "
+            + "ORDER BY wallet_id, created_at DESC, id DESC";
+    // Completed rows only: a REVERSED row and its REVERSE row cancel out, and PENDING or FAILED debits
+    // never left the ledger. The second branch credits transfer targets.
+    private static final String INSERT_BALANCE_SQL = "INSERT INTO transaction_archive_balance (archive_id, wallet_id, net_amount) "
+            + "SELECT ?, wallet_id, SUM(delta) FROM ("
+            + "SELECT wallet_id, CASE WHEN transaction_type = 'CREDIT' THEN amount ELSE -amount END AS delta "
+            + "FROM transaction PARTITION (%1$s) WHERE status = 'COMPLETED' AND transaction_type IN ('CREDIT', 'DEBIT', 'TRANSFER') "
+            + "UNION ALL SELECT counterparty_wallet_id, amount FROM transaction PARTITION (%1$s) "
+            + "WHERE status = 'COMPLETED' AND transaction_type = 'TRANSFER' AND counterparty_wallet_id IS NOT NULL"
+            + ") deltas GROUP BY wallet_id";
+    private static final String INSERT_SEGMENT_SQL = "INSERT INTO transaction_archive_segment (wallet_id, archive_id, "
+            + "first_created_at, last_created_at, byte_offset, byte_length, row_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchiveProperties properties;
+    private final Path directory;
+
+    public TransactionArchiver(JdbcTemplate jdbcTemplate, TransactionArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+    }
+
+    /**
+     * Exports the partition unless a completed archive of it already exists; returns the row count.
+     */
+    public long export(String partition, long rangeEndEpochSecond) {
+        List<Long> completed = jdbcTemplate.queryForList(
+                "SELECT row_count FROM transaction_archive WHERE partition_name = ? AND completed_at IS NOT NULL",
+                Long.class, partition);
+        if (!completed.isEmpty()) {
+            return completed.get(0);
+        }
+        discardIncomplete(partition);
+
+        String fileName = "transaction-" + partition + ".tsv.gz";
+        long archiveId = insertArchive(partition, rangeEndEpochSecond, fileName);
+        Path file = directory.resolve(fileName);
+        Path part = directory.resolve(fileName + ".part");
+        long rows;
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(part);
+            rows = write(partition, archiveId, part);
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write archive " + fileName, ex);
+        }
+
+        Long live = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction PARTITION (" + partition + ")", Long.class);
+        if (live == null || live != rows) {
+            throw new IllegalStateException("Archive of " + partition + " holds " + rows + " rows but the partition has " + live);
+        }
+        jdbcTemplate.update(INSERT_BALANCE_SQL.formatted(partition), archiveId);
+        jdbcTemplate.update("UPDATE transaction_archive SET row_count = ?, completed_at = CURRENT_TIMESTAMP WHERE id = ?",
+                rows, archiveId);
+        return rows;
+    }
+
+    private long write(String partition, long archiveId, Path part) throws IOException {
+        List<TransactionArchiveFile.Segment> pending = new ArrayList<>(properties.getSegmentBatchSize());
+        try (TransactionArchiveFile.SegmentWriter writer = TransactionArchiveFile.create(part)) {
+            jdbcTemplate.query(StreamingStatements.forwardOnly(EXPORT_SQL.formatted(partition)), rs -> {
+                try {
+                    TransactionArchiveFile.Segment finished = writer.write(toRow(rs));
+                    if (finished != null) {
+                        pending.add(finished);
+                        if (pending.size() == properties.getSegmentBatchSize()) {
+                            insertSegments(archiveId, pending);
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            TransactionArchiveFile.Segment last = writer.finish();
+            if (last != null) {
+                pending.add(last);
+            }
+            insertSegments(archiveId, pending);
+            return writer.rows();
+        }
+    }
+
+    private void insertSegments(long archiveId, List<TransactionArchiveFile.Segment> segments) {
+        if (segments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SEGMENT_SQL, segments, segments.size(), (statement, segment) -> {
+            statement.setLong(1, segment.walletId());
+            statement.setLong(2, archiveId);
+            statement.setTimestamp(3, Timestamp.valueOf(segment.firstCreatedAt()));
+            statement.setTimestamp(4, Timestamp.valueOf(segment.lastCreatedAt()));
+            statement.setLong(5, segment.offset());
+            statement.setLong(6, segment.length());
+            statement.setInt(7, segment.rows());
+        });
+        segments.clear();
+    }
+
+    private long insertArchive(String partition, long rangeEndEpochSecond, String fileName) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO transaction_archive (partition_name, range_end, file_name) VALUES (?, FROM_UNIXTIME(?), ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, partition);
+            statement.setLong(2, rangeEndEpochSecond);
+            statement.setString(3, fileName);
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    private void discardIncomplete(String partition) {
+        jdbcTemplate.update("DELETE b FROM transaction_archive_balance b JOIN transaction_archive a ON a.id = b.archive_id "
+                + "WHERE a.partition_name = ? AND a.completed_at IS NULL", partition);
+        jdbcTemplate.update("DELETE s FROM transaction_archive_segment s JOIN transaction_archive a ON a.id = s.archive_id "
+                + "WHERE a.partition_name = ? AND a.completed_at IS NULL", partition);
+        jdbcTemplate.update("DELETE FROM transaction_archive WHERE partition_name = ? AND completed_at IS NULL", partition);
+    }
+
+    private static ArchivedTransaction toRow(ResultSet rs) throws SQLException {
+        return new ArchivedTransaction(
+                rs.getLong("id"),
+                toUuid(rs.getBytes("reference_id")),
+                rs.getLong("wallet_id"),
+                rs.getObject("counterparty_wallet_id", Long.class),
+                TransactionType.valueOf(rs.getString("transaction_type")),
+                TransactionStatus.valueOf(rs.getString("status")),
+                rs.getBigDecimal("amount"),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.funds.service.archive;
+
+import com.example.funds.config.TransactionArchiveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of the transaction table ahead of the clock and archives the ones
+ * past retention. New months are cut from the empty MAXVALUE partition {@code p_future}, which
+ * moves no rows; closed months are exported by {@link TransactionArchiver} and then dropped, which
+ * discards the tablespace instead of deleting rows. Both statements run with a short
+ * {@code lock_wait_timeout}, so when a long transaction holds the table they give up and retry on
+ * the next run rather than queueing every writer behind their metadata lock.
+ *
+ * <p>Does nothing unless the table is actually partitioned, i.e. on MySQL once V9 has run.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.transaction-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionPartitionManager {
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionManager.class);
+    static final String FUTURE = "p_future";
+    private static final Pattern PARTITION_NAME = Pattern.compile("p_history|p\\d{6}");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    // Reversals are refused from the retention age on; a day's margin covers clock and time zone skew.
+    private static final long CLOSE_MARGIN_SECONDS = 86_400;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchiver archiver;
+    private final TransactionArchive archive;
+    private final TransactionArchiveProperties properties;
+    private volatile Boolean partitioned;
+
+    /**
+     * A range partition; {@code upperBound} is the exclusive bound in epoch seconds, null for MAXVALUE.
+     */
+    record Partition(String name, Long upperBound) {
+    }
+
+    private record ArchivedRange(String partition, LocalDateTime end, long endEpochSecond) {
+    }
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate, TransactionArchiver archiver,
+                                       TransactionArchive archive, TransactionArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiver = archiver;
+        this.archive = archive;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${funds.transaction-archive.maintenance-interval:1h}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        try {
+            createFuturePartitions(YearMonth.now(ZoneOffset.UTC).plusMonths(properties.getMonthsAhead()));
+            archiveClosedPartitions(Instant.now().minus(properties.getRetention()).getEpochSecond() - CLOSE_MARGIN_SECONDS);
+        } finally {
+            refreshHorizon();
+        }
+    }
+
+    /**
+     * Adds monthly partitions up to and including {@code through}; returns the months added.
+     */
+    public List<YearMonth> createFuturePartitions(YearMonth through) {
+        List<Partition> partitions = partitions();
+        Long lastBound = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(bound -> bound != null)
+                .reduce((first, second) -> second)
+                .orElse(null);
+        if (lastBound == null || partitions.stream().noneMatch(partition -> FUTURE.equals(partition.name()))) {
+            log.warn("Transaction table has no {} partition to split; skipping partition creation", FUTURE);
+            return List.of();
+        }
+        List<YearMonth> months = monthsToAdd(lastBound, through);
+        if (months.isEmpty()) {
+            return months;
+        }
+        StringJoiner definitions = new StringJoiner(", ", "ALTER TABLE transaction REORGANIZE PARTITION " + FUTURE + " INTO (", ")");
+        for (YearMonth month : months) {
+            definitions.add("PARTITION p" + month.format(MONTH) + " VALUES LESS THAN (" + epochSecond(month.plusMonths(1)) + ")");
+        }
+        definitions.add("PARTITION " + FUTURE + " VALUES LESS THAN MAXVALUE");
+        alter(definitions.toString());
+        log.info("Created transaction partitions for {}", months);
+        return months;
+    }
+
+    /**
+     * Archives and drops, oldest first, every partition whose rows were all created before
+     * {@code closedBefore} (epoch seconds). Stops at the first failure so the archive stays contiguous.
+     */
+    public void archiveClosedPartitions(long closedBefore) {
+        for (Partition partition : partitions()) {
+            if (partition.upperBound() == null || partition.upperBound() > closedBefore) {
+                break;
+            }
+            long rows = archiver.export(partition.name(), partition.upperBound());
+            alter("ALTER TABLE transaction DROP PARTITION " + partition.name());
+            log.info("Archived and dropped transaction partition {} ({} rows)", partition.name(), rows);
+        }
+    }
+
+    /**
+     * Months from the one starting at {@code lastBound} through {@code through}, each becoming a partition.
+     */
+    static List<YearMonth> monthsToAdd(long lastBound, YearMonth through) {
+        YearMonth month = YearMonth.from(LocalDateTime.ofEpochSecond(lastBound, 0, ZoneOffset.UTC));
+        List<YearMonth> months = new ArrayList<>();
+        while (!month.isAfter(through)) {
+            months.add(month);
+            month = month.plusMonths(1);
+        }
+        return months;
+    }
+
+    static long epochSecond(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    List<Partition> partitions() {
+        return jdbcTemplate.query("SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transaction' AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> {
+                    String name = rs.getString(1);
+                    if (!PARTITION_NAME.matcher(name).matches() && !FUTURE.equals(name)) {
+                        throw new IllegalStateException("Unexpected transaction partition " + name);
+                    }
+                    String bound = rs.getString(2);
+                    return new Partition(name, "MAXVALUE".equals(bound) ? null : Long.valueOf(bound));
+                });
+    }
+
+    private void refreshHorizon() {
+        Set<String> live = new HashSet<>();
+        for (Partition partition : partitions()) {
+            live.add(partition.name());
+        }
+        // Only archives whose partition is gone count: until the drop, the rows are still in the table.
+        LocalDateTime createdAt = null;
+        Instant instant = null;
+        for (ArchivedRange range : jdbcTemplate.query("SELECT partition_name, range_end, UNIX_TIMESTAMP(range_end) "
+                        + "FROM transaction_archive WHERE completed_at IS NOT NULL",
+                (rs, rowNum) -> new ArchivedRange(rs.getString(1), rs.getObject(2, LocalDateTime.class), rs.getLong(3)))) {
+            if (!live.contains(range.partition()) && (createdAt == null || range.end().isAfter(createdAt))) {
+                createdAt = range.end();
+                instant = Instant.ofEpochSecond(range.endEpochSecond());
+            }
+        }
+        archive.setHorizon(createdAt, instant);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().startsWith("MySQL"))
+                    && !partitions().isEmpty();
+            if (!partitioned) {
+                log.info("Transaction table is not partitioned; partition maintenance and archiving are off");
+            }
+        }
+        return partitioned;
+    }
+
+    private void alter(String ddl) {
+        long timeout = Math.max(1, properties.getLockWaitTimeout().toSeconds());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION lock_wait_timeout = " + timeout);
+                try {
+                    statement.execute(ddl);
+                } finally {
+                    statement.execute("SET SESSION lock_wait_timeout = DEFAULT");
+                }
+            }
+            return null;
+        });
+    }
+}
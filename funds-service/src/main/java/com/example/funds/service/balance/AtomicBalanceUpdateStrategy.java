@@ -0,0 +1,82 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.repository.WalletRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changes the balance with a single conditional UPDATE and checks the affected row count,
+ * so the row lock is taken by that statement rather than by a preceding SELECT ... FOR UPDATE.
+ * Credits, debits and transfers return wallet references without reading the rows back, so
+ * each leg costs exactly one statement.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.balance-update.strategy", havingValue = "atomic")
+public class AtomicBalanceUpdateStrategy implements BalanceUpdateStrategy {
+    private final WalletRepository walletRepository;
+    private final EntityManager entityManager;
+
+    public AtomicBalanceUpdateStrategy(WalletRepository walletRepository, EntityManager entityManager) {
+        this.walletRepository = walletRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Wallet credit(Long walletId, String currencyCode, long amount) {
+        increment(walletId, currencyCode, amount, "Wallet not found");
+        return entityManager.getReference(Wallet.class, walletId);
+    }
+
+    @Override
+    public Wallet debit(Long walletId, String currencyCode, long amount) {
+        decrement(walletId, currencyCode, amount, "Wallet not found");
+        return entityManager.getReference(Wallet.class, walletId);
+    }
+
+    @Override
+    public TransferLegs transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount) {
+        // Statements run in ascending wallet id order, matching the lock order of the other strategies.
+        if (sourceWalletId <= targetWalletId) {
+            decrement(sourceWalletId, currencyCode, amount, "Source wallet not found");
+            increment(targetWalletId, currencyCode, amount, "Target wallet not found");
+        } else {
+            increment(targetWalletId, currencyCode, amount, "Target wallet not found");
+            decrement(sourceWalletId, currencyCode, amount, "Source wallet not found");
+        }
+        return new TransferLegs(entityManager.getReference(Wallet.class, sourceWalletId),
+                entityManager.getReference(Wallet.class, targetWalletId));
+    }
+
+    @Override
+    public Wallet adjust(Long walletId, long delta) {
+        if (walletRepository.adjustBalance(walletId, delta, LocalDateTime.now()) == 0) {
+            if (!walletRepository.existsById(walletId)) {
+                throw new IllegalArgumentException("Wallet not found");
+            }
+            throw new IllegalStateException("Insufficient funds");
+        }
+        // The wallet may already be managed from an earlier read, so bring it up to date.
+        Wallet wallet = entityManager.find(Wallet.class, walletId);
+        entityManager.refresh(wallet);
+        return wallet;
+    }
+
+    private void increment(Long walletId, String currencyCode, long amount, String notFoundMessage) {
+        if (walletRepository.incrementBalance(walletId, currencyCode, amount, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException(notFoundMessage);
+        }
+    }
+
+    private void decrement(Long walletId, String currencyCode, long amount, String notFoundMessage) {
+        if (walletRepository.decrementBalance(walletId, currencyCode, amount, LocalDateTime.now()) == 0) {
+            if (!walletRepository.existsByIdAndCurrencyCode(walletId, currencyCode)) {
+                throw new IllegalArgumentException(notFoundMessage);
+            }
+            throw new IllegalStateException("Insufficient funds");
+        }
+    }
+}
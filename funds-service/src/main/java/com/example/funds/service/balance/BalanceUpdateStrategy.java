@@ -0,0 +1,30 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.model.Wallet;
+
+/**
+ * Applies balance changes to wallets. Implementations are selected with
+ * {@code funds.balance-update.strategy} and always run inside the caller's transaction;
+ * the caller is responsible for retrying the whole transaction on concurrency failures.
+ *
+ * <p>The wallets returned by {@link #credit}, {@link #debit} and {@link #transfer} may be
+ * uninitialised references: their id is always available, but reading any other state may load
+ * the row.
+ */
+public interface BalanceUpdateStrategy {
+
+    Wallet credit(Long walletId, String currencyCode, long amount);
+
+    Wallet debit(Long walletId, String currencyCode, long amount);
+
+    TransferLegs transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount);
+
+    /**
+     * Adds a signed delta to the main balance, as needed when a transaction is reversed. A
+     * negative delta fails with "Insufficient funds" if it would take the balance below zero.
+     */
+    Wallet adjust(Long walletId, long delta);
+
+    record TransferLegs(Wallet source, Wallet target) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.journal.JournalService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends balanced journal postings instead of rewriting {@code wallet.balance}, so no operation
+ * updates a wallet row. Credits only share-lock the wallet and therefore never wait on each other;
+ * debits lock it exclusively so that the balance they check cannot change before they commit.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.balance-update.strategy", havingValue = "journal")
+public class JournalBalanceUpdateStrategy implements BalanceUpdateStrategy {
+    private final WalletRepository walletRepository;
+    private final JournalService journal;
+
+    public JournalBalanceUpdateStrategy(WalletRepository walletRepository, JournalService journal) {
+        this.walletRepository = walletRepository;
+        this.journal = journal;
+    }
+
+    @Override
+    public Wallet credit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findSharedByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        journal.post(walletId, amount);
+        return wallet;
+    }
+
+    @Override
+    public Wallet debit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        Wallets.requireFunds(available(wallet), amount);
+        journal.post(walletId, -amount);
+        return wallet;
+    }
+
+    @Override
+    public TransferLegs transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount) {
+        // Locks are taken in ascending id order, as in the other strategies, so opposing transfers cannot deadlock.
+        Wallet source;
+        Wallet target;
+        if (sourceWalletId < targetWalletId) {
+            source = lockSource(sourceWalletId, currencyCode);
+            target = lockTarget(targetWalletId, currencyCode);
+        } else {
+            target = lockTarget(targetWalletId, currencyCode);
+            source = lockSource(sourceWalletId, currencyCode);
+        }
+        Wallets.requireFunds(available(source), amount);
+        journal.postTransfer(sourceWalletId, targetWalletId, amount);
+        return new TransferLegs(source, target);
+    }
+
+    @Override
+    public Wallet adjust(Long walletId, long delta) {
+        Wallet wallet = walletRepository.findForUpdateById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        if (delta < 0) {
+            Wallets.requireFunds(available(wallet), -delta);
+        }
+        journal.post(walletId, delta);
+        return wallet;
+    }
+
+    private Wallet lockSource(Long walletId, String currencyCode) {
+        return walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
+    }
+
+    private Wallet lockTarget(Long walletId, String currencyCode) {
+        return walletRepository.findSharedByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Target wallet not found"));
+    }
+
+    private long available(Wallet wallet) {
+        return Money.add(wallet.getBalance(), journal.balance(wallet.getId()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reads wallets without locking and relies on the {@code @Version} column: a concurrent
+ * change makes the flush fail with an optimistic locking exception and the caller retries.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.balance-update.strategy", havingValue = "optimistic")
+public class OptimisticBalanceUpdateStrategy implements BalanceUpdateStrategy {
+    private final WalletRepository walletRepository;
+    private final EntityManager entityManager;
+
+    public OptimisticBalanceUpdateStrategy(WalletRepository walletRepository, EntityManager entityManager) {
+        this.walletRepository = walletRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Wallet credit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findWithoutLockByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        wallet.setBalance(Money.add(wallet.getBalance(), amount));
+        return wallet;
+    }
+
+    @Override
+    public Wallet debit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findWithoutLockByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        Wallets.requireFunds(wallet, amount);
+        wallet.setBalance(Money.subtract(wallet.getBalance(), amount));
+        return wallet;
+    }
+
+    @Override
+    public TransferLegs transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount) {
+        List<Wallet> wallets = walletRepository.findWithoutLockByIdInAndCurrencyCode(
+                List.of(sourceWalletId, targetWalletId), currencyCode);
+        TransferLegs legs = Wallets.legs(wallets, sourceWalletId, targetWalletId);
+        Wallets.requireFunds(legs.source(), amount);
+        legs.source().setBalance(Money.subtract(legs.source().getBalance(), amount));
+        legs.target().setBalance(Money.add(legs.target().getBalance(), amount));
+        return legs;
+    }
+
+    @Override
+    public Wallet adjust(Long walletId, long delta) {
+        Wallet wallet = entityManager.find(Wallet.class, walletId);
+        if (wallet == null) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
+        if (delta < 0) {
+            Wallets.requireFunds(wallet, -delta);
+        }
+        wallet.setBalance(Money.add(wallet.getBalance(), delta));
+        return wallet;
+    }
+}
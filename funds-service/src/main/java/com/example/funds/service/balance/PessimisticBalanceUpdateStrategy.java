@@ -0,0 +1,62 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Locks wallet rows with SELECT ... FOR UPDATE and mutates the balance in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.balance-update.strategy", havingValue = "pessimistic", matchIfMissing = true)
+public class PessimisticBalanceUpdateStrategy implements BalanceUpdateStrategy {
+    private final WalletRepository walletRepository;
+
+    public PessimisticBalanceUpdateStrategy(WalletRepository walletRepository) {
+        this.walletRepository = walletRepository;
+    }
+
+    @Override
+    public Wallet credit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        wallet.setBalance(Money.add(wallet.getBalance(), amount));
+        return wallet;
+    }
+
+    @Override
+    public Wallet debit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        Wallets.requireFunds(wallet, amount);
+        wallet.setBalance(Money.subtract(wallet.getBalance(), amount));
+        return wallet;
+    }
+
+    @Override
+    public TransferLegs transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount) {
+        // Both rows are locked by one statement in ascending id order, so opposing transfers cannot deadlock.
+        List<Wallet> wallets = walletRepository.findAllByIdInAndCurrencyCodeOrderByIdAsc(
+                List.of(sourceWalletId, targetWalletId), currencyCode);
+        TransferLegs legs = Wallets.legs(wallets, sourceWalletId, targetWalletId);
+        Wallets.requireFunds(legs.source(), amount);
+        legs.source().setBalance(Money.subtract(legs.source().getBalance(), amount));
+        legs.target().setBalance(Money.add(legs.target().getBalance(), amount));
+        return legs;
+    }
+
+    @Override
+    public Wallet adjust(Long walletId, long delta) {
+        Wallet wallet = walletRepository.findForUpdateById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        if (delta < 0) {
+            Wallets.requireFunds(wallet, -delta);
+        }
+        wallet.setBalance(Money.add(wallet.getBalance(), delta));
+        return wallet;
+    }
+}
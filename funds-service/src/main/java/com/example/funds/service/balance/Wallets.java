@@ -0,0 +1,36 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.model.Wallet;
+
+import java.util.List;
+import java.util.Optional;
+
+final class Wallets {
+
+    private Wallets() {
+    }
+
+    static void requireFunds(Wallet wallet, long amount) {
+        requireFunds(wallet.getBalance(), amount);
+    }
+
+    static void requireFunds(long available, long amount) {
+        if (available < amount) {
+            throw new IllegalStateException("Insufficient funds");
+        }
+    }
+
+    static BalanceUpdateStrategy.TransferLegs legs(List<Wallet> wallets, Long sourceWalletId, Long targetWalletId) {
+        Wallet source = find(wallets, sourceWalletId)
+                .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
+        Wallet target = find(wallets, targetWalletId)
+                .orElseThrow(() -> new IllegalArgumentException("Target wallet not found"));
+        return new BalanceUpdateStrategy.TransferLegs(source, target);
+    }
+
+    private static Optional<Wallet> find(List<Wallet> wallets, Long walletId) {
+        return wallets.stream()
+                .filter(wallet -> wallet.getId().equals(walletId))
+                .findFirst();
+    }
+}
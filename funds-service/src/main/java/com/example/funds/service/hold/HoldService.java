@@ -0,0 +1,277 @@
+package com.example.funds.service.hold;
+
+import com.example.funds.config.HoldProperties;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionHold;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.TransactionHoldRepository;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.LockRetryTemplate;
+import com.example.funds.service.TransactionFactory;
+import com.example.funds.service.WalletsChangedEvent;
+import com.example.funds.service.balance.BalanceUpdateStrategy;
+import com.example.funds.service.split.SplitBalanceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authorizes, captures and voids holds. An authorization moves the amount out of the wallet's
+ * balance, which is what debits may still spend, into its held balance and records a PENDING
+ * debit; capture completes that debit for at most the authorized amount and returns the rest,
+ * void and expiry return all of it. Balances move through the configured
+ * {@link BalanceUpdateStrategy}, so its funds checks and lock order apply unchanged.
+ *
+ * <p>Expiry is driven by an in-memory {@link TimingWheel} rather than by polling for expired
+ * rows: holds are scheduled on it after their authorization commits, cancelled after they are
+ * closed, and reloaded from {@code transaction_hold} on startup. Holds authorized on another
+ * instance reach this one's wheel only when it restarts; expiring a hold is idempotent, so every
+ * instance may safely try.
+ *
+ * <p>The hold row is locked first by every operation on an existing hold, which serialises
+ * capture, void and expiry of the same hold, then the transaction row, then the wallet.
+ */
+@Service
+public class HoldService {
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+
+    private final TransactionHoldRepository holdRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final TransactionFactory transactionFactory;
+    private final SplitBalanceService splitBalances;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryTemplate lockRetryTemplate;
+    private final ApplicationEventPublisher events;
+    private final HoldProperties properties;
+    private final TimingWheel<UUID> wheel;
+    private final Counter expired;
+
+    public HoldService(TransactionHoldRepository holdRepository, TransactionRepository transactionRepository,
+                       WalletRepository walletRepository, BalanceUpdateStrategy balanceUpdateStrategy,
+                       TransactionFactory transactionFactory, SplitBalanceService splitBalances,
+                       EntityManager entityManager, PlatformTransactionManager transactionManager,
+                       LockRetryTemplate lockRetryTemplate, ApplicationEventPublisher events,
+                       HoldProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getMaxExpiry().compareTo(properties.getDefaultExpiry()) < 0) {
+            throw new IllegalArgumentException("Hold max-expiry must not be shorter than default-expiry");
+        }
+        this.holdRepository = holdRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.transactionFactory = transactionFactory;
+        this.splitBalances = splitBalances;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockRetryTemplate = lockRetryTemplate;
+        this.events = events;
+        this.properties = properties;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), System.currentTimeMillis());
+        this.expired = Counter.builder("funds.holds.expired")
+                .description("Holds released because they expired before capture")
+                .register(meterRegistry);
+        Gauge.builder("funds.holds.scheduled", wheel, TimingWheel::size)
+                .description("Holds waiting on this instance's expiry wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Moves {@code amount} from the wallet's balance to its held balance and records a PENDING
+     * debit. A null {@code expiresIn} uses the configured default. Runs in the caller's transaction.
+     */
+    public Authorization authorize(Long walletId, String currencyCode, long amount, Duration expiresIn) {
+        Duration expiry = expiresIn == null ? properties.getDefaultExpiry() : expiresIn;
+        if (expiry.isNegative() || expiry.isZero() || expiry.compareTo(properties.getMaxExpiry()) > 0) {
+            throw new IllegalArgumentException("Hold expiry must be positive and at most " + properties.getMaxExpiry());
+        }
+        if (splitBalances.isSplit(walletId)) {
+            splitBalances.sweepIfShort(walletId, amount);
+        }
+        Wallet wallet = balanceUpdateStrategy.debit(walletId, currencyCode, amount);
+        wallet.setHeldBalance(Money.add(wallet.getHeldBalance(), amount));
+        Transaction transaction = transactionFactory.completed(wallet, amount, TransactionType.DEBIT);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transactionRepository.save(transaction);
+
+        TransactionHold hold = new TransactionHold();
+        hold.setReferenceId(transaction.getReferenceId());
+        hold.setAuthorizedAt(transaction.getCreatedAt());
+        hold.setExpiresAt(transaction.getCreatedAt().plus(expiry));
+        // persist rather than save: the id is assigned, so save would merge and select the row first.
+        entityManager.persist(hold);
+        events.publishEvent(new WalletsChangedEvent(List.of(walletId)));
+        events.publishEvent(new HoldChanged(hold.getReferenceId(), hold.getExpiresAt()));
+        return new Authorization(transaction, hold.getExpiresAt());
+    }
+
+    /**
+     * Completes the PENDING debit of a hold for {@code amount}, or for the whole authorized
+     * amount when it is null, and returns any remainder to the wallet's balance. Runs in the
+     * caller's transaction.
+     */
+    public Transaction capture(UUID referenceId, Long amount) {
+        TransactionHold hold = lockOpen(referenceId);
+        Transaction transaction = lockTransaction(hold);
+        long authorized = transaction.getAmount();
+        long captured = amount == null ? authorized : amount;
+        Long walletId = transaction.getWallet().getId();
+        if (captured <= 0) {
+            throw new IllegalArgumentException("Capture amount must be positive");
+        }
+        if (captured > authorized) {
+            throw new IllegalArgumentException("Capture amount exceeds the authorized amount");
+        }
+        long remainder = authorized - captured;
+        Wallet wallet = remainder > 0
+                ? balanceUpdateStrategy.adjust(walletId, remainder)
+                : walletRepository.findForUpdateById(walletId).orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        Money.requireScale(captured, wallet.getCurrencyCode());
+        close(hold, wallet, authorized);
+        transaction.setAmount(captured);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        return transaction;
+    }
+
+    /**
+     * Returns the whole authorized amount of a hold to the wallet's balance and marks its
+     * PENDING debit REVERSED. Runs in the caller's transaction.
+     */
+    public Transaction voidHold(UUID referenceId) {
+        TransactionHold hold = lockOpen(referenceId);
+        return release(hold, TransactionStatus.REVERSED);
+    }
+
+    @Scheduled(fixedDelayString = "${funds.holds.tick:1s}")
+    public void expireDue() {
+        for (UUID referenceId : wheel.advance(System.currentTimeMillis())) {
+            try {
+                expire(referenceId);
+            } catch (RuntimeException ex) {
+                // Left on the table; it is picked up again on the next restart.
+                log.warn("Failed to expire hold {}", referenceId, ex);
+            }
+        }
+    }
+
+    /**
+     * Releases a hold whose expiry has passed, marking its debit FAILED. Does nothing if the hold
+     * was already closed, and reschedules it if its expiry has not actually passed yet.
+     */
+    public void expire(UUID referenceId) {
+        boolean released = lockRetryTemplate.execute("expire", () -> transactionTemplate.execute(status -> {
+            TransactionHold hold = holdRepository.findForUpdateByReferenceId(referenceId).orElse(null);
+            if (hold == null) {
+                return false;
+            }
+            if (hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+                events.publishEvent(new HoldChanged(referenceId, hold.getExpiresAt()));
+                return false;
+            }
+            release(hold, TransactionStatus.FAILED);
+            return true;
+        }));
+        if (released) {
+            expired.increment();
+        }
+    }
+
+    /**
+     * Loads every outstanding hold onto the expiry wheel, in keyset pages.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int loaded = 0;
+        UUID after = null;
+        List<TransactionHold> page;
+        do {
+            UUID afterReferenceId = after;
+            page = transactionTemplate.execute(status ->
+                    holdRepository.findPage(afterReferenceId, Limit.of(properties.getRecoveryBatchSize())));
+            for (TransactionHold hold : page) {
+                wheel.schedule(hold.getReferenceId(), epochMillis(hold.getExpiresAt()));
+                after = hold.getReferenceId();
+            }
+            loaded += page.size();
+        } while (page.size() == properties.getRecoveryBatchSize());
+        log.info("Scheduled {} outstanding holds for expiry", loaded);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldChanged(HoldChanged event) {
+        if (event.expiresAt() == null) {
+            wheel.cancel(event.referenceId());
+        } else {
+            wheel.schedule(event.referenceId(), epochMillis(event.expiresAt()));
+        }
+    }
+
+    private TransactionHold lockOpen(UUID referenceId) {
+        TransactionHold hold = holdRepository.findForUpdateByReferenceId(referenceId)
+                .orElseThrow(() -> new IllegalArgumentException("Authorization not found"));
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new IllegalStateException("Authorization expired");
+        }
+        return hold;
+    }
+
+    private Transaction lockTransaction(TransactionHold hold) {
+        return transactionRepository.findForUpdateByReferenceIdCreatedSince(hold.getReferenceId(), hold.getAuthorizedAt())
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+                .orElseThrow(() -> new IllegalStateException("Authorization is not pending"));
+    }
+
+    private Transaction release(TransactionHold hold, TransactionStatus status) {
+        Transaction transaction = lockTransaction(hold);
+        Wallet wallet = balanceUpdateStrategy.adjust(transaction.getWallet().getId(), transaction.getAmount());
+        close(hold, wallet, transaction.getAmount());
+        transaction.setStatus(status);
+        return transaction;
+    }
+
+    private void close(TransactionHold hold, Wallet wallet, long authorized) {
+        wallet.setHeldBalance(Money.subtract(wallet.getHeldBalance(), authorized));
+        holdRepository.delete(hold);
+        events.publishEvent(new WalletsChangedEvent(List.of(wallet.getId())));
+        events.publishEvent(new HoldChanged(hold.getReferenceId(), null));
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record Authorization(Transaction transaction, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Published inside the transaction that opens ({@code expiresAt} set) or closes a hold, and
+     * applied to the wheel only once it commits.
+     */
+    record HoldChanged(UUID referenceId, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.funds.service.hold;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A hierarchical timing wheel of keyed deadlines. Level 0 has one bucket per tick; each level
+ * above has buckets as wide as the whole level below it, and a deadline is placed on the lowest
+ * level whose span still reaches it. Scheduling and cancelling are O(1) whatever the number of
+ * pending deadlines; as time passes a higher-level bucket is redistributed into the levels below
+ * it once, when its turn comes, and a level-0 bucket holds only deadlines that are due. Stretches
+ * in which the lower levels are empty are skipped rather than ticked through.
+ *
+ * <p>Time only moves forward through {@link #advance}; the caller supplies the clock.
+ */
+public class TimingWheel<K> {
+    static final int SLOT_BITS = 8;
+    static final int LEVELS = 4;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Entry<K>[][] buckets;
+    // Deadlines beyond the top level's span, placed again each time the top level wraps around.
+    private final Entry<K> overflow = Entry.sentinel();
+    // Entries per level, the overflow counted as level LEVELS.
+    private final int[] counts = new int[LEVELS + 1];
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock: the last tick that has been processed.
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Timing wheel tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.buckets = new Entry[LEVELS][SLOTS];
+        for (Entry<K>[] level : buckets) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = Entry.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code key} to come due at {@code deadlineMillis}, replacing any deadline it
+     * already had. A deadline that has already passed comes due on the next tick.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        lock.lock();
+        try {
+            Entry<K> entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry<>(key);
+                entries.put(key, entry);
+            } else {
+                unlink(entry);
+            }
+            // Round up, so nothing comes due before its deadline.
+            entry.deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+            place(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the deadline of {@code key}; returns false if it had none.
+     */
+    public boolean cancel(K key) {
+        lock.lock();
+        try {
+            Entry<K> entry = entries.remove(key);
+            if (entry == null) {
+                return false;
+            }
+            unlink(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns the keys that came due on the way, in
+     * deadline order. Their deadlines are removed.
+     */
+    public List<K> advance(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        lock.lock();
+        try {
+            long targetTick = nowMillis / tickMillis;
+            while (currentTick < targetTick) {
+                currentTick = Math.min(nextOccupiedTick(), targetTick);
+                if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                    redistribute(overflow);
+                }
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        redistribute(buckets[level][(int) (currentTick >>> (SLOT_BITS * level)) & MASK]);
+                    }
+                }
+                Entry<K> bucket = buckets[0][(int) currentTick & MASK];
+                for (Entry<K> entry = bucket.next; entry != bucket; ) {
+                    Entry<K> next = entry.next;
+                    entries.remove(entry.key);
+                    unlink(entry);
+                    due.add(entry.key);
+                    entry = next;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The next tick that can have work: the next one while level 0 holds entries, otherwise the
+     * next boundary at which the lowest occupied level redistributes a bucket.
+     */
+    private long nextOccupiedTick() {
+        int level = 0;
+        while (level <= LEVELS && counts[level] == 0) {
+            level++;
+        }
+        if (level == 0) {
+            return currentTick + 1;
+        }
+        if (level > LEVELS) {
+            return Long.MAX_VALUE;
+        }
+        int shift = SLOT_BITS * level;
+        return ((currentTick >>> shift) + 1) << shift;
+    }
+
+    private void redistribute(Entry<K> bucket) {
+        // Detach the chain first: an overflow entry that is still out of range goes back to the same bucket.
+        Entry<K> entry = bucket.next;
+        bucket.next = bucket;
+        bucket.prev = bucket;
+        while (entry != bucket) {
+            Entry<K> next = entry.next;
+            counts[entry.level]--;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        // The highest bit in which the deadline still differs from now picks the level; a due
+        // deadline (no differing bit) goes to the level-0 bucket being processed.
+        long differing = entry.deadlineTick ^ currentTick;
+        int level = differing == 0 ? 0 : (63 - Long.numberOfLeadingZeros(differing)) / SLOT_BITS;
+        Entry<K> bucket;
+        if (level >= LEVELS) {
+            level = LEVELS;
+            bucket = overflow;
+        } else {
+            bucket = buckets[level][(int) (entry.deadlineTick >>> (SLOT_BITS * level)) & MASK];
+        }
+        entry.level = level;
+        counts[level]++;
+        entry.prev = bucket.prev;
+        entry.next = bucket;
+        bucket.prev.next = entry;
+        bucket.prev = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        counts[entry.level]--;
+        entry.unlink();
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private long deadlineTick;
+        private int level;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+
+        private static <K> Entry<K> sentinel() {
+            Entry<K> sentinel = new Entry<>(null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.funds.service.journal;
+
+import com.example.funds.model.BalanceSnapshot;
+import com.example.funds.model.JournalEntry;
+import com.example.funds.model.LedgerAccount;
+import com.example.funds.money.Money;
+import com.example.funds.repository.BalanceSnapshotRepository;
+import com.example.funds.repository.JournalEntryRepository;
+import com.example.funds.service.ReferenceIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Appends balanced postings to the journal and derives wallet balances from it. In journal mode a
+ * wallet's balance is its {@code wallet.balance} column, frozen at whatever it held when the mode
+ * was switched on, plus the latest snapshot plus the journal entries after that snapshot.
+ *
+ * <p>Writers must hold a lock on every wallet row they post to, shared for credits and exclusive
+ * for debits, until they commit. That is what lets the compactor take a consistent snapshot.
+ */
+@Service
+@ConditionalOnProperty(name = "funds.balance-update.strategy", havingValue = "journal")
+public class JournalService {
+    private final JournalEntryRepository journalEntries;
+    private final BalanceSnapshotRepository snapshots;
+    private final ReferenceIdGenerator referenceIdGenerator;
+
+    public JournalService(JournalEntryRepository journalEntries, BalanceSnapshotRepository snapshots,
+                          ReferenceIdGenerator referenceIdGenerator) {
+        this.journalEntries = journalEntries;
+        this.snapshots = snapshots;
+        this.referenceIdGenerator = referenceIdGenerator;
+    }
+
+    /**
+     * Books a signed amount to a wallet against the settlement account.
+     */
+    public void post(Long walletId, long amount) {
+        UUID postingId = referenceIdGenerator.next();
+        journalEntries.saveAll(List.of(
+                entry(postingId, LedgerAccount.WALLET, walletId, amount),
+                entry(postingId, LedgerAccount.SETTLEMENT, null, -amount)));
+    }
+
+    public void postTransfer(Long sourceWalletId, Long targetWalletId, long amount) {
+        UUID postingId = referenceIdGenerator.next();
+        journalEntries.saveAll(List.of(
+                entry(postingId, LedgerAccount.WALLET, sourceWalletId, -amount),
+                entry(postingId, LedgerAccount.WALLET, targetWalletId, amount)));
+    }
+
+    /**
+     * The journal's share of a wallet balance: the latest snapshot plus the entries after it.
+     * Entries are immutable, so a snapshot taken between the two reads does not change the result.
+     */
+    public long balance(Long walletId) {
+        BalanceSnapshot snapshot = snapshots.findFirstByWalletIdOrderByLastEntryIdDesc(walletId).orElse(null);
+        long afterId = snapshot == null ? 0L : snapshot.getLastEntryId();
+        long base = snapshot == null ? 0L : snapshot.getBalance();
+        return Money.add(base, Money.of(journalEntries.findTail(walletId, afterId).getTotal()));
+    }
+
+    public Map<Long, Long> balances(Collection<Long> walletIds) {
+        Map<Long, Long> balances = new HashMap<>();
+        if (walletIds.isEmpty()) {
+            return balances;
+        }
+        for (BalanceSnapshot snapshot : snapshots.findLatest(walletIds)) {
+            balances.put(snapshot.getWalletId(), snapshot.getBalance());
+        }
+        for (JournalEntryRepository.WalletTotal tail : journalEntries.sumTails(walletIds)) {
+            balances.merge(tail.getWalletId(), Money.of(tail.getTotal()), Money::add);
+        }
+        return balances;
+    }
+
+    /**
+     * SQL expression for the journal's share of the balance of the wallet whose id is in {@code walletIdColumn}.
+     */
+    public static String balanceSql(String walletIdColumn) {
+        return "COALESCE((SELECT b.balance FROM balance_snapshot b WHERE b.wallet_id = " + walletIdColumn
+                + " ORDER BY b.last_entry_id DESC LIMIT 1), 0) + "
+                + "COALESCE((SELECT SUM(e.amount) FROM journal_entry e WHERE e.wallet_id = " + walletIdColumn
+                + " AND e.id > COALESCE((SELECT MAX(b.last_entry_id) FROM balance_snapshot b WHERE b.wallet_id = "
+                + walletIdColumn + "), 0)), 0)";
+    }
+
+    private static JournalEntry entry(UUID postingId, LedgerAccount account, Long walletId, long amount) {
+        JournalEntry entry = new JournalEntry();
+        entry.setPostingId(postingId);
+        entry.setAccount(account);
+        entry.setWalletId(walletId);
+        entry.setAmount(amount);
+        return entry;
+    }
+}
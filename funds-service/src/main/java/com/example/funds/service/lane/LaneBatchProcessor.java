@@ -0,0 +1,109 @@
+package com.example.funds.service.lane;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.LockRetryTemplate;
+import com.example.funds.service.TransactionFactory;
+import com.example.funds.service.WalletsChangedEvent;
+import com.example.funds.service.outbox.OutboxWriter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a drained batch of lane requests in one database transaction: the touched wallets
+ * are locked once in id order, each request is checked against the running balance, and
+ * every caller is completed only after the commit succeeds.
+ */
+@Component
+class LaneBatchProcessor {
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionFactory transactionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryTemplate lockRetryTemplate;
+    private final ApplicationEventPublisher events;
+    private final OutboxWriter outbox;
+
+    LaneBatchProcessor(WalletRepository walletRepository, TransactionRepository transactionRepository,
+                       TransactionFactory transactionFactory, PlatformTransactionManager transactionManager,
+                       LockRetryTemplate lockRetryTemplate, ApplicationEventPublisher events, OutboxWriter outbox) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionFactory = transactionFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockRetryTemplate = lockRetryTemplate;
+        this.events = events;
+        this.outbox = outbox;
+    }
+
+    void process(List<LaneRequest> batch) {
+        Object[] outcomes;
+        try {
+            outcomes = lockRetryTemplate.execute("lane", () -> transactionTemplate.execute(status -> apply(batch)));
+        } catch (RuntimeException ex) {
+            batch.forEach(request -> request.result().completeExceptionally(ex));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i] instanceof Transaction transaction) {
+                batch.get(i).result().complete(transaction);
+            } else {
+                batch.get(i).result().completeExceptionally((RuntimeException) outcomes[i]);
+            }
+        }
+    }
+
+    private Object[] apply(List<LaneRequest> batch) {
+        TreeSet<Long> walletIds = batch.stream()
+                .map(LaneRequest::walletId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Wallet> wallets = walletRepository.findAllByIdInOrderByIdAsc(walletIds).stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity()));
+
+        Object[] outcomes = new Object[batch.size()];
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            LaneRequest request = batch.get(i);
+            Wallet wallet = wallets.get(request.walletId());
+            if (wallet == null || !wallet.getCurrencyCode().equals(request.currencyCode())) {
+                outcomes[i] = new IllegalArgumentException("Wallet not found");
+                continue;
+            }
+            if (request.type() == TransactionType.DEBIT) {
+                if (wallet.getBalance() < request.amount()) {
+                    outcomes[i] = new IllegalStateException("Insufficient funds");
+                    continue;
+                }
+                wallet.setBalance(Money.subtract(wallet.getBalance(), request.amount()));
+            } else {
+                try {
+                    wallet.setBalance(Money.add(wallet.getBalance(), request.amount()));
+                } catch (IllegalArgumentException ex) {
+                    outcomes[i] = ex;
+                    continue;
+                }
+            }
+            Transaction transaction = transactionFactory.completed(wallet, request.amount(), request.type());
+            transactions.add(transaction);
+            outcomes[i] = transaction;
+        }
+        // Dirty checking turns all changes to one wallet into a single UPDATE at flush.
+        transactionRepository.saveAll(transactions);
+        outbox.appendAll(transactions);
+        events.publishEvent(new WalletsChangedEvent(wallets.keySet()));
+        return outcomes;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.funds.service.lane;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionType;
+
+import java.util.concurrent.CompletableFuture;
+
+record LaneRequest(TransactionType type, Long walletId, String currencyCode, long amount,
+                   CompletableFuture<Transaction> result) {
+}
@@ -0,0 +1,103 @@
+package com.example.funds.service.limit;
+
+/**
+ * Immutable amount and count totals of one key over its newest {@code slots} slots. Slot numbers
+ * are absolute ({@code epochMillis / slotMillis}), and a spend counts until the window has moved
+ * {@code slots} slots past the one it was made in, so for more than {@code slots - 1} and at most
+ * {@code slots} slot lengths. Updates return a new instance, which callers install with a
+ * compare-and-set.
+ */
+final class SlidingWindow {
+    private final long newestSlot;
+    // Amount of slot s at 2 * (s % slots), count at 2 * (s % slots) + 1.
+    private final long[] cells;
+    private final long totalAmount;
+    private final long totalCount;
+
+    private SlidingWindow(long newestSlot, long[] cells, long totalAmount, long totalCount) {
+        this.newestSlot = newestSlot;
+        this.cells = cells;
+        this.totalAmount = totalAmount;
+        this.totalCount = totalCount;
+    }
+
+    static SlidingWindow empty(int slots) {
+        return new SlidingWindow(Long.MIN_VALUE, new long[2 * slots], 0L, 0L);
+    }
+
+    long totalAmount(long slot) {
+        return newestSlot != Long.MIN_VALUE && slot - newestSlot < slots() ? totalAmount - expiredAmount(slot) : 0L;
+    }
+
+    long totalCount(long slot) {
+        return newestSlot != Long.MIN_VALUE && slot - newestSlot < slots() ? totalCount - expiredCount(slot) : 0L;
+    }
+
+    /**
+     * True when nothing is counted in the window that ends at {@code slot}.
+     */
+    boolean isIdle(long slot) {
+        return totalCount(slot) == 0 && totalAmount(slot) == 0;
+    }
+
+    /**
+     * This window moved forward to {@code currentSlot} with {@code amount} and {@code count} added
+     * to {@code slot}. A slot that has already left the window is ignored.
+     */
+    SlidingWindow plus(long slot, long currentSlot, long amount, long count) {
+        SlidingWindow advanced = advance(currentSlot);
+        if (advanced.newestSlot - slot >= slots() || slot > advanced.newestSlot) {
+            return advanced;
+        }
+        long[] cells = advanced == this ? this.cells.clone() : advanced.cells;
+        int index = index(slot);
+        cells[index] += amount;
+        cells[index + 1] += count;
+        return new SlidingWindow(advanced.newestSlot, cells,
+                advanced.totalAmount + amount, advanced.totalCount + count);
+    }
+
+    private SlidingWindow advance(long slot) {
+        if (newestSlot != Long.MIN_VALUE && slot <= newestSlot) {
+            return this;
+        }
+        if (newestSlot == Long.MIN_VALUE || slot - newestSlot >= slots()) {
+            return new SlidingWindow(slot, new long[cells.length], 0L, 0L);
+        }
+        long[] cells = this.cells.clone();
+        long amount = totalAmount;
+        long count = totalCount;
+        for (long expired = newestSlot + 1; expired <= slot; expired++) {
+            int index = index(expired);
+            amount -= cells[index];
+            count -= cells[index + 1];
+            cells[index] = 0L;
+            cells[index + 1] = 0L;
+        }
+        return new SlidingWindow(slot, cells, amount, count);
+    }
+
+    private long expiredAmount(long slot) {
+        long expired = 0L;
+        for (long s = newestSlot + 1; s <= slot; s++) {
+            expired += cells[index(s)];
+        }
+        return expired;
+    }
+
+    private long expiredCount(long slot) {
+        long expired = 0L;
+        for (long s = newestSlot + 1; s <= slot; s++) {
+            expired += cells[index(s) + 1];
+        }
+        return expired;
+    }
+
+    private int index(long slot) {
+        return 2 * (int) Math.floorMod(slot, (long) slots());
+    }
+
+    private int slots() {
+        return cells.length / 2;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.funds.service.limit;
+
+import com.example.funds.config.VelocityLimitProperties;
+import com.example.funds.jdbc.StreamingStatements;
+import com.example.funds.metrics.FundsOperation;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enforces velocity rules such as "at most 10,000 USD a day per wallet" or "at most 50 debits an
+ * hour per customer" without querying transaction history per request. Each rule keeps a
+ * {@link SlidingWindow} per wallet or customer id in a lock-free {@link WindowTable}; a spend is
+ * checked against and added to every applicable window before the operation runs, and given
+ * back if the operation then fails. The windows are rebuilt from recent transaction rows on
+ * startup, before the web server starts, so no request is checked against empty windows.
+ *
+ * <p>Windows are per instance, so with several instances each enforces its rules on the traffic
+ * it serves. Reversals and voids do not give velocity back: the spend was attempted.
+ */
+@Service
+public class VelocityLimiter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(VelocityLimiter.class);
+    // Ahead of the web server, which starts in one of the last lifecycle phases.
+    private static final int STARTUP_PHASE = 0;
+    private static final Reservation NONE = new Reservation(List.of(), 0L);
+    private static final List<FundsOperation> LIMITED =
+            List.of(FundsOperation.DEBIT, FundsOperation.TRANSFER, FundsOperation.AUTHORIZE);
+
+    private final List<Limit> limits;
+    private final boolean customerScoped;
+    private final Duration longestWindow;
+    private final WalletRepository walletRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final Cache<Long, Long> customerByWallet;
+    private volatile boolean running;
+
+    public VelocityLimiter(VelocityLimitProperties properties, WalletRepository walletRepository,
+                           JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.limits = new ArrayList<>();
+        Duration longest = Duration.ZERO;
+        for (VelocityLimitProperties.Rule rule : properties.getRules()) {
+            Limit limit = new Limit(rule, properties.getInitialCapacity(), meterRegistry);
+            limits.add(limit);
+            // Spends count for up to one slot past the window, so look back that far too.
+            Duration lookback = rule.getWindow().plusMillis(limit.slotMillis);
+            longest = lookback.compareTo(longest) > 0 ? lookback : longest;
+        }
+        this.customerScoped = limits.stream().anyMatch(limit -> limit.scope == VelocityLimitProperties.Scope.CUSTOMER);
+        this.longestWindow = longest;
+        this.walletRepository = walletRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.customerByWallet = Caffeine.newBuilder()
+                .maximumSize(properties.getCustomerCacheSize())
+                .expireAfterWrite(properties.getCustomerCacheTtl())
+                .build();
+    }
+
+    /**
+     * Counts a spend of {@code amount} from a wallet against every rule that applies to it, or
+     * throws if any rule would be exceeded, in which case nothing is counted. The caller releases
+     * the reservation if the spend does not go through.
+     */
+    public Reservation reserve(FundsOperation operation, Long walletId, String currencyCode, long amount) {
+        if (limits.isEmpty()) {
+            return NONE;
+        }
+        long now = System.currentTimeMillis();
+        Long customerId = null;
+        List<Reserved> reserved = new ArrayList<>(limits.size());
+        for (Limit limit : limits) {
+            if (limit.currencyCode != null && !limit.currencyCode.equals(currencyCode)) {
+                continue;
+            }
+            long key;
+            if (limit.scope == VelocityLimitProperties.Scope.CUSTOMER) {
+                if (customerId == null) {
+                    customerId = customerOf(walletId);
+                }
+                key = customerId;
+            } else {
+                key = walletId;
+            }
+            if (key <= 0) {
+                // No such wallet, which the operation itself reports.
+                continue;
+            }
+            long slot = now / limit.slotMillis;
+            if (limit.windows.update(key, window -> limit.admits(window, slot, amount)
+                    ? window.plus(slot, slot, amount, 1L) : null) == null) {
+                new Reservation(reserved, amount).release();
+                limit.rejected.get(operation).increment();
+                throw new IllegalStateException("Velocity limit exceeded");
+            }
+            reserved.add(new Reserved(limit, key, slot));
+        }
+        return reserved.isEmpty() ? NONE : new Reservation(reserved, amount);
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return STARTUP_PHASE;
+    }
+
+    /**
+     * Rebuilds every rule's windows from the debits and transfers of the longest window. A spend
+     * that commits while it runs may be counted twice until it leaves its windows, which errs
+     * towards refusing.
+     */
+    public void rebuild() {
+        if (limits.isEmpty()) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minus(longestWindow);
+        long now = System.currentTimeMillis();
+        String sql = "SELECT t.wallet_id, w.customer_id, w.currency_code, t.amount, t.created_at "
+                + "FROM transaction t JOIN wallet w ON w.id = t.wallet_id "
+                + "WHERE t.transaction_type IN ('DEBIT', 'TRANSFER') AND t.created_at >= ?";
+        long[] loaded = {0L};
+        jdbcTemplate.query(StreamingStatements.forwardOnly(sql, since), rs -> {
+            long walletId = rs.getLong("wallet_id");
+            long customerId = rs.getLong("customer_id");
+            String currencyCode = rs.getString("currency_code");
+            long amount = Money.of(rs.getBigDecimal("amount"));
+            long createdAt = rs.getObject("created_at", LocalDateTime.class)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (customerScoped) {
+                customerByWallet.put(walletId, customerId);
+            }
+            for (Limit limit : limits) {
+                long key = limit.scope == VelocityLimitProperties.Scope.CUSTOMER ? customerId : walletId;
+                if (key > 0 && (limit.currencyCode == null || limit.currencyCode.equals(currencyCode))) {
+                    long slot = createdAt / limit.slotMillis;
+                    limit.windows.update(key, window -> window.plus(slot, now / limit.slotMillis, amount, 1L));
+                }
+            }
+            loaded[0]++;
+        });
+        log.info("Rebuilt velocity limits from {} transactions since {}", loaded[0], since);
+    }
+
+    /**
+     * Drops the windows of ids that have not spent within their rule's window.
+     */
+    @Scheduled(fixedDelayString = "${funds.limits.compaction-interval:1m}")
+    public void compact() {
+        long now = System.currentTimeMillis();
+        for (Limit limit : limits) {
+            limit.windows.compact(now / limit.slotMillis);
+        }
+    }
+
+    private long customerOf(Long walletId) {
+        if (!customerScoped) {
+            return 0L;
+        }
+        Long customerId = customerByWallet.get(walletId, id ->
+                readOnly.execute(status -> walletRepository.findCustomerIdById(id).orElse(null)));
+        return customerId == null ? 0L : customerId;
+    }
+
+    /**
+     * A spend counted against the windows of one operation; {@link #release()} takes it back out.
+     */
+    public static final class Reservation {
+        private final List<Reserved> reserved;
+        private final long amount;
+
+        private Reservation(List<Reserved> reserved, long amount) {
+            this.reserved = reserved;
+            this.amount = amount;
+        }
+
+        public void release() {
+            long now = System.currentTimeMillis();
+            for (Reserved entry : reserved) {
+                Limit limit = entry.limit();
+                long current = now / limit.slotMillis;
+                limit.windows.update(entry.key(), window -> window.plus(entry.slot(), current, -amount, -1L));
+            }
+        }
+    }
+
+    private record Reserved(Limit limit, long key, long slot) {
+    }
+
+    private static final class Limit {
+        private final VelocityLimitProperties.Scope scope;
+        private final String currencyCode;
+        private final long maxAmount;
+        private final long maxCount;
+        private final long slotMillis;
+        private final WindowTable windows;
+        private final Map<FundsOperation, Counter> rejected = new EnumMap<>(FundsOperation.class);
+
+        private Limit(VelocityLimitProperties.Rule rule, int initialCapacity, MeterRegistry meterRegistry) {
+            if (rule.getName() == null || rule.getWindow() == null || rule.getSlots() < 1) {
+                throw new IllegalArgumentException("Velocity limit rules need a name, a window and at least one slot");
+            }
+            if (rule.getMaxAmount() == null && rule.getMaxCount() == null) {
+                throw new IllegalArgumentException("Velocity limit " + rule.getName() + " sets neither max-amount nor max-count");
+            }
+            if (rule.getMaxAmount() != null && rule.getCurrencyCode() == null) {
+                throw new IllegalArgumentException("Velocity limit " + rule.getName() + " sets max-amount without a currency-code");
+            }
+            this.scope = rule.getScope();
+            this.currencyCode = rule.getCurrencyCode();
+            this.maxAmount = rule.getMaxAmount() == null ? -1L : Money.of(rule.getMaxAmount(), currencyCode);
+            this.maxCount = rule.getMaxCount() == null ? -1L : rule.getMaxCount();
+            this.slotMillis = Math.max(rule.getWindow().toMillis() / rule.getSlots(), 1L);
+            // One cell more than the window's slots, so a spend counts for at least the whole window.
+            this.windows = new WindowTable(rule.getSlots() + 1, initialCapacity);
+            for (FundsOperation operation : LIMITED) {
+                rejected.put(operation, Counter.builder("funds.limits.rejected")
+                        .description("Operations refused because they would exceed a velocity limit")
+                        .tag("rule", rule.getName())
+                        .tag("operation", operation.tag())
+                        .register(meterRegistry));
+            }
+        }
+
+        private boolean admits(SlidingWindow window, long slot, long amount) {
+            return (maxCount < 0 || window.totalCount(slot) < maxCount)
+                    && (maxAmount < 0 || window.totalAmount(slot) + amount <= maxAmount);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.funds.service.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * A lock-free open-addressing map from a positive id to its {@link SlidingWindow}. Keys live in
+ * an {@link AtomicLongArray} and are claimed with a compare-and-set; windows are replaced whole
+ * with a compare-and-set on the slot they sit in, so updates to one key never block another.
+ *
+ * <p>The table grows, and drops windows that have gone idle, by migrating into a new segment.
+ * The migrating thread freezes each window of the old segment, copies it and marks its slot as
+ * moved; a writer that meets a moved slot follows the segment's forward pointer and retries
+ * there. A writer waits only while the one window it needs is being copied, or, when the segment
+ * it needs a free slot in is full, for the migration that grows it.
+ */
+final class WindowTable {
+    // Ids are positive, so zero marks an empty slot; a moved empty slot can no longer be claimed.
+    private static final long EMPTY = 0L;
+    private static final long MOVED_KEY = -1L;
+    private static final SlidingWindow FROZEN = SlidingWindow.empty(1);
+    private static final SlidingWindow MOVED = SlidingWindow.empty(1);
+
+    private final int slots;
+    private final int minCapacity;
+    private final ReentrantLock migrationLock = new ReentrantLock();
+    private volatile Segment current;
+
+    WindowTable(int slots, int initialCapacity) {
+        this.slots = slots;
+        this.minCapacity = capacityFor(initialCapacity);
+        this.current = new Segment(minCapacity);
+    }
+
+    /**
+     * The window of {@code key}, empty if it has none.
+     */
+    SlidingWindow get(long key) {
+        Segment segment = current;
+        while (true) {
+            int mask = segment.keys.length() - 1;
+            for (int i = index(key, mask), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long stored = segment.keys.get(i);
+                if (stored == EMPTY) {
+                    return SlidingWindow.empty(slots);
+                }
+                if (stored == MOVED_KEY) {
+                    break;
+                }
+                if (stored == key) {
+                    SlidingWindow window = settled(segment, i);
+                    if (window != MOVED) {
+                        return window == null ? SlidingWindow.empty(slots) : window;
+                    }
+                    break;
+                }
+            }
+            Segment next = segment.next;
+            if (next == null) {
+                return SlidingWindow.empty(slots);
+            }
+            segment = next;
+        }
+    }
+
+    /**
+     * Atomically replaces the window of {@code key} with {@code update} applied to it. The update
+     * may run more than once under contention and must not have side effects; if it returns null
+     * the window is left as it was. Returns the window installed, or null.
+     */
+    SlidingWindow update(long key, UnaryOperator<SlidingWindow> update) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Velocity limit keys must be positive");
+        }
+        return update(current, key, update);
+    }
+
+    private SlidingWindow update(Segment segment, long key, UnaryOperator<SlidingWindow> update) {
+        retry:
+        while (true) {
+            int mask = segment.keys.length() - 1;
+            int i = index(key, mask);
+            for (int probes = 0; probes <= mask; ) {
+                long stored = segment.keys.get(i);
+                if (stored == EMPTY) {
+                    if (segment.claimed.get() >= segment.threshold) {
+                        break;
+                    }
+                    if (!segment.keys.compareAndSet(i, EMPTY, key)) {
+                        continue;
+                    }
+                    segment.claimed.incrementAndGet();
+                    stored = key;
+                }
+                if (stored == MOVED_KEY) {
+                    segment = segment.next;
+                    continue retry;
+                }
+                if (stored == key) {
+                    while (true) {
+                        SlidingWindow window = settled(segment, i);
+                        if (window == MOVED) {
+                            segment = segment.next;
+                            continue retry;
+                        }
+                        SlidingWindow updated = update.apply(window == null ? SlidingWindow.empty(slots) : window);
+                        if (updated == null || segment.windows.compareAndSet(i, window, updated)) {
+                            return updated;
+                        }
+                    }
+                }
+                i = (i + 1) & mask;
+                probes++;
+            }
+            grow(segment);
+            segment = segment.next;
+        }
+    }
+
+    /**
+     * Migrates into a fresh segment sized for the windows that are still live at {@code slot},
+     * dropping idle ones. Called periodically so ids that stopped spending do not pile up.
+     */
+    void compact(long slot) {
+        migrationLock.lock();
+        try {
+            Segment segment = tail(current);
+            int live = 0;
+            for (int i = 0; i < segment.windows.length(); i++) {
+                SlidingWindow window = segment.windows.get(i);
+                if (window != null && window != MOVED && !window.isIdle(slot)) {
+                    live++;
+                }
+            }
+            migrate(segment, capacityFor(Math.max(minCapacity, live * 2)), slot);
+        } finally {
+            migrationLock.unlock();
+        }
+    }
+
+    /**
+     * Number of ids with a window, idle or not.
+     */
+    int size() {
+        return tail(current).claimed.get();
+    }
+
+    private void grow(Segment segment) {
+        migrationLock.lock();
+        try {
+            if (segment.next == null) {
+                migrate(segment, segment.keys.length() * 2, Long.MIN_VALUE);
+            }
+        } finally {
+            migrationLock.unlock();
+        }
+    }
+
+    /**
+     * Copies every window of {@code segment} into a new segment of {@code capacity} slots and
+     * makes the newest segment current. With {@code idleSlot} set, windows idle at that slot are
+     * not copied. Must hold the migration lock.
+     */
+    private void migrate(Segment segment, int capacity, long idleSlot) {
+        Segment target = new Segment(capacity);
+        // Published before the first slot is marked, so whoever meets a mark can follow it.
+        segment.next = target;
+        for (int i = 0; i < segment.keys.length(); i++) {
+            long key = segment.keys.get(i);
+            while (key == EMPTY && !segment.keys.compareAndSet(i, EMPTY, MOVED_KEY)) {
+                key = segment.keys.get(i);
+            }
+            if (key == EMPTY) {
+                continue;
+            }
+            SlidingWindow window = segment.windows.get(i);
+            while (!segment.windows.compareAndSet(i, window, FROZEN)) {
+                window = segment.windows.get(i);
+            }
+            if (window != null && (idleSlot == Long.MIN_VALUE || !window.isIdle(idleSlot))) {
+                // A key is only ever claimed once along its probe sequence, so no writer can have
+                // started a window for it in the target: they all wait on the frozen slot.
+                SlidingWindow copied = window;
+                update(target, key, existing -> copied);
+            }
+            segment.windows.set(i, MOVED);
+        }
+        // A target that fills up while it is being copied into is migrated from inside the copy.
+        // Only the outermost migration may publish: a writer starting at the newest segment while
+        // an older one is still being copied would miss that segment's windows and start afresh.
+        if (migrationLock.getHoldCount() == 1) {
+            current = tail(target);
+        }
+    }
+
+    /**
+     * The window in slot {@code i}, waiting out a migration that is copying it.
+     */
+    private static SlidingWindow settled(Segment segment, int i) {
+        SlidingWindow window = segment.windows.get(i);
+        while (window == FROZEN) {
+            Thread.onSpinWait();
+            window = segment.windows.get(i);
+        }
+        return window;
+    }
+
+    private static Segment tail(Segment segment) {
+        while (segment.next != null) {
+            segment = segment.next;
+        }
+        return segment;
+    }
+
+    private static int capacityFor(int entries) {
+        return Integer.highestOneBit(Math.max(entries, 16) - 1) << 1;
+    }
+
+    private static int index(long key, int mask) {
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (key ^ (key >>> 33)) & mask;
+    }
+
+    private static final class Segment {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<SlidingWindow> windows;
+        private final AtomicInteger claimed = new AtomicInteger();
+        // Keep probe sequences short: grow at three quarters full.
+        private final int threshold;
+        private volatile Segment next;
+
+        private Segment(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.windows = new AtomicReferenceArray<>(capacity);
+            this.threshold = capacity - capacity / 4;
+        }
+    }
+}
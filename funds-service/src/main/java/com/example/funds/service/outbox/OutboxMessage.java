@@ -0,0 +1,31 @@
+package com.example.funds.service.outbox;
+
+import com.example.funds.model.OutboxEvent;
+import com.example.funds.model.TransactionType;
+import com.example.funds.money.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What a sink receives for one completed transaction. {@code eventId} is unique per event and is
+ * the key consumers deduplicate redeliveries by. It is drawn from a pooled sequence before commit,
+ * so it says nothing about the order events committed or are delivered in.
+ */
+public record OutboxMessage(
+        long eventId,
+        UUID referenceId,
+        UUID originalReferenceId,
+        TransactionType type,
+        long walletId,
+        Long counterpartyWalletId,
+        BigDecimal amount,
+        LocalDateTime createdAt) {
+
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getReferenceId(), event.getOriginalReferenceId(),
+                event.getEventType(), event.getWalletId(), event.getCounterpartyWalletId(), Money.toDecimal(event.getAmount()),
+                event.getCreatedAt());
+    }
+}
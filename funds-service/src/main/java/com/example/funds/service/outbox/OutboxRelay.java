@@ -0,0 +1,138 @@
+package com.example.funds.service.outbox;
+
+import com.example.funds.config.OutboxProperties;
+import com.example.funds.model.OutboxEvent;
+import com.example.funds.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox into the {@link OutboxSink}. Each batch is claimed with SKIP LOCKED, published,
+ * and deleted in one transaction, so several instances can relay side by side on disjoint batches
+ * and a failed publish or commit leaves the batch to be delivered again.
+ *
+ * <p>Metrics: {@code funds.outbox.published} (throughput), {@code funds.outbox.lag} (commit to
+ * publish, per event), {@code funds.outbox.oldest.age} (age of the oldest event still waiting,
+ * which keeps growing if relaying stalls), {@code funds.outbox.backlog} (estimated undelivered
+ * events) and {@code funds.outbox.publish.failures}.
+ */
+@Component
+@ConditionalOnProperty(name = "funds.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEvents;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+    private final Timer batchTimer;
+    private volatile LocalDateTime oldestPending;
+    private volatile long backlog;
+
+    public OutboxRelay(OutboxEventRepository outboxEvents, OutboxSink sink, PlatformTransactionManager transactionManager,
+                       OutboxProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getBatchSize() < 1) {
+            throw new IllegalArgumentException("Outbox batch size must be positive");
+        }
+        this.outboxEvents = outboxEvents;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.getBatchSize();
+        this.published = Counter.builder("funds.outbox.published")
+                .description("Outbox events published to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("funds.outbox.publish.failures")
+                .description("Outbox batches that failed to publish or commit")
+                .register(meterRegistry);
+        this.lag = Timer.builder("funds.outbox.lag")
+                .description("Time from an outbox event's commit to its publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("funds.outbox.relay.batch")
+                .description("Claim, publish and delete of one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("funds.outbox.oldest.age", this, OutboxRelay::oldestPendingSeconds)
+                .description("Age in seconds of the oldest outbox event waiting to be published")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("funds.outbox.backlog", this, relay -> relay.backlog)
+                .description("Estimated number of outbox events waiting to be published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${funds.outbox.poll-interval:200ms}")
+    public void poll() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("Outbox relay failed; the batch will be retried", ex);
+        }
+    }
+
+    /**
+     * Relays batches until the outbox is empty; returns the number of events published.
+     */
+    public int drain() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = batchTimer.record(this::relayBatch);
+            total += relayed;
+        } while (relayed == batchSize);
+        // The last claim came back short, so nothing older is still waiting.
+        oldestPending = null;
+        backlog = outboxEvents.estimateBacklog();
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxEvents.claim(Limit.of(batchSize));
+            if (claimed.isEmpty()) {
+                return claimed;
+            }
+            oldestPending = claimed.get(0).getCreatedAt();
+            try {
+                sink.publish(claimed.stream().map(OutboxMessage::from).toList());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            outboxEvents.deleteAllByIdInBatch(claimed.stream().map(OutboxEvent::getId).toList());
+            return claimed;
+        });
+        if (events.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        published.increment(events.size());
+        return events.size();
+    }
+
+    private double oldestPendingSeconds() {
+        LocalDateTime oldest = oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
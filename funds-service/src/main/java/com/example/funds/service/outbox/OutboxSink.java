@@ -0,0 +1,17 @@
+package com.example.funds.service.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events. Delivery is at least once: a batch whose claim fails to
+ * commit after {@link #publish} returned is published again, so consumers must deduplicate by
+ * {@link OutboxMessage#eventId()}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch in order; returns only once the batch is durable at the destination.
+     */
+    void publish(List<OutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,54 @@
+package com.example.funds.service.outbox;
+
+import com.example.funds.model.OutboxEvent;
+import com.example.funds.model.Transaction;
+import com.example.funds.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adds outbox rows for completed transactions. Must be called inside the transaction that saves
+ * them, so an event exists exactly when its transaction committed.
+ */
+@Component
+public class OutboxWriter {
+    private final OutboxEventRepository outboxEvents;
+
+    public OutboxWriter(OutboxEventRepository outboxEvents) {
+        this.outboxEvents = outboxEvents;
+    }
+
+    public Transaction append(Transaction transaction) {
+        return append(transaction, null);
+    }
+
+    /**
+     * As {@link #append(Transaction)} for a reversal, recording the reference it reverses.
+     */
+    public Transaction append(Transaction transaction, UUID originalReferenceId) {
+        outboxEvents.save(toEvent(transaction, originalReferenceId));
+        return transaction;
+    }
+
+    public void appendAll(List<Transaction> transactions) {
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            events.add(toEvent(transaction, null));
+        }
+        outboxEvents.saveAll(events);
+    }
+
+    private static OutboxEvent toEvent(Transaction transaction, UUID originalReferenceId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setReferenceId(transaction.getReferenceId());
+        event.setOriginalReferenceId(originalReferenceId);
+        event.setEventType(transaction.getTransactionType());
+        event.setWalletId(transaction.getWallet().getId());
+        event.setCounterpartyWalletId(transaction.getCounterpartyWalletId());
+        event.setAmount(transaction.getAmount());
+        return event;
+    }
+}
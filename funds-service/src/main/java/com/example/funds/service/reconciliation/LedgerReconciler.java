@@ -0,0 +1,333 @@
+package com.example.funds.service.reconciliation;
+
+import com.example.funds.config.ReconciliationProperties;
+import com.example.funds.jdbc.ReadWriteRoutingDataSource;
+import com.example.funds.jdbc.StreamingStatements;
+import com.example.funds.money.Money;
+import com.example.funds.service.archive.TransactionArchive;
+import com.example.funds.service.journal.JournalService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Checks that every wallet's ledger balance equals the net of its transactions: completed credits
+ * and incoming transfers less completed debits and outgoing transfers, plus the net recorded for
+ * partitions that have been archived. REVERSED rows and their REVERSE rows cancel out and are both
+ * skipped; PENDING debits never left the ledger and must instead add up to the held balance.
+ * Balances set directly through the wallet API are not backed by transactions and show up as
+ * mismatches.
+ *
+ * <p>The wallet id range is split in half recursively on a fork-join pool until a chunk holds at
+ * most {@code chunk-size} ids. Each chunk is folded into two primitive arrays inside one
+ * repeatable-read, read-only transaction, so the wallet rows and transaction rows it compares come
+ * from the same snapshot; rows stream through forward-only cursors and memory stays bounded by the
+ * chunk size, the pool's parallelism and the number of mismatches reported. Row reads are paced
+ * across all workers, and read-only transactions go to the replica when one is configured.
+ */
+@Service
+public class LedgerReconciler {
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciler.class);
+    private static final int THROTTLE_BATCH = 1000;
+
+    private static final String OWN_SQL = "SELECT wallet_id, transaction_type, status, amount FROM transaction "
+            + "WHERE wallet_id BETWEEN ? AND ? AND status IN ('COMPLETED', 'PENDING') AND transaction_type <> 'REVERSE'";
+    private static final String INCOMING_SQL = "SELECT counterparty_wallet_id, amount FROM transaction "
+            + "WHERE counterparty_wallet_id BETWEEN ? AND ? AND transaction_type = 'TRANSFER' AND status = 'COMPLETED'";
+    private static final String ARCHIVED_SQL = "SELECT b.wallet_id, SUM(b.net_amount) FROM transaction_archive_balance b "
+            + "JOIN transaction_archive a ON a.id = b.archive_id "
+            + "WHERE b.wallet_id BETWEEN ? AND ? AND a.completed_at IS NOT NULL AND a.range_end <= ? GROUP BY b.wallet_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshot;
+    private final ReconciliationProperties properties;
+    private final TransactionArchive archive;
+    private final String walletSql;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastMismatchCount = new AtomicLong();
+    private final Timer duration;
+    private volatile ReconciliationReport latest;
+
+    public LedgerReconciler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ReconciliationProperties properties, ObjectProvider<TransactionArchive> archive,
+                            ObjectProvider<JournalService> journal, MeterRegistry meterRegistry) {
+        if (properties.getChunkSize() < 1 || properties.getParallelism() < 1) {
+            throw new IllegalArgumentException("Reconciliation chunk-size and parallelism must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.properties = properties;
+        this.archive = archive.getIfAvailable();
+        this.walletSql = "SELECT w.id, w.currency_code, w.held_balance, w.balance + w.held_balance + CASE WHEN w.balance_slots > 0 THEN "
+                + "(SELECT COALESCE(SUM(s.balance), 0) FROM wallet_balance_slot s WHERE s.wallet_id = w.id) ELSE 0 END"
+                + (journal.getIfAvailable() != null ? " + " + JournalService.balanceSql("w.id") : "")
+                + " AS ledger_balance FROM wallet w WHERE w.id BETWEEN ? AND ? ORDER BY w.id";
+        this.duration = Timer.builder("funds.reconciliation.duration")
+                .description("Time taken by ledger reconciliation runs")
+                .register(meterRegistry);
+        Gauge.builder("funds.reconciliation.mismatches", lastMismatchCount, AtomicLong::get)
+                .description("Wallets whose balance disagreed with their transactions in the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${funds.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!start()) {
+            log.info("Skipping scheduled reconciliation; a run is already in progress");
+        }
+    }
+
+    /**
+     * Starts a run in the background unless one is already in progress; returns whether it did.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().name("ledger-reconciliation").daemon().start(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException ex) {
+                log.error("Ledger reconciliation failed", ex);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Runs a reconciliation on the calling thread and returns its report.
+     */
+    public ReconciliationReport run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reconciliation already running");
+        }
+        try {
+            return reconcile();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * The report of the last completed run, or null if none has completed since startup.
+     */
+    public ReconciliationReport latest() {
+        return latest;
+    }
+
+    private ReconciliationReport reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        long[] range = onSource(() -> jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM wallet",
+                rs -> rs.next() && rs.getObject(1) != null ? new long[]{rs.getLong(1), rs.getLong(2)} : null));
+        Chunk result = new Chunk(properties.getMaxReportedMismatches());
+        if (range != null) {
+            Run run = new Run(archive == null ? null : archive.horizon(), new RowThrottle(properties.getMaxRowsPerSecond()));
+            ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+            try {
+                result = pool.invoke(new ChunkTask(run, range[0], range[1]));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        ReconciliationReport report = new ReconciliationReport(startedAt, LocalDateTime.now(), result.wallets,
+                result.transactions, result.mismatchCount, List.copyOf(result.mismatches));
+        duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        lastMismatchCount.set(report.mismatchCount());
+        latest = report;
+        if (report.mismatchCount() > 0) {
+            log.warn("Ledger reconciliation found {} mismatched wallets out of {} ({} transactions)",
+                    report.mismatchCount(), report.wallets(), report.transactions());
+        } else {
+            log.info("Ledger reconciliation matched {} wallets ({} transactions)", report.wallets(), report.transactions());
+        }
+        return report;
+    }
+
+    /**
+     * Folds one chunk of wallet ids inside a single snapshot.
+     */
+    private Chunk fold(Run run, long first, long last) {
+        return onSource(() -> snapshot.execute(status -> {
+            Fold fold = new Fold(run.throttle(), first, (int) (last - first + 1));
+            query(OWN_SQL, rs -> {
+                fold.transactions++;
+                int index = fold.row(rs.getLong(1));
+                long amount = Money.of(rs.getBigDecimal(4));
+                if ("PENDING".equals(rs.getString(3))) {
+                    if ("DEBIT".equals(rs.getString(2))) {
+                        fold.expectedHeld[index] = Money.add(fold.expectedHeld[index], amount);
+                    }
+                } else {
+                    fold.add(index, "CREDIT".equals(rs.getString(2)) ? amount : -amount);
+                }
+            }, first, last);
+            query(INCOMING_SQL, rs -> fold.add(fold.row(rs.getLong(1)), Money.of(rs.getBigDecimal(2))), first, last);
+            if (run.horizon() != null) {
+                query(ARCHIVED_SQL, rs -> fold.add(fold.row(rs.getLong(1)), Money.of(rs.getBigDecimal(2))),
+                        first, last, run.horizon());
+            }
+
+            Chunk chunk = new Chunk(properties.getMaxReportedMismatches());
+            chunk.transactions = fold.transactions;
+            query(walletSql, rs -> {
+                long walletId = rs.getLong(1);
+                int index = fold.row(walletId);
+                long held = Money.of(rs.getBigDecimal(3));
+                long ledger = Money.of(rs.getBigDecimal(4));
+                chunk.wallets++;
+                if (ledger != fold.expected[index] || held != fold.expectedHeld[index]) {
+                    chunk.mismatch(new ReconciliationReport.Mismatch(walletId, rs.getString(2),
+                            Money.toDecimal(ledger), Money.toDecimal(fold.expected[index]),
+                            Money.toDecimal(held), Money.toDecimal(fold.expectedHeld[index])));
+                }
+            }, first, last);
+            return chunk;
+        }));
+    }
+
+    private void query(String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(StreamingStatements.forwardOnly(sql, args), handler);
+    }
+
+    /**
+     * Runs {@code work} against the replica or, when the job is told not to use it, the primary.
+     */
+    private <T> T onSource(Supplier<T> work) {
+        if (properties.isUseReplica()) {
+            return work.get();
+        }
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            return work.get();
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
+
+    /**
+     * What every chunk of one run shares: the archive horizon it was started with and the pacing.
+     */
+    private record Run(LocalDateTime horizon, RowThrottle throttle) {
+    }
+
+    private final class ChunkTask extends RecursiveTask<Chunk> {
+        private final Run run;
+        private final long first;
+        private final long last;
+
+        private ChunkTask(Run run, long first, long last) {
+            this.run = run;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected Chunk compute() {
+            if (last - first < properties.getChunkSize()) {
+                return fold(run, first, last);
+            }
+            long middle = first + (last - first) / 2;
+            ChunkTask lower = new ChunkTask(run, first, middle);
+            lower.fork();
+            Chunk upper = new ChunkTask(run, middle + 1, last).compute();
+            return lower.join().merge(upper);
+        }
+    }
+
+    /**
+     * Expected ledger and held balances of one chunk, indexed by wallet id less the chunk's first id.
+     */
+    private static final class Fold {
+        private final RowThrottle throttle;
+        private final long first;
+        private final long[] expected;
+        private final long[] expectedHeld;
+        private long rows;
+        private long transactions;
+
+        private Fold(RowThrottle throttle, long first, int size) {
+            this.throttle = throttle;
+            this.first = first;
+            this.expected = new long[size];
+            this.expectedHeld = new long[size];
+        }
+
+        /**
+         * Paces one row read and returns the array index of its wallet.
+         */
+        private int row(long walletId) {
+            if (++rows % THROTTLE_BATCH == 0) {
+                throttle.acquire(THROTTLE_BATCH);
+            }
+            return (int) (walletId - first);
+        }
+
+        private void add(int index, long amount) {
+            expected[index] = Money.add(expected[index], amount);
+        }
+    }
+
+    /**
+     * Totals of a range of chunks, merged in id order as the fork-join tree unwinds.
+     */
+    private static final class Chunk {
+        private final int maxReported;
+        private final List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>();
+        private long wallets;
+        private long transactions;
+        private long mismatchCount;
+
+        private Chunk(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        private void mismatch(ReconciliationReport.Mismatch mismatch) {
+            mismatchCount++;
+            if (mismatches.size() < maxReported) {
+                mismatches.add(mismatch);
+            }
+        }
+
+        private Chunk merge(Chunk upper) {
+            wallets += upper.wallets;
+            transactions += upper.transactions;
+            mismatchCount += upper.mismatchCount;
+            for (ReconciliationReport.Mismatch mismatch : upper.mismatches) {
+                if (mismatches.size() == maxReported) {
+                    break;
+                }
+                mismatches.add(mismatch);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.funds.service.reconciliation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes ledger reconciliation at {@code /actuator/reconciliation}: GET returns the last report,
+ * POST starts a run in the background.
+ */
+@Component
+@Endpoint(id = "reconciliation")
+public class ReconciliationEndpoint {
+    private final LedgerReconciler reconciler;
+
+    public ReconciliationEndpoint(LedgerReconciler reconciler) {
+        this.reconciler = reconciler;
+    }
+
+    @ReadOperation
+    public ReconciliationReport latest() {
+        return reconciler.latest();
+    }
+
+    @WriteOperation
+    public Map<String, Boolean> start() {
+        boolean started = reconciler.start();
+        return Map.of("started", started, "running", started || reconciler.isRunning());
+    }
+}
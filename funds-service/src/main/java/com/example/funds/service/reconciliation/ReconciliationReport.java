@@ -0,0 +1,31 @@
+package com.example.funds.service.reconciliation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of one reconciliation run. {@code mismatches} lists at most the configured number of
+ * wallets, lowest ids first; {@code mismatchCount} counts all of them.
+ */
+public record ReconciliationReport(
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long wallets,
+        long transactions,
+        long mismatchCount,
+        List<Mismatch> mismatches) {
+
+    /**
+     * A wallet whose ledger balance (balance plus held balance, sub-balances and journal) or held
+     * balance differs from what its transactions add up to.
+     */
+    public record Mismatch(
+            long walletId,
+            String currencyCode,
+            BigDecimal ledgerBalance,
+            BigDecimal expectedLedgerBalance,
+            BigDecimal heldBalance,
+            BigDecimal expectedHeldBalance) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.funds.service.reconciliation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces row reads shared by several threads to a rate. Each acquisition reserves the next free
+ * stretch of time with a compare-and-set and sleeps until it starts, so bursts are smoothed
+ * across threads without a lock.
+ */
+final class RowThrottle {
+    private final long nanosPerRow;
+    private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+
+    RowThrottle(long rowsPerSecond) {
+        this.nanosPerRow = rowsPerSecond <= 0 ? 0L : Math.max(TimeUnit.SECONDS.toNanos(1) / rowsPerSecond, 1L);
+    }
+
+    void acquire(int rows) {
+        if (nanosPerRow == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long free;
+        long start;
+        do {
+            free = nextFree.get();
+            // Idle time is not banked beyond one second's worth, or a pause would allow a burst.
+            start = Math.max(free, now - TimeUnit.SECONDS.toNanos(1));
+        } while (!nextFree.compareAndSet(free, start + rows * nanosPerRow));
+        long wait = start - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
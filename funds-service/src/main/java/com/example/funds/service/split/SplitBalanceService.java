@@ -0,0 +1,303 @@
+package com.example.funds.service.split;
+
+import com.example.funds.config.SplitProperties;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Wallet;
+import com.example.funds.model.WalletBalanceSlot;
+import com.example.funds.money.Money;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletBalanceSlotRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.LockRetryTemplate;
+import com.example.funds.service.TransactionFactory;
+import com.example.funds.service.WalletsChangedEvent;
+import com.example.funds.service.journal.JournalService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads credits to high fan-in wallets over K sub-balance slots so they do not queue on the
+ * wallet row. The wallet's own balance column acts as the main slot: debits draw from it and
+ * sweep the sub-balances into it when it runs short, and a background job sweeps periodically.
+ *
+ * <p>Locks are always taken wallet row first, then slot rows, and wallet rows in ascending id
+ * order. Credits share-lock the wallet before touching a slot, so they still run side by side but
+ * cannot interleave with a sweep.
+ */
+@Service
+public class SplitBalanceService {
+    private final WalletRepository walletRepository;
+    private final WalletBalanceSlotRepository slotRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionFactory transactionFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetryTemplate lockRetryTemplate;
+    private final SplitProperties properties;
+    private final ApplicationEventPublisher events;
+    private final JournalService journal;
+    private final Map<Long, SplitWallet> splitWallets = new ConcurrentHashMap<>();
+
+    public SplitBalanceService(WalletRepository walletRepository, WalletBalanceSlotRepository slotRepository,
+                               TransactionRepository transactionRepository, TransactionFactory transactionFactory,
+                               EntityManager entityManager, PlatformTransactionManager transactionManager,
+                               LockRetryTemplate lockRetryTemplate, SplitProperties properties,
+                               ApplicationEventPublisher events, ObjectProvider<JournalService> journal) {
+        this.walletRepository = walletRepository;
+        this.slotRepository = slotRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionFactory = transactionFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockRetryTemplate = lockRetryTemplate;
+        this.properties = properties;
+        this.events = events;
+        this.journal = journal.getIfAvailable();
+    }
+
+    public boolean isSplit(Long walletId) {
+        return splitWallets.containsKey(walletId);
+    }
+
+    public Transaction credit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet;
+        if (splitWallets.containsKey(walletId)) {
+            wallet = walletRepository.findSharedByIdAndCurrencyCode(walletId, currencyCode)
+                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+            creditSlot(wallet, amount);
+        } else {
+            // Unsplit since the caller routed here; the main balance takes the credit.
+            wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
+                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+            wallet.setBalance(Money.add(wallet.getBalance(), amount));
+        }
+        return transactionRepository.save(transactionFactory.completed(wallet, amount, TransactionType.CREDIT));
+    }
+
+    public Transaction debit(Long walletId, String currencyCode, long amount) {
+        Wallet wallet = walletRepository.findByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        withdraw(wallet, amount);
+        return transactionRepository.save(transactionFactory.completed(wallet, amount, TransactionType.DEBIT));
+    }
+
+    public Transaction transfer(Long sourceWalletId, Long targetWalletId, String currencyCode, long amount) {
+        boolean splitTarget = !sourceWalletId.equals(targetWalletId) && splitWallets.containsKey(targetWalletId);
+        Wallet source;
+        Wallet target;
+        if (splitTarget) {
+            // A split target is only share-locked, like a split credit; the two locks still go in id order.
+            Wallet sharedTarget = null;
+            if (targetWalletId < sourceWalletId) {
+                sharedTarget = lockSplitTarget(targetWalletId, currencyCode);
+            }
+            source = walletRepository.findByIdAndCurrencyCode(sourceWalletId, currencyCode)
+                    .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
+            target = sharedTarget != null ? sharedTarget : lockSplitTarget(targetWalletId, currencyCode);
+        } else {
+            List<Wallet> wallets = walletRepository.findAllByIdInAndCurrencyCodeOrderByIdAsc(
+                    List.of(sourceWalletId, targetWalletId), currencyCode);
+            source = wallets.stream()
+                    .filter(wallet -> wallet.getId().equals(sourceWalletId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Source wallet not found"));
+            target = wallets.stream()
+                    .filter(wallet -> wallet.getId().equals(targetWalletId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Target wallet not found"));
+        }
+
+        withdraw(source, amount);
+        if (splitTarget) {
+            creditSlot(target, amount);
+        } else {
+            target.setBalance(Money.add(target.getBalance(), amount));
+        }
+        return transactionRepository.save(transactionFactory.completedTransfer(source, targetWalletId, amount));
+    }
+
+    private Wallet lockSplitTarget(Long walletId, String currencyCode) {
+        return walletRepository.findSharedByIdAndCurrencyCode(walletId, currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Target wallet not found"));
+    }
+
+    /**
+     * Changes the number of sub-balance slots of a wallet; zero turns splitting off. Existing
+     * sub-balances are swept into the main balance first, so the total never changes.
+     */
+    public Wallet split(Long walletId, int slots) {
+        if (slots < 0 || slots > properties.getMaxSlots()) {
+            throw new IllegalArgumentException("Slot count must be between 0 and " + properties.getMaxSlots());
+        }
+        if (slots > 0 && journal != null) {
+            // Journal postings never touch the wallet row, so there is no hot row left to split.
+            throw new IllegalStateException("Balance splitting is not available in journal mode");
+        }
+        Wallet wallet = lockRetryTemplate.execute("split", () -> transactionTemplate.execute(status -> {
+            Wallet locked = entityManager.find(Wallet.class, walletId, LockModeType.PESSIMISTIC_WRITE);
+            if (locked == null) {
+                throw new IllegalArgumentException("Wallet not found");
+            }
+            List<WalletBalanceSlot> existing = sweep(locked);
+            slotRepository.deleteAll(existing.stream().filter(slot -> slot.getSlot() >= slots).toList());
+            for (int i = existing.size(); i < slots; i++) {
+                WalletBalanceSlot slot = new WalletBalanceSlot();
+                slot.setWalletId(walletId);
+                slot.setSlot(i);
+                slot.setBalance(0L);
+                slotRepository.save(slot);
+            }
+            locked.setBalanceSlots(slots);
+            events.publishEvent(new WalletsChangedEvent(List.of(walletId)));
+            return locked;
+        }));
+        register(wallet);
+        return wallet;
+    }
+
+    /**
+     * The balance a wallet reports: its main balance plus its sub-balances, plus its journal
+     * balance when the journal strategy is active.
+     */
+    public long totalBalance(Wallet wallet) {
+        long total = journal == null ? wallet.getBalance() : Money.add(wallet.getBalance(), journal.balance(wallet.getId()));
+        if (wallet.getBalanceSlots() == 0) {
+            return total;
+        }
+        return Money.add(total, Money.of(slotRepository.sumBalance(wallet.getId())));
+    }
+
+    public Map<Long, Long> totalBalances(Collection<Wallet> wallets) {
+        Set<Long> splitIds = wallets.stream()
+                .filter(wallet -> wallet.getBalanceSlots() > 0)
+                .map(Wallet::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Long> slotTotals = splitIds.isEmpty() ? Map.of() : slotRepository.sumBalances(splitIds)
+                .stream()
+                .collect(Collectors.toMap(WalletBalanceSlotRepository.SlotTotal::getWalletId,
+                        slotTotal -> Money.of(slotTotal.getTotal())));
+        Map<Long, Long> journalTotals = journal == null ? Map.of()
+                : journal.balances(wallets.stream().map(Wallet::getId).toList());
+        Map<Long, Long> totals = new HashMap<>();
+        for (Wallet wallet : wallets) {
+            totals.put(wallet.getId(), Money.add(Money.add(wallet.getBalance(),
+                    slotTotals.getOrDefault(wallet.getId(), 0L)), journalTotals.getOrDefault(wallet.getId(), 0L)));
+        }
+        return totals;
+    }
+
+    @Scheduled(fixedDelayString = "${funds.split.rebalance-interval:5s}")
+    public void rebalance() {
+        refresh();
+        for (Long walletId : splitWallets.keySet()) {
+            lockRetryTemplate.execute("rebalance", () -> transactionTemplate.execute(status -> {
+                Wallet wallet = entityManager.find(Wallet.class, walletId, LockModeType.PESSIMISTIC_WRITE);
+                if (wallet != null && wallet.getBalanceSlots() > 0) {
+                    sweep(wallet);
+                }
+                return wallet;
+            }));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        List<Wallet> wallets = walletRepository.findAllByBalanceSlotsGreaterThan(0);
+        Set<Long> current = wallets.stream().map(Wallet::getId).collect(Collectors.toSet());
+        splitWallets.keySet().retainAll(current);
+        wallets.forEach(this::register);
+    }
+
+    private void register(Wallet wallet) {
+        if (wallet.getBalanceSlots() > 0) {
+            splitWallets.put(wallet.getId(), new SplitWallet(wallet.getCurrencyCode(), wallet.getBalanceSlots()));
+        } else {
+            splitWallets.remove(wallet.getId());
+        }
+    }
+
+    /**
+     * Locks a wallet and sweeps its sub-balances into the main balance if the main balance alone
+     * cannot cover the amount, so that a following funds-checked update sees the full total.
+     */
+    public void sweepIfShort(Long walletId, long amount) {
+        walletRepository.findForUpdateById(walletId).ifPresent(wallet -> sweepIfShort(wallet, amount));
+    }
+
+    /**
+     * Sweeps the sub-balances of a locked wallet into its main balance when the main balance
+     * alone cannot cover the amount.
+     */
+    public void sweepIfShort(Wallet lockedWallet, long amount) {
+        if (lockedWallet.getBalance() < amount && lockedWallet.getBalanceSlots() > 0) {
+            sweep(lockedWallet);
+        }
+    }
+
+    private void withdraw(Wallet wallet, long amount) {
+        sweepIfShort(wallet, amount);
+        if (wallet.getBalance() < amount) {
+            throw new IllegalStateException("Insufficient funds");
+        }
+        wallet.setBalance(Money.subtract(wallet.getBalance(), amount));
+    }
+
+    /**
+     * Adds to a random sub-balance of a share-locked wallet. The slot count is taken from the
+     * locked row rather than the registry, since a narrowing or unsplit waits for that lock.
+     */
+    private void creditSlot(Wallet wallet, long amount) {
+        SplitWallet split = splitWallets.get(wallet.getId());
+        if (split == null || split.slots() != wallet.getBalanceSlots()) {
+            register(wallet);
+        }
+        if (wallet.getBalanceSlots() == 0) {
+            // Crediting the main balance needs the exclusive lock, and upgrading the shared one
+            // deadlocks two such credits. Retrying finds the wallet unregistered and locks it
+            // exclusively from the start.
+            throw new CannotAcquireLockException("Wallet " + wallet.getId() + " is no longer split");
+        }
+        int slot = ThreadLocalRandom.current().nextInt(wallet.getBalanceSlots());
+        slotRepository.addToSlot(wallet.getId(), slot, amount);
+    }
+
+    /**
+     * Moves every sub-balance into the main balance. The wallet row must already be locked.
+     */
+    private List<WalletBalanceSlot> sweep(Wallet wallet) {
+        List<WalletBalanceSlot> slots = slotRepository.findAllByWalletIdOrderBySlotAsc(wallet.getId());
+        long swept = 0L;
+        for (WalletBalanceSlot slot : slots) {
+            if (slot.getBalance() != 0) {
+                swept = Money.add(swept, slot.getBalance());
+                slot.setBalance(0L);
+            }
+        }
+        if (swept != 0) {
+            wallet.setBalance(Money.add(wallet.getBalance(), swept));
+        }
+        return slots;
+    }
+
+    private record SplitWallet(String currencyCode, int slots) {
+    }
+}
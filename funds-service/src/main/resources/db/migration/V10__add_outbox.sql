@@ -0,0 +1,20 @@
+-- Transactional outbox: one row per completed transaction, written in the same database
+-- transaction. OutboxRelay claims rows oldest first with FOR UPDATE SKIP LOCKED, publishes them
+-- and deletes them, so the table only holds the undelivered backlog.
+CREATE TABLE outbox_event (
+    id BIGINT PRIMARY KEY,
+    reference_id BINARY(16) NOT NULL,
+    original_reference_id BINARY(16) NULL,
+    event_type VARCHAR(20) NOT NULL,
+    wallet_id BIGINT NOT NULL,
+    counterparty_wallet_id BIGINT NULL,
+    amount DECIMAL(19,4) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Pooled ids like transaction_seq, so the outbox insert joins the JDBC batch flushed at commit.
+CREATE TABLE outbox_event_seq (
+    next_val BIGINT
+);
+
+INSERT INTO outbox_event_seq (next_val) VALUES (1);
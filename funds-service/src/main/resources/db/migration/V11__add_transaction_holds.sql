@@ -0,0 +1,13 @@
+-- Two-phase holds. An authorization moves the amount from wallet.balance (what can still be
+-- spent) to wallet.held_balance and records a PENDING debit; capture, void or expiry moves it
+-- back out of held_balance. The ledger balance is balance + held_balance.
+ALTER TABLE wallet ADD COLUMN held_balance DECIMAL(19,4) NOT NULL DEFAULT 0;
+
+-- One row per outstanding hold, deleted when the hold is captured, voided or expires, so the
+-- table is what HoldService reloads into its timing wheel on startup. authorized_at is the
+-- created_at of the PENDING transaction row and bounds the partitions searched for it.
+CREATE TABLE transaction_hold (
+    reference_id BINARY(16) PRIMARY KEY,
+    authorized_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Ledger reconciliation folds each wallet's incoming transfers by counterparty_wallet_id range.
+-- Covering, so that scan never touches the clustered index; rows other than transfers index NULL.
+CREATE INDEX idx_transaction_counterparty
+    ON transaction (counterparty_wallet_id, transaction_type, status, amount);
+
+-- Per-wallet net of an archived partition's completed credits, debits and transfers, written by
+-- TransactionArchiver before the partition is dropped. Reconciliation adds it in place of the
+-- rows that are no longer in the table.
+CREATE TABLE transaction_archive_balance (
+    wallet_id BIGINT NOT NULL,
+    archive_id BIGINT NOT NULL,
+    net_amount DECIMAL(19,4) NOT NULL,
+    PRIMARY KEY (wallet_id, archive_id),
+    FOREIGN KEY (archive_id) REFERENCES transaction_archive (id)
+);
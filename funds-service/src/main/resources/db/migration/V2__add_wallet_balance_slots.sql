@@ -0,0 +1,9 @@
+ALTER TABLE wallet ADD COLUMN balance_slots INT NOT NULL DEFAULT 0;
+
+CREATE TABLE wallet_balance_slot (
+    wallet_id BIGINT NOT NULL,
+    slot INT NOT NULL,
+    balance DECIMAL(19,4) NOT NULL,
+    PRIMARY KEY (wallet_id, slot),
+    FOREIGN KEY (wallet_id) REFERENCES wallet(id)
+);
@@ -0,0 +1,7 @@
+-- Transaction ids come from a pooled Hibernate sequence (emulated with a table on MySQL) instead of
+-- AUTO_INCREMENT, so inserts can be sent as JDBC batches. Start past every existing id.
+CREATE TABLE transaction_seq (
+    next_val BIGINT
+);
+
+INSERT INTO transaction_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM transaction;
@@ -0,0 +1,11 @@
+-- Reference ids become 16-byte time-ordered UUIDs (UUIDv7) with a unique index. Existing random
+-- UUID strings are converted in place so references already handed out keep working.
+ALTER TABLE transaction ADD COLUMN reference_uuid BINARY(16);
+
+UPDATE transaction SET reference_uuid = UNHEX(REPLACE(reference_id, '-', '')) WHERE reference_id IS NOT NULL;
+
+ALTER TABLE transaction DROP COLUMN reference_id;
+
+ALTER TABLE transaction RENAME COLUMN reference_uuid TO reference_id;
+
+CREATE UNIQUE INDEX uk_transaction_reference_id ON transaction (reference_id);
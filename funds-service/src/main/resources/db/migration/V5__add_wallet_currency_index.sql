@@ -0,0 +1,2 @@
+-- Serves keyset pages filtered by currency: WHERE currency_code = ? AND id > ? ORDER BY id.
+CREATE INDEX idx_wallet_currency_id ON wallet (currency_code, id);
@@ -0,0 +1,5 @@
+-- Covers GET /wallets/{id}/transactions: the seek on (wallet_id, created_at, id) and every
+-- projected column, so history pages never touch the clustered index. It also satisfies the
+-- wallet_id foreign key, letting MySQL drop the index it created implicitly for that constraint.
+CREATE INDEX idx_transaction_wallet_history
+    ON transaction (wallet_id, created_at, id, transaction_type, status, amount, reference_id);
@@ -0,0 +1,5 @@
+-- Target wallet of a TRANSFER, needed to reverse it. NULL for other types and for transfers
+-- recorded before this migration, which therefore cannot be reversed.
+ALTER TABLE transaction ADD COLUMN counterparty_wallet_id BIGINT NULL;
+ALTER TABLE transaction ADD CONSTRAINT fk_transaction_counterparty_wallet
+    FOREIGN KEY (counterparty_wallet_id) REFERENCES wallet (id);
@@ -0,0 +1,26 @@
+-- Append-only double-entry journal written by the "journal" balance update strategy. Each posting
+-- is a group of entries summing to zero: wallet entries carry the wallet id, and the contra side
+-- of credits, debits and reversals is booked to the SETTLEMENT account. Entries are never updated.
+CREATE TABLE journal_entry (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    posting_id BINARY(16) NOT NULL,
+    account VARCHAR(20) NOT NULL,
+    wallet_id BIGINT NULL,
+    amount DECIMAL(19,4) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Serves the balance tail: WHERE wallet_id = ? AND id > ? with SUM(amount), from the index alone.
+CREATE INDEX idx_journal_entry_wallet_tail ON journal_entry (wallet_id, id, amount);
+
+CREATE INDEX idx_journal_entry_posting ON journal_entry (posting_id);
+
+-- Sum of a wallet's journal entries up to and including last_entry_id. The compactor appends a
+-- newer snapshot and then deletes the older ones, so readers normally find exactly one row.
+CREATE TABLE balance_snapshot (
+    wallet_id BIGINT NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    balance DECIMAL(19,4) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (wallet_id, last_entry_id)
+);
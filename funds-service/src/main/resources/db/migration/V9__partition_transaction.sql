@@ -0,0 +1,56 @@
+-- Range-partitions transaction by month of created_at so each month is its own tablespace and
+-- index set, and old months can be archived by dropping a partition instead of deleting rows.
+-- Boundaries are UTC month starts as epoch seconds. TransactionPartitionManager adds the months
+-- ahead by splitting the empty p_future partition, and archives and drops months past retention.
+--
+-- InnoDB does not support foreign keys on partitioned tables. The wallet references keep their
+-- meaning without the check: every insert holds a lock on the wallets it references, taken before
+-- the insert, and a wallet is only deleted, under its row lock, while no transaction references it.
+ALTER TABLE transaction DROP FOREIGN KEY transaction_ibfk_1;
+ALTER TABLE transaction DROP FOREIGN KEY fk_transaction_counterparty_wallet;
+
+-- Every unique key must contain the partitioning column. The primary key becomes (id, created_at);
+-- ids still come from transaction_seq and stay unique. The reference key becomes
+-- (reference_id, created_at): created_at is stamped from the UUIDv7 reference's own timestamp, so a
+-- repeated reference always repeats its created_at and is still rejected. Reversals use the same
+-- timestamp to prune the lookup to the recent partitions.
+-- The index MySQL created for the counterparty foreign key is no longer read by anything.
+-- Partitioning rebuilds the table once, so run this migration in a maintenance window.
+SET @first_month = DATE_FORMAT(CURRENT_DATE, '%Y-%m-01') + INTERVAL 1 MONTH;
+SET @ddl = CONCAT('ALTER TABLE transaction ',
+    'DROP INDEX fk_transaction_counterparty_wallet, ',
+    'DROP INDEX uk_transaction_reference_id, ',
+    'ADD UNIQUE KEY uk_transaction_reference_created (reference_id, created_at), ',
+    'DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at) ',
+    'PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (',
+    'PARTITION p_history VALUES LESS THAN (', TIMESTAMPDIFF(SECOND, '1970-01-01', @first_month), '), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE partition_transaction FROM @ddl;
+EXECUTE partition_transaction;
+DEALLOCATE PREPARE partition_transaction;
+
+-- One row per archived partition. completed_at stays NULL while the export is running; rows left
+-- incomplete by a crash are discarded together with their segments and the export starts over.
+CREATE TABLE transaction_archive (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    partition_name VARCHAR(64) NOT NULL,
+    range_end TIMESTAMP NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    row_count BIGINT NULL,
+    completed_at TIMESTAMP NULL,
+    CONSTRAINT uk_transaction_archive_partition UNIQUE (partition_name)
+);
+
+-- Archive index: where each wallet's rows sit inside an archive file. Every segment is a separate
+-- gzip member holding one wallet's rows newest first, so a history page inflates only that member.
+CREATE TABLE transaction_archive_segment (
+    wallet_id BIGINT NOT NULL,
+    archive_id BIGINT NOT NULL,
+    first_created_at TIMESTAMP NOT NULL,
+    last_created_at TIMESTAMP NOT NULL,
+    byte_offset BIGINT NOT NULL,
+    byte_length BIGINT NOT NULL,
+    row_count INT NOT NULL,
+    PRIMARY KEY (wallet_id, archive_id),
+    FOREIGN KEY (archive_id) REFERENCES transaction_archive (id)
+);
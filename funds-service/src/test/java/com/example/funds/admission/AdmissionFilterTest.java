@@ -0,0 +1,170 @@
+package com.example.funds.admission;
+
+import com.example.funds.config.AdmissionProperties;
+import com.example.funds.metrics.FundsOperation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdmissionFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(1);
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        properties.setReversalReserve(0.2);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(properties);
+        filter = new AdmissionFilter(limiter, properties, meterRegistry);
+    }
+
+    /**
+     * Tests that once the share of the limit open to debits is used up, a debit is rejected with
+     * 429 and Retry-After while a reversal is still admitted.
+     */
+    @Test
+    public void testDebitsAreShedBeforeReversals() throws Exception {
+        // Arrange
+        for (int i = 0; i < 8; i++) {
+            assertNotNull(limiter.tryAcquire(FundsOperation.DEBIT));
+        }
+
+        // Act
+        MockHttpServletResponse debit = perform("/api/v1/funds/debit");
+        MockHttpServletResponse reversal = perform("/api/v1/funds/reverse/0190b7a4-0000-7000-8000-000000000000");
+
+        // Assert
+        assertEquals(429, debit.getStatus());
+        assertEquals("1", debit.getHeader("Retry-After"));
+        assertEquals(200, reversal.getStatus());
+        assertEquals(1.0, meterRegistry.get("funds.admission.rejected").tag("operation", "debit").counter().count());
+        assertEquals(0.0, meterRegistry.get("funds.admission.rejected").tag("operation", "reverse").counter().count());
+        assertEquals(8.0, meterRegistry.get("funds.admission.limit").tag("operation", "debit").gauge().value());
+        assertEquals(10.0, meterRegistry.get("funds.admission.limit").tag("operation", "reverse").gauge().value());
+    }
+
+    /**
+     * Tests that a slow request cuts the limit once for the requests that overlapped it, and that
+     * fast requests under load grow it back by about one per round.
+     */
+    @Test
+    public void testLatencyAdaptsTheLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire(FundsOperation.TRANSFER);
+        AdaptiveConcurrencyLimiter.Permit overlapping = limiter.tryAcquire(FundsOperation.TRANSFER);
+        long slow = System.nanoTime() + Duration.ofMillis(200).toNanos();
+
+        // Act
+        first.release(slow, false);
+        overlapping.release(slow, false);
+        int afterSlow = limiter.getLimit(FundsOperation.REVERSE);
+        List<AdaptiveConcurrencyLimiter.Permit> load = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            load.add(limiter.tryAcquire(FundsOperation.CREDIT));
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(FundsOperation.CREDIT).release(false);
+        }
+
+        // Assert
+        assertEquals(9, afterSlow);
+        assertEquals(10, limiter.getLimit(FundsOperation.REVERSE));
+        assertEquals(5, limiter.getInflight());
+        load.forEach(permit -> permit.release(false));
+        assertEquals(0, limiter.getInflight());
+    }
+
+    /**
+     * Tests that requests outside the funds operations, such as wallet reads, are never limited.
+     */
+    @Test
+    public void testOnlyFundsOperationsAreLimited() throws Exception {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(limiter.tryAcquire(FundsOperation.REVERSE));
+        }
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/v1/wallets/1");
+
+        // Act
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(read, response, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNull(AdmissionFilter.operation(read));
+        assertEquals(429, perform("/api/v1/funds/reverse/x").getStatus());
+    }
+
+    /**
+     * Tests that batches are admitted from the same share of the limit as debits instead of
+     * bypassing admission.
+     */
+    @Test
+    public void testBatchesAreLimited() throws Exception {
+        // Arrange
+        for (int i = 0; i < 8; i++) {
+            assertNotNull(limiter.tryAcquire(FundsOperation.DEBIT));
+        }
+
+        // Act
+        MockHttpServletResponse batch = perform("/api/v1/funds/batch");
+
+        // Assert
+        assertEquals(FundsOperation.BATCH, AdmissionFilter.operation(new MockHttpServletRequest("POST", "/api/v1/funds/batch")));
+        assertEquals(429, batch.getStatus());
+        assertEquals(1.0, meterRegistry.get("funds.admission.rejected").tag("operation", "batch").counter().count());
+    }
+
+    /**
+     * Tests that a business failure leaves the limit alone while a lock wait timeout cuts it.
+     */
+    @Test
+    public void testOnlyOverloadFailuresCutTheLimit() {
+        // Arrange
+        FilterChain insufficientFunds = (request, response) -> {
+            throw new IllegalStateException("Insufficient funds");
+        };
+        FilterChain lockTimeout = (request, response) -> {
+            throw new ServletException(new CannotAcquireLockException("Lock wait timeout exceeded"));
+        };
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("POST", "/api/v1/funds/debit"), new MockHttpServletResponse(), insufficientFunds));
+        int afterBusinessFailure = limiter.getLimit(FundsOperation.REVERSE);
+        assertThrows(ServletException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("POST", "/api/v1/funds/debit"), new MockHttpServletResponse(), lockTimeout));
+
+        // Assert
+        assertEquals(10, afterBusinessFailure);
+        assertEquals(9, limiter.getLimit(FundsOperation.REVERSE));
+        assertEquals(0, limiter.getInflight());
+    }
+
+    private MockHttpServletResponse perform(String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", path), response, new MockFilterChain());
+        return response;
+    }
+}
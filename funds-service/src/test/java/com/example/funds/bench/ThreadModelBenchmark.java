@@ -0,0 +1,159 @@
+package com.example.funds.bench;
+
+import com.example.funds.FundsApplication;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.support.TestDatabase;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same contended workload against the application on platform threads and then on
+ * virtual threads: hundreds of clients credit one hot wallet, which serialises on its row lock,
+ * while a few clients read another wallet from the cache. On platform threads the writers hold
+ * every Tomcat thread and reads queue behind them; on virtual threads the writers queue for DB
+ * permits instead and reads stay fast. Run with {@code ./gradlew threadModelBenchmark}.
+ */
+@Tag("benchmark")
+public class ThreadModelBenchmark {
+    private static final int WRITERS = 400;
+    private static final int READERS = 16;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+
+    /**
+     * Tests both thread models under the same load and prints throughput and read latency side by side.
+     */
+    @Test
+    public void compareThreadModels() throws Exception {
+        // Act
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        // Assert
+        System.out.printf("%n%-10s %12s %12s %12s %12s %10s%n",
+                "model", "credits/s", "reads/s", "read p50 ms", "read p99 ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.0f %12.0f %12.2f %12.2f %10d%n", result.model(), result.creditsPerSecond(),
+                    result.readsPerSecond(), result.readP50Millis(), result.readP99Millis(), result.errors());
+        }
+        assertTrue(platform.creditsPerSecond() > 0 && virtual.creditsPerSecond() > 0);
+    }
+
+    private Result run(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtual)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            WalletRepository wallets = context.getBean(WalletRepository.class);
+            long hotWallet = TestWallets.create(wallets, 1L, "0").getId();
+            long readWallet = TestWallets.create(wallets, 2L, "0").getId();
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            HttpRequest credit = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/funds/credit"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"walletId\":" + hotWallet + ",\"currencyCode\":\"USD\",\"amount\":1}"))
+                    .build();
+            HttpRequest read = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/wallets/" + readWallet))
+                    .GET()
+                    .build();
+
+            long warmupEnds = System.nanoTime() + WARMUP.toNanos();
+            long measureEnds = warmupEnds + MEASURE.toNanos();
+            AtomicLong credits = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+            List<long[]> readLatencies = new ArrayList<>();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < WRITERS; i++) {
+                    clients.submit(() -> {
+                        while (System.nanoTime() < measureEnds) {
+                            boolean ok = send(client, credit);
+                            if (System.nanoTime() > warmupEnds) {
+                                (ok ? credits : errors).incrementAndGet();
+                            }
+                        }
+                    });
+                }
+                for (int i = 0; i < READERS; i++) {
+                    long[] samples = new long[1_000_000];
+                    readLatencies.add(samples);
+                    clients.submit(() -> {
+                        int n = 0;
+                        while (System.nanoTime() < measureEnds && n < samples.length - 1) {
+                            long started = System.nanoTime();
+                            boolean ok = send(client, read);
+                            if (started > warmupEnds) {
+                                if (ok) {
+                                    samples[++n] = System.nanoTime() - started;
+                                } else {
+                                    errors.incrementAndGet();
+                                }
+                            }
+                        }
+                        samples[0] = n;
+                    });
+                }
+            }
+            long[] reads = readLatencies.stream()
+                    .flatMapToLong(samples -> Arrays.stream(samples, 1, (int) samples[0] + 1))
+                    .sorted()
+                    .toArray();
+            double seconds = MEASURE.toNanos() / 1e9;
+            return new Result(virtual ? "virtual" : "platform", credits.get() / seconds, reads.length / seconds,
+                    percentile(reads, 0.50), percentile(reads, 0.99), errors.get());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        SpringApplication application = new SpringApplication(FundsApplication.class);
+        List<String> args = new ArrayList<>(TestDatabase.arguments("LOCK_TIMEOUT=30000"));
+        args.addAll(List.of(
+                "--server.port=0",
+                // A deliberately small request pool so the platform model saturates at benchmark scale.
+                "--server.tomcat.threads.max=32",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--funds.db-permits.enabled=" + virtual,
+                "--spring.datasource.hikari.maximum-pool-size=8",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        return application.run(args.toArray(String[]::new));
+    }
+
+    private static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(quantile * sorted.length))] / 1e6;
+    }
+
+    private record Result(String model, double creditsPerSecond, double readsPerSecond,
+                          double readP50Millis, double readP99Millis, long errors) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.funds.controller;
 
+import com.example.funds.dto.ReversalResponse;
 import com.example.funds.dto.TransactionRequest;
+import com.example.funds.dto.TransactionResponse;
 import com.example.funds.dto.TransferRequest;
+import com.example.funds.dto.TransferResponse;
 import com.example.funds.model.Transaction;
+import com.example.funds.model.Wallet;
 import com.example.funds.service.FundsService;
 
 import org.junit.jupiter.api.Test;
@@ -50,15 +54,15 @@ public class FundsControllerTest {
         request.setCurrencyCode("USD");
         request.setAmount(BigDecimal.valueOf( 100));
 
-        Transaction mockTransaction = new Transaction();
+        Transaction mockTransaction = transaction();
         when(fundsService.credit(request.getWalletId(), request.getCurrencyCode(), request.getAmount()))
             .thenReturn(mockTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.credit(request);
+        ResponseEntity<TransactionResponse> response = fundsController.credit(request);
 
         // Assert
-        assertEquals(ResponseEntity.ok(mockTransaction), response);
+        assertEquals(ResponseEntity.ok(TransactionResponse.from(mockTransaction)), response);
     }
 
     /**
@@ -80,12 +84,12 @@ public class FundsControllerTest {
     @Test
     public void testReverseTransactionSuccessfully() {
         String referenceId = "TX123456";
-        Transaction reversedTransaction = new Transaction(); // Assume this is a valid reversed transaction
+        Transaction reversedTransaction = transaction(); // Assume this is a valid reversed transaction
         when(fundsService.reverse(referenceId)).thenReturn(reversedTransaction);
 
-        ResponseEntity<Transaction> response = fundsController.reverse(referenceId);
+        ResponseEntity<ReversalResponse> response = fundsController.reverse(referenceId);
 
-        assertEquals(ResponseEntity.ok(reversedTransaction), response);
+        assertEquals(ResponseEntity.ok(ReversalResponse.from(reversedTransaction, referenceId)), response);
     }
 
     /**
@@ -103,7 +107,7 @@ public class FundsControllerTest {
         request.setCurrencyCode("USD");
         request.setAmount(BigDecimal.valueOf(100));
 
-        Transaction mockTransaction = new Transaction();
+        Transaction mockTransaction = transaction();
         mockTransaction.setId(123L);
 
         when(fundsService.transfer(
@@ -114,11 +118,11 @@ public class FundsControllerTest {
         )).thenReturn(mockTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.transfer(request);
+        ResponseEntity<TransferResponse> response = fundsController.transfer(request);
 
         // Assert
         assertEquals(200, response.getStatusCode());
-        assertEquals(mockTransaction, response.getBody());
+        assertEquals(TransferResponse.from(mockTransaction, request.getTargetWalletId()), response.getBody());
     }
 
     /**
@@ -145,14 +149,14 @@ public class FundsControllerTest {
         request.setWalletId(123L);
         request.setCurrencyCode("USD");
         request.setAmount(BigDecimal.valueOf(100.0));
-        Transaction expectedTransaction = new Transaction();
+        Transaction expectedTransaction = transaction();
         when(fundsService.debit(request.getWalletId(), request.getCurrencyCode(), request.getAmount())).thenReturn(expectedTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.debit(request);
+        ResponseEntity<TransactionResponse> response = fundsController.debit(request);
 
         // Assert
-        assertEquals(ResponseEntity.ok(expectedTransaction), response);
+        assertEquals(ResponseEntity.ok(TransactionResponse.from(expectedTransaction)), response);
     }
 
 
@@ -169,14 +173,14 @@ public class FundsControllerTest {
         request.setCurrencyCode("USD");
         request.setAmount(BigDecimal.valueOf(100.0));
 
-        Transaction expectedTransaction = new Transaction();
+        Transaction expectedTransaction = transaction();
         when(fundsService.credit(request.getWalletId(), request.getCurrencyCode(), request.getAmount())).thenReturn(expectedTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.credit(request);
+        ResponseEntity<TransactionResponse> response = fundsController.credit(request);
 
         // Assert
-        assertEquals(ResponseEntity.ok(expectedTransaction), response);
+        assertEquals(ResponseEntity.ok(TransactionResponse.from(expectedTransaction)), response);
     }
 
     /**
@@ -211,15 +215,15 @@ public class FundsControllerTest {
         request.setCurrencyCode("USD");
         request.setAmount(BigDecimal.valueOf(100.0));
 
-        Transaction mockTransaction = new Transaction();
+        Transaction mockTransaction = transaction();
         when(fundsService.debit(request.getWalletId(), request.getCurrencyCode(), request.getAmount()))
             .thenReturn(mockTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.debit(request);
+        ResponseEntity<TransactionResponse> response = fundsController.debit(request);
 
         // Assert
-        assertEquals(ResponseEntity.ok(mockTransaction), response);
+        assertEquals(ResponseEntity.ok(TransactionResponse.from(mockTransaction)), response);
     }
 
     /**
@@ -235,7 +239,7 @@ public class FundsControllerTest {
         invalidRequest.setCurrencyCode("");
         invalidRequest.setAmount(BigDecimal.valueOf(-100.0));
 
-        ResponseEntity<Transaction> response = fundsController.debit(invalidRequest);
+        ResponseEntity<TransactionResponse> response = fundsController.debit(invalidRequest);
 
         assertEquals(400, response.getStatusCode());
         assertNull(response.getBody());
@@ -250,14 +254,14 @@ public class FundsControllerTest {
     public void testReverseTransaction() {
         // Arrange
         String referenceId = "txn123";
-        Transaction reversedTransaction = new Transaction();
+        Transaction reversedTransaction = transaction();
         when(fundsService.reverse(referenceId)).thenReturn(reversedTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.reverse(referenceId);
+        ResponseEntity<ReversalResponse> response = fundsController.reverse(referenceId);
 
         // Assert
-        assertEquals(ResponseEntity.ok(reversedTransaction), response);
+        assertEquals(ResponseEntity.ok(ReversalResponse.from(reversedTransaction, referenceId)), response);
     }
 
     /**
@@ -305,15 +309,23 @@ public class FundsControllerTest {
         request.setCurrencyCode("USD");
         request.setAmount(BigDecimal.valueOf(100.0));
 
-        Transaction mockTransaction = new Transaction();
+        Transaction mockTransaction = transaction();
         when(fundsService.transfer(request.getSourceWalletId(), request.getTargetWalletId(), 
                                    request.getCurrencyCode(), request.getAmount()))
             .thenReturn(mockTransaction);
 
         // Act
-        ResponseEntity<Transaction> response = fundsController.transfer(request);
+        ResponseEntity<TransferResponse> response = fundsController.transfer(request);
 
         // Assert
-        assertEquals(ResponseEntity.ok(mockTransaction), response);
+        assertEquals(ResponseEntity.ok(TransferResponse.from(mockTransaction, request.getTargetWalletId())), response);
+    }
+
+    private static Transaction transaction() {
+        Wallet wallet = new Wallet();
+        wallet.setId(123L);
+        Transaction transaction = new Transaction();
+        transaction.setWallet(wallet);
+        return transaction;
     }
 }
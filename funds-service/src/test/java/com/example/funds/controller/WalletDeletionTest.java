@@ -0,0 +1,81 @@
+package com.example.funds.controller;
+
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import com.example.funds.service.split.SplitBalanceService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The transaction table has no foreign keys once it is partitioned, so deleting a wallet must
+ * itself refuse to orphan transaction rows.
+ */
+@H2Test
+@AutoConfigureMockMvc
+public class WalletDeletionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private SplitBalanceService splitBalances;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * Tests that wallets referenced by a transaction, as its wallet or as a transfer target,
+     * are kept along with their transactions.
+     */
+    @Test
+    public void testWalletsWithTransactionsAreKept() throws Exception {
+        // Arrange
+        Long sourceId = TestWallets.create(walletRepository, 1L, "100").getId();
+        Long targetId = TestWallets.create(walletRepository, 2L, "0").getId();
+        fundsService.transfer(sourceId, targetId, "USD", BigDecimal.TEN);
+        long transactions = transactionRepository.count();
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/wallets/{id}", sourceId)).andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/v1/wallets/{id}", targetId)).andExpect(status().isConflict());
+        assertTrue(walletRepository.existsById(sourceId));
+        assertTrue(walletRepository.existsById(targetId));
+        assertEquals(transactions, transactionRepository.count());
+    }
+
+    /**
+     * Tests that a wallet without transactions, split or not, is deleted.
+     */
+    @Test
+    public void testUnusedWalletsAreDeleted() throws Exception {
+        // Arrange
+        Long plainId = TestWallets.create(walletRepository, 3L, "0").getId();
+        Long splitId = TestWallets.create(walletRepository, 4L, "0").getId();
+        splitBalances.split(splitId, 4);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/wallets/{id}", plainId)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/wallets/{id}", splitId)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/wallets/{id}", plainId)).andExpect(status().isNotFound());
+        assertFalse(walletRepository.existsById(splitId));
+    }
+}
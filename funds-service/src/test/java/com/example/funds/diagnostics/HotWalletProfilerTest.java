@@ -0,0 +1,95 @@
+package com.example.funds.diagnostics;
+
+import com.example.funds.config.HotWalletProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotWalletProfilerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotWalletProfiler profiler;
+
+    @BeforeEach
+    public void setUp() {
+        HotWalletProperties properties = new HotWalletProperties();
+        properties.setTopK(3);
+        properties.setMinLockWait(Duration.ofMillis(1));
+        properties.setHotThreshold(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+        profiler = new HotWalletProfiler(properties, meterRegistry);
+    }
+
+    /**
+     * Tests that the wallets with the most lock wait are ranked first among many lightly contended ones.
+     */
+    @Test
+    public void testRanksHeavyHittersFirst() {
+        // Arrange
+        for (long walletId = 1; walletId <= 10_000; walletId++) {
+            profiler.record(walletId, 0L, millis(2));
+        }
+        for (int i = 0; i < 100; i++) {
+            profiler.record(42L, 0L, millis(5));
+            profiler.record(17L, 0L, millis(3));
+            profiler.record(5_000L, 0L, millis(1));
+        }
+
+        // Act
+        List<HotWallet> top = profiler.top();
+
+        // Assert
+        assertEquals(3, top.size());
+        assertEquals(42L, top.get(0).walletId());
+        assertEquals(17L, top.get(1).walletId());
+        assertEquals(5_000L, top.get(2).walletId());
+        assertTrue(top.get(0).hot());
+        assertTrue(profiler.isHot(42L));
+    }
+
+    /**
+     * Tests that waits below the minimum are not recorded at all.
+     */
+    @Test
+    public void testIgnoresShortWaits() {
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            profiler.record(1L, 2L, TimeUnit.MICROSECONDS.toNanos(200));
+        }
+
+        // Assert
+        assertTrue(profiler.top().isEmpty());
+        assertFalse(profiler.isHot(1L));
+    }
+
+    /**
+     * Tests that each decay halves the recorded wait and publishes the ranking as a gauge.
+     */
+    @Test
+    public void testDecayHalvesWaitAndPublishesGauge() {
+        // Arrange
+        profiler.record(42L, 0L, millis(400));
+
+        // Act
+        profiler.decay();
+        profiler.decay();
+
+        // Assert
+        assertEquals(100, profiler.estimate(42L).lockWait().toMillis());
+        assertEquals(0.2, meterRegistry.get("funds.hot_wallets.lock_wait")
+                .tag("wallet_id", "42")
+                .gauge().value(), 1e-9);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.funds.jdbc;
+
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against two embedded databases: the primary, and a replica seeded with a
+ * copy of it. Changing the primary afterwards makes it visible which one served each read.
+ */
+@H2Test
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "funds.replica.enabled=true",
+        "funds.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "funds.replica.read-your-writes=1m",
+        "funds.wallet-cache.enabled=false"
+})
+public class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private Long walletId;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        ReadWriteRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class);
+        primary = new JdbcTemplate(routing.getTarget(ReadWriteRoutingDataSource.Target.PRIMARY));
+        JdbcTemplate replica = new JdbcTemplate(routing.getTarget(ReadWriteRoutingDataSource.Target.REPLICA));
+
+        walletId = TestWallets.create(walletRepository, System.nanoTime(), "100").getId();
+
+        Path script = Files.createTempFile("routing-replica", ".sql");
+        try {
+            primary.execute("SCRIPT TO '" + script + "'");
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        primary.update("UPDATE wallet SET balance = 150 WHERE id = ?", walletId);
+    }
+
+    /**
+     * Tests that a plain read is served by the replica and a strong read by the primary.
+     */
+    @Test
+    public void testReadOnlyReadsGoToReplica() throws Exception {
+        // Arrange
+        double routedBefore = routed("replica");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/wallets/{id}", walletId).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(100.0));
+        mockMvc.perform(get("/api/v1/wallets/{id}", walletId).param("strong", "true").header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(150.0));
+        assertTrue(routed("replica") > routedBefore);
+    }
+
+    /**
+     * Tests that a client that just wrote reads from the primary while other clients still read the replica.
+     */
+    @Test
+    public void testReadYourWritesPinsWriterToPrimary() throws Exception {
+        // Act
+        mockMvc.perform(post("/api/v1/funds/credit")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"walletId\":" + walletId + ",\"currencyCode\":\"USD\",\"amount\":5}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/api/v1/wallets/{id}", walletId).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(155.0));
+        mockMvc.perform(get("/api/v1/wallets/{id}", walletId).header("X-Client-Id", "someone-else"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(100.0));
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get("funds.db.routed").tag("target", target).functionCounter().count();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.funds.jdbc;
+
+import org.opentest4j.AssertionFailedError;
+
+import java.util.function.Supplier;
+
+/**
+ * Statement-count assertions for tests running against a {@link StatementCountingDataSource}.
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    /**
+     * Runs the action in its own {@link SqlStatementScope} and returns the counts it produced.
+     */
+    public static SqlStatementScope countStatements(Runnable action) {
+        try (SqlStatementScope scope = SqlStatementScope.open()) {
+            action.run();
+            return scope;
+        }
+    }
+
+    /**
+     * Runs the action and fails if it issued more than {@code maxStatements} SQL statements.
+     */
+    public static <T> T assertMaxStatements(int maxStatements, Supplier<T> action) {
+        try (SqlStatementScope scope = SqlStatementScope.open()) {
+            T result = action.get();
+            if (scope.getStatements() > maxStatements) {
+                throw new AssertionFailedError("Expected at most " + maxStatements + " statements but got "
+                        + scope.getStatements() + " (" + scope + ")", maxStatements, scope.getStatements());
+            }
+            return result;
+        }
+    }
+}
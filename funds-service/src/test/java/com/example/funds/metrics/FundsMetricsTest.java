@@ -0,0 +1,135 @@
+package com.example.funds.metrics;
+
+import com.example.funds.config.HotWalletProperties;
+import com.example.funds.diagnostics.HotWalletProfiler;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FundsMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotWalletProfiler hotWallets;
+    private FundsMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hotWallets = new HotWalletProfiler(new HotWalletProperties(), meterRegistry);
+        metrics = new FundsMetrics(meterRegistry, hotWallets);
+    }
+
+    /**
+     * Tests that time reported by repository calls and the commit is split into phases,
+     * with the remainder of the operation recorded as business logic.
+     */
+    @Test
+    public void testRecordsPhasesOfTransactionalOperation() {
+        // Act
+        String result = metrics.record(FundsOperation.TRANSFER, () -> {
+            PhaseClock.add(OperationPhase.LOCK_ACQUIRE, TimeUnit.MILLISECONDS.toNanos(3));
+            PhaseClock.add(OperationPhase.PERSIST, TimeUnit.MILLISECONDS.toNanos(1));
+            PhaseClock.startCommit();
+            PhaseClock.stopCommit();
+            return "done";
+        });
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(3.0, phase("lock_acquire").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1.0, phase("persist").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, phase("commit").count());
+        assertEquals(1, phase("business_logic").count());
+        assertTrue(meterRegistry.get("funds.operation").tag("operation", "transfer").timer()
+                .totalTime(TimeUnit.MILLISECONDS) >= 0.0);
+        assertEquals(1.0, outcome("transfer", "completed"));
+    }
+
+    /**
+     * Tests that a failed operation is counted by the reason it failed and rethrown unchanged.
+     */
+    @Test
+    public void testCountsFailureOutcome() {
+        // Act
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> metrics.record(FundsOperation.DEBIT, () -> {
+                    throw new IllegalStateException("Insufficient funds");
+                }));
+
+        // Assert
+        assertEquals("Insufficient funds", ex.getMessage());
+        assertEquals(1.0, outcome("debit", "insufficient_funds"));
+        assertEquals(0.0, outcome("debit", "completed"));
+    }
+
+    /**
+     * Tests that an operation which never ran a transaction on the calling thread, as when it is
+     * handed to a wallet lane, is timed end to end without recording empty phases.
+     */
+    @Test
+    public void testSkipsPhasesWhenNoTransactionRan() {
+        // Act
+        metrics.record(FundsOperation.CREDIT, () -> "queued");
+
+        // Assert
+        assertEquals(1, meterRegistry.get("funds.operation").tag("operation", "credit").timer().count());
+        assertEquals(0, meterRegistry.get("funds.operation.phase")
+                .tag("operation", "credit").tag("phase", "lock_acquire").timer().count());
+    }
+
+    /**
+     * Tests that phase time reported outside of a recorded operation is ignored.
+     */
+    @Test
+    public void testIgnoresPhasesOutsideOperation() {
+        // Arrange
+        PhaseClock.add(OperationPhase.LOCK_ACQUIRE, TimeUnit.SECONDS.toNanos(1));
+
+        // Act
+        metrics.record(FundsOperation.TRANSFER, () -> {
+            PhaseClock.startCommit();
+            PhaseClock.stopCommit();
+            return "done";
+        });
+
+        // Assert
+        assertEquals(0.0, phase("lock_acquire").totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests that the lock wait of an operation is attributed to both wallets it was recorded for.
+     */
+    @Test
+    public void testAttributesLockWaitToWallets() {
+        // Act
+        metrics.record(FundsOperation.TRANSFER, 7L, 9L, () -> {
+            PhaseClock.add(OperationPhase.LOCK_ACQUIRE, TimeUnit.MILLISECONDS.toNanos(5));
+            return "done";
+        });
+
+        // Assert
+        assertEquals(5, hotWallets.estimate(7L).lockWait().toMillis());
+        assertEquals(5, hotWallets.estimate(9L).lockWait().toMillis());
+    }
+
+    private Timer phase(String phase) {
+        return meterRegistry.get("funds.operation.phase")
+                .tag("operation", "transfer")
+                .tag("phase", phase)
+                .timer();
+    }
+
+    private double outcome(String operation, String outcome) {
+        return meterRegistry.get("funds.operation.outcomes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .counter().count();
+    }
+}
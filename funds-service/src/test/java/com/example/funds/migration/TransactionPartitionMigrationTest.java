@@ -0,0 +1,71 @@
+package com.example.funds.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the real migrations against MySQL, since V9 uses partitioning that H2 cannot parse. Point
+ * FUNDS_MYSQL_URL (plus FUNDS_MYSQL_USER and FUNDS_MYSQL_PASSWORD) at a scratch schema; the
+ * schema is cleaned first.
+ */
+@EnabledIfEnvironmentVariable(named = "FUNDS_MYSQL_URL", matches = ".+")
+public class TransactionPartitionMigrationTest {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaction "
+            + "(id, wallet_id, amount, transaction_type, reference_id, status, created_at) "
+            + "VALUES (?, ?, 10, 'CREDIT', UNHEX(REPLACE(?, '-', '')), 'COMPLETED', ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(System.getenv("FUNDS_MYSQL_URL"),
+                System.getenv().getOrDefault("FUNDS_MYSQL_USER", "root"),
+                System.getenv().getOrDefault("FUNDS_MYSQL_PASSWORD", ""));
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO wallet (id, customer_id, currency_code, balance, version, created_at, updated_at) "
+                + "VALUES (1, 1, 'USD', 0, 0, NOW(), NOW())");
+    }
+
+    /**
+     * Tests that the transaction table ends up range-partitioned by month.
+     */
+    @Test
+    public void testTransactionTableIsPartitioned() {
+        // Act
+        Integer partitions = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transaction' AND PARTITION_METHOD = 'RANGE'",
+                Integer.class);
+
+        // Assert
+        assertEquals(2, partitions);
+    }
+
+    /**
+     * Tests that a reference id cannot be stored twice. Transactions stamp created_at from the
+     * reference, so a repeated reference always comes with the same created_at.
+     */
+    @Test
+    public void testDuplicateReferenceIsRejected() {
+        // Arrange
+        String referenceId = "01890a5d-ac96-774b-bcce-b302099a8057";
+        jdbcTemplate.update(INSERT_TRANSACTION, 1L, 1L, referenceId, "2023-07-01 00:00:00");
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class,
+                () -> jdbcTemplate.update(INSERT_TRANSACTION, 2L, 1L, referenceId, "2023-07-01 00:00:00"));
+    }
+}
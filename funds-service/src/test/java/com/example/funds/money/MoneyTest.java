@@ -0,0 +1,74 @@
+package com.example.funds.money;
+
+import com.example.funds.model.Wallet;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests that amounts convert to scaled units exactly and back, whatever scale the decimal had.
+     */
+    @Test
+    public void testConvertsExactly() {
+        // Act
+        long units = Money.of(new BigDecimal("12.34"));
+
+        // Assert
+        assertEquals(123_400L, units);
+        assertEquals(123_400L, Money.of(new BigDecimal("12.340000")));
+        assertEquals(new BigDecimal("12.3400"), Money.toDecimal(units));
+        assertEquals(-5_000L, Money.of(new BigDecimal("-0.5")));
+    }
+
+    /**
+     * Tests that an amount finer than its currency's ISO 4217 minor unit is rejected rather than rounded.
+     */
+    @Test
+    public void testRejectsMoreDecimalPlacesThanTheCurrencyHas() {
+        // Act & Assert
+        assertEquals(10_050L, Money.of(new BigDecimal("1.005"), "BHD"));
+        assertEquals(10_000L, Money.of(new BigDecimal("1.00"), "JPY"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.005"), "USD"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.5"), "JPY"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.00001")));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(BigDecimal.ONE, "XYZ"));
+    }
+
+    /**
+     * Tests that arithmetic fails instead of wrapping around when it leaves the range of a long.
+     */
+    @Test
+    public void testArithmeticIsOverflowChecked() {
+        // Act & Assert
+        assertEquals(3L, Money.add(1L, 2L));
+        assertEquals(-1L, Money.subtract(1L, 2L));
+        assertThrows(IllegalArgumentException.class, () -> Money.add(Long.MAX_VALUE, 1L));
+        assertThrows(IllegalArgumentException.class, () -> Money.subtract(Long.MIN_VALUE, 1L));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1e16")));
+    }
+
+    /**
+     * Tests that a wallet balance is read from JSON into scaled units and that an amount with too
+     * many decimal places is refused.
+     */
+    @Test
+    public void testWalletBalanceJson() throws Exception {
+        // Act
+        Wallet wallet = objectMapper.readValue("{\"customerId\":1,\"currencyCode\":\"USD\",\"balance\":10.5}", Wallet.class);
+
+        // Assert
+        assertEquals(105_000L, wallet.getBalance());
+        assertEquals(105_000L, objectMapper.readValue("{\"balance\":\"10.50\"}", Wallet.class).getBalance());
+        assertThrows(JsonMappingException.class,
+                () -> objectMapper.readValue("{\"balance\":10.00001}", Wallet.class));
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.funds.service;
+
+import com.example.funds.config.RetryProperties;
+import com.example.funds.dto.BatchMode;
+import com.example.funds.dto.BatchOperation;
+import com.example.funds.dto.BatchRequest;
+import com.example.funds.dto.BatchResponse;
+import com.example.funds.jdbc.SqlAssertions;
+import com.example.funds.jdbc.SqlStatementScope;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.money.Money;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.limit.VelocityLimiter;
+import com.example.funds.service.outbox.OutboxWriter;
+import com.example.funds.service.split.SplitBalanceService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@H2Test
+@AutoConfigureMockMvc
+public class BatchServiceTest {
+
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Tests that one failing operation rolls back an all-or-nothing batch, reports every other
+     * operation as rolled back and answers 422.
+     */
+    @Test
+    public void testAllOrNothingRollsBackEveryOperation() throws Exception {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 1L, "100").getId();
+        long transactionsBefore = transactionRepository.count();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/funds/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mode\":\"ALL_OR_NOTHING\",\"operations\":["
+                                + "{\"type\":\"CREDIT\",\"walletId\":" + walletId + ",\"currencyCode\":\"USD\",\"amount\":10},"
+                                + "{\"type\":\"DEBIT\",\"walletId\":" + walletId + ",\"currencyCode\":\"USD\",\"amount\":500},"
+                                + "{\"type\":\"CREDIT\",\"walletId\":" + walletId + ",\"currencyCode\":\"USD\",\"amount\":1}]}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.results[0].error").value("Batch rolled back"))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient funds"))
+                .andExpect(jsonPath("$.results[2].error").value("Batch rolled back"));
+        assertEquals(Money.of(new BigDecimal("100")), walletRepository.findById(walletId).orElseThrow().getBalance());
+        assertEquals(transactionsBefore, transactionRepository.count());
+    }
+
+    /**
+     * Tests that a best-effort batch commits the operations that succeed and reports each
+     * failure on its own item.
+     */
+    @Test
+    public void testBestEffortReportsEachOperation() {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 2L, "100").getId();
+        Long targetWalletId = TestWallets.create(walletRepository, 3L, "0").getId();
+        long transactionsBefore = transactionRepository.count();
+        BatchRequest request = request(BatchMode.BEST_EFFORT,
+                operation(TransactionType.CREDIT, walletId, null, "10"),
+                operation(TransactionType.DEBIT, walletId, null, "500"),
+                operation(TransactionType.TRANSFER, walletId, targetWalletId, "30"),
+                operation(TransactionType.CREDIT, -1L, null, "1"));
+
+        // Act
+        BatchResponse response = batchService.execute(request);
+
+        // Assert
+        assertTrue(response.committed());
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED,
+                        TransactionStatus.COMPLETED, TransactionStatus.FAILED),
+                response.results().stream().map(BatchResponse.ItemResult::status).toList());
+        assertNotNull(response.results().get(0).referenceId());
+        assertEquals("Insufficient funds", response.results().get(1).error());
+        assertNull(response.results().get(1).referenceId());
+        assertEquals("Wallet not found", response.results().get(3).error());
+        assertEquals(Money.of(new BigDecimal("80")), walletRepository.findById(walletId).orElseThrow().getBalance());
+        assertEquals(Money.of(new BigDecimal("30")), walletRepository.findById(targetWalletId).orElseThrow().getBalance());
+        assertEquals(transactionsBefore + 2, transactionRepository.count());
+    }
+
+    /**
+     * Tests that transfers in both directions between the same wallets succeed in one batch.
+     */
+    @Test
+    public void testTransfersInBothDirections() {
+        // Arrange
+        Long firstWalletId = TestWallets.create(walletRepository, 4L, "50").getId();
+        Long secondWalletId = TestWallets.create(walletRepository, 5L, "50").getId();
+
+        // Act
+        BatchResponse response = batchService.execute(request(BatchMode.ALL_OR_NOTHING,
+                operation(TransactionType.TRANSFER, secondWalletId, firstWalletId, "20"),
+                operation(TransactionType.TRANSFER, firstWalletId, secondWalletId, "5")));
+
+        // Assert
+        assertTrue(response.committed());
+        assertEquals(Money.of(new BigDecimal("65")), walletRepository.findById(firstWalletId).orElseThrow().getBalance());
+        assertEquals(Money.of(new BigDecimal("35")), walletRepository.findById(secondWalletId).orElseThrow().getBalance());
+    }
+
+    /**
+     * Tests that a batch's transaction and outbox rows each go out as one JDBC batch: ids come from
+     * pooled sequence blocks, so no insert has to run alone to learn its generated key.
+     */
+    @Test
+    public void testInsertsAreBatched() {
+        // Arrange
+        Long firstWalletId = TestWallets.create(walletRepository, 6L, "0").getId();
+        Long secondWalletId = TestWallets.create(walletRepository, 7L, "0").getId();
+        // The pooled id optimizer queries the sequence twice before it hands out a full block.
+        batchService.execute(request(BatchMode.ALL_OR_NOTHING, operation(TransactionType.CREDIT, firstWalletId, null, "1")));
+        batchService.execute(request(BatchMode.ALL_OR_NOTHING, operation(TransactionType.CREDIT, firstWalletId, null, "1")));
+        List<BatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            operations.add(operation(TransactionType.CREDIT, i % 2 == 0 ? firstWalletId : secondWalletId, null, "1"));
+        }
+
+        // Act
+        SqlStatementScope scope = SqlAssertions.countStatements(
+                () -> batchService.execute(request(BatchMode.ALL_OR_NOTHING, operations.toArray(BatchOperation[]::new))));
+
+        // Assert
+        // One locking select, a batch of ten transaction inserts, a batch of ten outbox inserts and
+        // one batch of two wallet updates.
+        assertEquals(23, scope.getStatements());
+        assertEquals(4, scope.getRoundTrips());
+        assertEquals(22, scope.getRowsWritten());
+    }
+
+    /**
+     * Tests that every wallet a batch touches is locked by one statement, in ascending id order,
+     * whatever order the operations name them in.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLocksWalletsInAscendingIdOrder() {
+        // Arrange
+        WalletRepository wallets = mock(WalletRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        BatchService service = new BatchService(wallets, mock(TransactionRepository.class),
+                mock(TransactionFactory.class), mock(SplitBalanceService.class), transactionManager,
+                new LockRetryTemplate(new RetryProperties(), new SimpleMeterRegistry()), event -> { },
+                mock(ObjectProvider.class), mock(OutboxWriter.class), mock(VelocityLimiter.class));
+
+        // Act
+        service.execute(request(BatchMode.BEST_EFFORT,
+                operation(TransactionType.TRANSFER, 9L, 1L, "1"),
+                operation(TransactionType.CREDIT, 5L, null, "1"),
+                operation(TransactionType.TRANSFER, 1L, 9L, "1")));
+
+        // Assert
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(wallets).findAllByIdInOrderByIdAsc(ids.capture());
+        assertEquals(List.of(1L, 5L, 9L), new ArrayList<>(ids.getValue()));
+    }
+
+    private static BatchRequest request(BatchMode mode, BatchOperation... operations) {
+        BatchRequest request = new BatchRequest();
+        request.setMode(mode);
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static BatchOperation operation(TransactionType type, Long walletId, Long targetWalletId, String amount) {
+        BatchOperation operation = new BatchOperation();
+        operation.setType(type);
+        operation.setWalletId(walletId);
+        operation.setTargetWalletId(targetWalletId);
+        operation.setCurrencyCode("USD");
+        operation.setAmount(new BigDecimal(amount));
+        return operation;
+    }
+}
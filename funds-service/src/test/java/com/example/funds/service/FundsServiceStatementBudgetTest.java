@@ -0,0 +1,99 @@
+package com.example.funds.service;
+
+import com.example.funds.jdbc.SqlAssertions;
+import com.example.funds.model.Transaction;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Pins the number of SQL statements each funds operation issues, so that an extra query or a
+ * lost batch fails the build. Runs on H2, which issues the same statements as MySQL on these
+ * paths once the transaction id block has been allocated.
+ */
+@H2Test
+public class FundsServiceStatementBudgetTest {
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    private Long sourceWalletId;
+    private Long targetWalletId;
+
+    @BeforeEach
+    public void setUp() {
+        sourceWalletId = TestWallets.create(walletRepository, 1L, "1000").getId();
+        targetWalletId = TestWallets.create(walletRepository, 2L, "1000").getId();
+        // The pooled id optimizer queries the sequence twice before it hands out a full block;
+        // doing that here keeps the sequence out of every measured operation.
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+    }
+
+    /**
+     * Tests that a credit locks the wallet, inserts the transaction and its outbox event and
+     * updates the balance.
+     */
+    @Test
+    public void testCreditStatementBudget() {
+        // Act
+        Transaction transaction = SqlAssertions.assertMaxStatements(4,
+                () -> fundsService.credit(sourceWalletId, "USD", BigDecimal.TEN));
+
+        // Assert
+        assertNotNull(transaction.getId());
+    }
+
+    /**
+     * Tests that a debit costs the same as a credit.
+     */
+    @Test
+    public void testDebitStatementBudget() {
+        // Act
+        Transaction transaction = SqlAssertions.assertMaxStatements(4,
+                () -> fundsService.debit(sourceWalletId, "USD", BigDecimal.TEN));
+
+        // Assert
+        assertNotNull(transaction.getId());
+    }
+
+    /**
+     * Tests that a transfer locks both wallets in one statement and updates them in one batch.
+     */
+    @Test
+    public void testTransferStatementBudget() {
+        // Act
+        Transaction transaction = SqlAssertions.assertMaxStatements(5,
+                () -> fundsService.transfer(sourceWalletId, targetWalletId, "USD", BigDecimal.TEN));
+
+        // Assert
+        assertNotNull(transaction.getId());
+    }
+
+    /**
+     * Tests that a reversal locks the original transaction and the wallet, records the reversal
+     * with its outbox event and updates both rows.
+     */
+    @Test
+    public void testReverseStatementBudget() {
+        // Arrange
+        Transaction credit = fundsService.credit(sourceWalletId, "USD", BigDecimal.TEN);
+
+        // Act
+        Transaction reversal = SqlAssertions.assertMaxStatements(6,
+                () -> fundsService.reverse(credit.getReferenceId().toString()));
+
+        // Assert
+        assertNotNull(reversal.getId());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.funds.service;
+
+import com.example.funds.config.RetryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LockRetryTemplateTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LockRetryTemplate lockRetryTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+        lockRetryTemplate = new LockRetryTemplate(properties, meterRegistry);
+    }
+
+    /**
+     * Tests that an action aborted by a deadlock is re-run and its result returned,
+     * and that the retry is counted under the deadlock cause.
+     */
+    @Test
+    public void testRetriesDeadlockAndSucceeds() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = lockRetryTemplate.execute("transfer", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw deadlock();
+            }
+            return "done";
+        });
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("funds.lock.retries")
+                .tag("cause", "deadlock")
+                .tag("outcome", "retried")
+                .counter().count());
+    }
+
+    /**
+     * Tests that the last lock failure is rethrown once the attempt budget is spent.
+     */
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(CannotAcquireLockException.class, () -> lockRetryTemplate.execute("transfer", () -> {
+            calls.incrementAndGet();
+            throw deadlock();
+        }));
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.get("funds.lock.retries")
+                .tag("outcome", "exhausted")
+                .counter().count());
+    }
+
+    /**
+     * Tests that business exceptions are not retried.
+     */
+    @Test
+    public void testDoesNotRetryBusinessFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> lockRetryTemplate.execute("transfer", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Insufficient funds");
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    private static CannotAcquireLockException deadlock() {
+        return new CannotAcquireLockException("Deadlock found",
+                new SQLException("Deadlock found when trying to get lock", "40001", 1213));
+    }
+}
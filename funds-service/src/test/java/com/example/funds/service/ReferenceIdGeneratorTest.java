@@ -0,0 +1,95 @@
+package com.example.funds.service;
+
+import com.example.funds.config.IdProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReferenceIdGeneratorTest {
+
+    /**
+     * Tests that generated ids are version 7 UUIDs carrying the configured node id.
+     */
+    @Test
+    public void testGeneratesVersion7WithNodeId() {
+        // Arrange
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(nodeId(513));
+
+        // Act
+        UUID id = generator.next();
+
+        // Assert
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(513L, (id.getLeastSignificantBits() >>> 52) & 0x3FF);
+    }
+
+    /**
+     * Tests that ids from one generator sort in creation order when compared as unsigned bytes,
+     * which is how MySQL orders BINARY(16) values.
+     */
+    @Test
+    public void testIdsAreMonotonic() {
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(nodeId(1));
+
+        UUID previous = generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = generator.next();
+            assertTrue(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = current;
+        }
+    }
+
+    /**
+     * Tests that concurrent callers never receive the same id.
+     */
+    @Test
+    public void testIdsAreUniqueAcrossThreads() throws Exception {
+        // Arrange
+        ReferenceIdGenerator generator = new ReferenceIdGenerator(nodeId(2));
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.next());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(160_000, ids.size());
+    }
+
+    /**
+     * Tests that a node id outside the 10-bit range is rejected.
+     */
+    @Test
+    public void testRejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceIdGenerator(nodeId(1024)));
+    }
+
+    private static IdProperties nodeId(int nodeId) {
+        IdProperties properties = new IdProperties();
+        properties.setNodeId(nodeId);
+        return properties;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.funds.service;
+
+import com.example.funds.dto.TransactionHistoryItem;
+import com.example.funds.dto.TransactionHistoryPage;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@H2Test
+@AutoConfigureMockMvc
+public class TransactionHistoryServiceTest {
+
+    @Autowired
+    private TransactionHistoryService historyService;
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Tests that following nextCursor lists every transaction of the wallet once, newest first.
+     */
+    @Test
+    public void testPagesNewestFirstWithoutGaps() {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 1L, "0").getId();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, fundsService.credit(walletId, "USD", BigDecimal.ONE).getId());
+        }
+
+        // Act
+        List<Long> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionHistoryPage page = historyService.history(walletId, null, null, null, null, cursor, 2)
+                    .orElseThrow();
+            page.items().forEach(item -> listed.add(item.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(expected, listed);
+        assertEquals(3, pages);
+    }
+
+    /**
+     * Tests that the type, status and time range filters each narrow the history.
+     */
+    @Test
+    public void testFilters() {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 2L, "100").getId();
+        Transaction reversed = fundsService.credit(walletId, "USD", BigDecimal.TEN);
+        fundsService.credit(walletId, "USD", BigDecimal.TEN);
+        fundsService.debit(walletId, "USD", BigDecimal.ONE);
+        fundsService.reverse(reversed.getReferenceId().toString());
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+
+        // Act
+        List<TransactionHistoryItem> debits = items(walletId, null, null, TransactionType.DEBIT, null);
+        List<TransactionHistoryItem> reversedItems = items(walletId, null, null, null, TransactionStatus.REVERSED);
+        List<TransactionHistoryItem> all = items(walletId, null, future, null, null);
+        List<TransactionHistoryItem> none = items(walletId, future, null, null, null);
+
+        // Assert
+        assertEquals(1, debits.size());
+        assertEquals(0, BigDecimal.ONE.compareTo(debits.get(0).amount()));
+        assertEquals(List.of(reversed.getId()), reversedItems.stream().map(TransactionHistoryItem::id).toList());
+        assertEquals(4, all.size());
+        assertTrue(none.isEmpty());
+    }
+
+    /**
+     * Tests that a transfer is listed under its source wallet only.
+     */
+    @Test
+    public void testTransferListedUnderSourceOnly() {
+        // Arrange
+        Long sourceWalletId = TestWallets.create(walletRepository, 3L, "10").getId();
+        Long targetWalletId = TestWallets.create(walletRepository, 4L, "0").getId();
+
+        // Act
+        fundsService.transfer(sourceWalletId, targetWalletId, "USD", BigDecimal.ONE);
+
+        // Assert
+        assertEquals(1, items(sourceWalletId, null, null, TransactionType.TRANSFER, null).size());
+        assertTrue(items(targetWalletId, null, null, null, null).isEmpty());
+    }
+
+    /**
+     * Tests that the endpoint pages a wallet's history and answers 404 for an unknown wallet.
+     */
+    @Test
+    public void testHistoryEndpoint() throws Exception {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 5L, "0").getId();
+        fundsService.credit(walletId, "USD", BigDecimal.ONE);
+        fundsService.credit(walletId, "USD", BigDecimal.TEN);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/wallets/{id}/transactions", walletId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].amount").value(10))
+                .andExpect(jsonPath("$.nextCursor").isString());
+        mockMvc.perform(get("/api/v1/wallets/{id}/transactions", -1L))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<TransactionHistoryItem> items(Long walletId, LocalDateTime from, LocalDateTime to,
+                                               TransactionType type, TransactionStatus status) {
+        return historyService.history(walletId, from, to, type, status, null, 50).orElseThrow().items();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.funds.service;
+
+import com.example.funds.config.WalletCacheProperties;
+import com.example.funds.dto.WalletResponse;
+import com.example.funds.model.Wallet;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.split.SplitBalanceService;
+import com.example.funds.support.TestWallets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WalletCacheTest {
+
+    private WalletRepository walletRepository;
+    private WalletCache walletCache;
+
+    @BeforeEach
+    public void setUp() {
+        walletRepository = mock(WalletRepository.class);
+        SplitBalanceService splitBalances = mock(SplitBalanceService.class);
+        when(splitBalances.totalBalance(any())).thenAnswer(invocation -> invocation.<Wallet>getArgument(0).getBalance());
+        walletCache = new WalletCache(walletRepository, splitBalances, new WalletCacheProperties(),
+                new SimpleMeterRegistry(), mock(PlatformTransactionManager.class));
+    }
+
+    /**
+     * Tests that a read which loaded a wallet before a change committed does not cache what it
+     * loaded once the change has evicted the wallet.
+     */
+    @Test
+    public void testStaleLoadIsNotCachedAfterEviction() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        when(walletRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(evicted.await(5, TimeUnit.SECONDS));
+                    return Optional.of(TestWallets.detached(1L, 7L, "100"));
+                })
+                .thenReturn(Optional.of(TestWallets.detached(1L, 7L, "150")));
+
+        // Act
+        CompletableFuture<Optional<WalletResponse>> staleRead =
+                CompletableFuture.supplyAsync(() -> walletCache.findById(1L, false));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        walletCache.onWalletsChanged(new WalletsChangedEvent(List.of(1L)));
+        evicted.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, new BigDecimal("150").compareTo(walletCache.findById(1L, false).orElseThrow().balance()));
+        assertEquals(0, new BigDecimal("150").compareTo(walletCache.findById(1L, false).orElseThrow().balance()));
+        verify(walletRepository, times(2)).findById(1L);
+    }
+
+    /**
+     * Tests that evicting a wallet drops its customer and currency lookup as well as its snapshot.
+     */
+    @Test
+    public void testEvictByCustomerAndCurrency() {
+        // Arrange
+        Wallet wallet = TestWallets.detached(1L, 7L, "100");
+        when(walletRepository.findByCustomerIdAndCurrencyCode(7L, "USD")).thenReturn(Optional.of(wallet));
+        walletCache.findByCustomerAndCurrency(7L, "USD", false);
+
+        // Act
+        walletCache.evict(wallet);
+        walletCache.findByCustomerAndCurrency(7L, "USD", false);
+
+        // Assert
+        verify(walletRepository, times(2)).findByCustomerIdAndCurrencyCode(7L, "USD");
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.funds.service;
+
+import com.example.funds.dto.CursorToken;
+import com.example.funds.dto.WalletPage;
+import com.example.funds.dto.WalletResponse;
+import com.example.funds.model.Wallet;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.split.SplitBalanceService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@H2Test
+@AutoConfigureMockMvc
+public class WalletListingServiceTest {
+
+    @Autowired
+    private WalletListingService walletListingService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private SplitBalanceService splitBalances;
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Tests that following nextCursor from page to page visits every wallet exactly once, in id
+     * order, and that the last page has no cursor.
+     */
+    @Test
+    public void testKeysetWalkHasNoGapsOrDuplicates() {
+        // Arrange
+        for (long customerId = 101; customerId <= 107; customerId++) {
+            TestWallets.create(walletRepository, customerId, "1");
+        }
+        List<Long> expected = walletRepository.findAll().stream().map(Wallet::getId).sorted().toList();
+
+        // Act
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            WalletPage page = walletListingService.page(null, null, cursor, 3);
+            page.items().forEach(item -> visited.add(item.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(expected, visited);
+        assertEquals(expected.size() / 3 + 1, pages);
+    }
+
+    /**
+     * Tests that the customer and currency filters narrow a page to the matching wallets.
+     */
+    @Test
+    public void testFiltersByCustomerAndCurrency() {
+        // Arrange
+        Long usdWalletId = TestWallets.create(walletRepository, 201L, "USD", "1").getId();
+        Long eurWalletId = TestWallets.create(walletRepository, 201L, "EUR", "1").getId();
+        TestWallets.create(walletRepository, 202L, "EUR", "1");
+
+        // Act
+        WalletPage byCustomer = walletListingService.page(201L, null, null, 50);
+        WalletPage byBoth = walletListingService.page(201L, "EUR", null, 50);
+
+        // Assert
+        assertEquals(List.of(usdWalletId, eurWalletId), byCustomer.items().stream().map(WalletResponse::id).toList());
+        assertEquals(List.of(eurWalletId), byBoth.items().stream().map(WalletResponse::id).toList());
+        assertNull(byBoth.nextCursor());
+    }
+
+    /**
+     * Tests that a page size above the cap of 500, or below one, is rejected.
+     */
+    @Test
+    public void testLimitIsCapped() {
+        // Act
+        IllegalArgumentException tooLarge = assertThrows(IllegalArgumentException.class,
+                () -> walletListingService.page(null, null, null, WalletListingService.MAX_PAGE_SIZE + 1));
+        IllegalArgumentException tooSmall = assertThrows(IllegalArgumentException.class,
+                () -> walletListingService.page(null, null, null, 0));
+
+        // Assert
+        assertEquals("Limit must be between 1 and 500", tooLarge.getMessage());
+        assertEquals(tooLarge.getMessage(), tooSmall.getMessage());
+        assertNotNull(walletListingService.page(null, null, null, WalletListingService.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Tests that a cursor round-trips its keys and that a tampered one is rejected.
+     */
+    @Test
+    public void testCursorToken() {
+        // Act
+        String token = CursorToken.encode(42L, -7L);
+
+        // Assert
+        assertEquals(List.of(42L, -7L), List.of(CursorToken.decode(token, 2)[0], CursorToken.decode(token, 2)[1]));
+        assertEquals("Invalid cursor",
+                assertThrows(IllegalArgumentException.class, () -> CursorToken.decode(token, 1)).getMessage());
+        assertEquals("Invalid cursor",
+                assertThrows(IllegalArgumentException.class, () -> CursorToken.decode("not base64!", 1)).getMessage());
+    }
+
+    /**
+     * Tests that the export writes one JSON line per matching wallet, with split wallets reported
+     * at their total balance.
+     */
+    @Test
+    public void testStreamWritesOneLinePerWallet() throws Exception {
+        // Arrange
+        Long plainWalletId = TestWallets.create(walletRepository, 301L, "USD", "10").getId();
+        Long splitWalletId = TestWallets.create(walletRepository, 301L, "EUR", "20").getId();
+        splitBalances.split(splitWalletId, 2);
+        fundsService.credit(splitWalletId, "EUR", new BigDecimal("5"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        walletListingService.stream(301L, null, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        WalletResponse plain = objectMapper.readValue(lines[0], WalletResponse.class);
+        WalletResponse split = objectMapper.readValue(lines[1], WalletResponse.class);
+        assertEquals(plainWalletId, plain.id());
+        assertEquals(0, new BigDecimal("10").compareTo(plain.balance()));
+        assertEquals(splitWalletId, split.id());
+        assertEquals(0, new BigDecimal("25").compareTo(split.balance()));
+    }
+
+    /**
+     * Tests that the listing endpoint returns a page and a cursor for the next one.
+     */
+    @Test
+    public void testListingEndpointReturnsCursor() throws Exception {
+        // Arrange
+        TestWallets.create(walletRepository, 401L, "USD", "1");
+        TestWallets.create(walletRepository, 401L, "EUR", "1");
+        TestWallets.create(walletRepository, 401L, "GBP", "1");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/wallets").param("customerId", "401").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isString());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.funds.service.archive;
+
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TransactionArchiveFileTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that each wallet's segment can be read back on its own from the recorded byte range.
+     */
+    @Test
+    public void testSegmentsReadIndependently() throws IOException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 3, 14, 9, 30);
+        List<ArchivedTransaction> rows = List.of(
+                row(3, 1L, null, now),
+                row(1, 1L, null, now.minusHours(1)),
+                row(7, 2L, 5L, now.minusMinutes(5)),
+                row(2, 5L, null, now.minusDays(2)));
+        Path file = directory.resolve("transaction-p202503.tsv.gz");
+
+        // Act
+        List<TransactionArchiveFile.Segment> segments = write(file, rows);
+
+        // Assert
+        assertEquals(3, segments.size());
+        TransactionArchiveFile.Segment first = segments.get(0);
+        assertEquals(1L, first.walletId());
+        assertEquals(2, first.rows());
+        assertEquals(now.minusHours(1), first.firstCreatedAt());
+        assertEquals(now, first.lastCreatedAt());
+        assertEquals(rows.subList(0, 2), TransactionArchiveFile.read(file, first.offset(), first.length()));
+        TransactionArchiveFile.Segment second = segments.get(1);
+        assertEquals(List.of(rows.get(2)), TransactionArchiveFile.read(file, second.offset(), second.length()));
+        TransactionArchiveFile.Segment third = segments.get(2);
+        assertEquals(first.length() + second.length(), third.offset());
+        assertEquals(List.of(rows.get(3)), TransactionArchiveFile.read(file, third.offset(), third.length()));
+    }
+
+    /**
+     * Tests that the whole file is still one readable gzip stream with a line per row.
+     */
+    @Test
+    public void testFileReadsAsPlainGzip() throws IOException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 3, 14, 9, 30);
+        Path file = directory.resolve("transaction-p_history.tsv.gz");
+        write(file, List.of(row(1, 1L, null, now), row(2, 2L, null, now), row(3, 3L, 1L, now)));
+
+        // Act
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+
+        // Assert
+        assertEquals(3, lines.size());
+        assertEquals("3", lines.get(2).split("\t")[0]);
+    }
+
+    /**
+     * Tests that an empty partition produces no segment.
+     */
+    @Test
+    public void testEmptyPartitionHasNoSegment() throws IOException {
+        // Arrange
+        Path file = directory.resolve("transaction-p202504.tsv.gz");
+
+        // Act
+        try (TransactionArchiveFile.SegmentWriter writer = TransactionArchiveFile.create(file)) {
+            // Assert
+            assertNull(writer.finish());
+            assertEquals(0, writer.rows());
+        }
+    }
+
+    private static List<TransactionArchiveFile.Segment> write(Path file, List<ArchivedTransaction> rows) throws IOException {
+        List<TransactionArchiveFile.Segment> segments = new ArrayList<>();
+        try (TransactionArchiveFile.SegmentWriter writer = TransactionArchiveFile.create(file)) {
+            for (ArchivedTransaction row : rows) {
+                TransactionArchiveFile.Segment finished = writer.write(row);
+                if (finished != null) {
+                    segments.add(finished);
+                }
+            }
+            segments.add(writer.finish());
+        }
+        return segments;
+    }
+
+    private static ArchivedTransaction row(long id, long walletId, Long counterpartyWalletId, LocalDateTime createdAt) {
+        return new ArchivedTransaction(id, UUID.randomUUID(), walletId, counterpartyWalletId,
+                counterpartyWalletId == null ? TransactionType.CREDIT : TransactionType.TRANSFER,
+                TransactionStatus.COMPLETED, new BigDecimal("12.3400"), createdAt);
+    }
+}
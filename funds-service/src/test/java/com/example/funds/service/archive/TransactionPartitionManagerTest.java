@@ -0,0 +1,40 @@
+package com.example.funds.service.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionPartitionManagerTest {
+
+    /**
+     * Tests that partitions are planned month by month from the current last bound.
+     */
+    @Test
+    public void testMonthsToAddContinueFromLastBound() {
+        // Arrange
+        long lastBound = TransactionPartitionManager.epochSecond(YearMonth.of(2025, 11));
+
+        // Act
+        List<YearMonth> months = TransactionPartitionManager.monthsToAdd(lastBound, YearMonth.of(2026, 2));
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2025, 11), YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2)),
+                months);
+    }
+
+    /**
+     * Tests that nothing is planned once partitions already reach the target month.
+     */
+    @Test
+    public void testNoMonthsWhenAlreadyAhead() {
+        // Arrange
+        long lastBound = TransactionPartitionManager.epochSecond(YearMonth.of(2026, 3));
+
+        // Act & Assert
+        assertTrue(TransactionPartitionManager.monthsToAdd(lastBound, YearMonth.of(2026, 2)).isEmpty());
+    }
+}
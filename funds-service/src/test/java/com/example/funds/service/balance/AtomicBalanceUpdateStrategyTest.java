@@ -0,0 +1,134 @@
+package com.example.funds.service.balance;
+
+import com.example.funds.jdbc.SqlAssertions;
+import com.example.funds.model.Transaction;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the atomic strategy to one statement per balance change: no locking read before the
+ * UPDATE and no reload after it.
+ */
+@H2Test
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "funds.balance-update.strategy=atomic")
+public class AtomicBalanceUpdateStrategyTest {
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long sourceWalletId;
+    private Long targetWalletId;
+
+    @BeforeEach
+    public void setUp() {
+        sourceWalletId = TestWallets.create(walletRepository, 1L, "1000").getId();
+        targetWalletId = TestWallets.create(walletRepository, 2L, "1000").getId();
+        // Keeps the transaction sequence out of the measured operations, as in FundsServiceStatementBudgetTest.
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+    }
+
+    /**
+     * Tests that credits, debits and transfers change the balances without loading the wallets
+     * they return.
+     */
+    @Test
+    public void testBalanceChangesDoNotReloadWallets() {
+        // Act
+        Transaction credit = fundsService.credit(sourceWalletId, "USD", BigDecimal.TEN);
+        Transaction debit = fundsService.debit(sourceWalletId, "USD", new BigDecimal("4"));
+        Transaction transfer = fundsService.transfer(sourceWalletId, targetWalletId, "USD", BigDecimal.ONE);
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(credit.getWallet()));
+        assertFalse(Hibernate.isInitialized(debit.getWallet()));
+        assertFalse(Hibernate.isInitialized(transfer.getWallet()));
+        assertEquals(sourceWalletId, debit.getWallet().getId());
+        assertEquals(Money.of(new BigDecimal("1007")), walletRepository.findById(sourceWalletId).orElseThrow().getBalance());
+        assertEquals(Money.of(new BigDecimal("1001")), walletRepository.findById(targetWalletId).orElseThrow().getBalance());
+    }
+
+    /**
+     * Tests that a credit and a debit each update the balance and insert the transaction and its
+     * outbox event, and nothing else.
+     */
+    @Test
+    public void testCreditAndDebitStatementBudget() {
+        // Act
+        Transaction credit = SqlAssertions.assertMaxStatements(3,
+                () -> fundsService.credit(sourceWalletId, "USD", BigDecimal.TEN));
+        Transaction debit = SqlAssertions.assertMaxStatements(3,
+                () -> fundsService.debit(sourceWalletId, "USD", new BigDecimal("4")));
+
+        // Assert
+        assertNotNull(credit.getId());
+        assertEquals(sourceWalletId, debit.getWallet().getId());
+    }
+
+    /**
+     * Tests that a transfer updates both wallets and inserts one transaction and its outbox event.
+     */
+    @Test
+    public void testTransferStatementBudget() {
+        // Act
+        SqlAssertions.assertMaxStatements(4,
+                () -> fundsService.transfer(sourceWalletId, targetWalletId, "USD", BigDecimal.TEN));
+
+        // Assert
+        assertEquals(Money.of(new BigDecimal("1010")), walletRepository.findById(targetWalletId).orElseThrow().getBalance());
+    }
+
+    /**
+     * Tests that a transaction whose wallet was never loaded is still returned with its wallet id.
+     */
+    @Test
+    public void testCreditResponseIncludesWallet() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/funds/credit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"walletId\":" + sourceWalletId + ",\"currencyCode\":\"USD\",\"amount\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.walletId").value(sourceWalletId));
+    }
+
+    /**
+     * Tests that a debit the balance cannot cover still fails with "Insufficient funds".
+     */
+    @Test
+    public void testInsufficientFunds() {
+        // Act
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> fundsService.debit(targetWalletId, "USD", new BigDecimal("1000.01")));
+
+        // Assert
+        assertEquals("Insufficient funds", ex.getMessage());
+    }
+}
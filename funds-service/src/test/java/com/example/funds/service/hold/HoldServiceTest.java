@@ -0,0 +1,144 @@
+package com.example.funds.service.hold;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.TransactionHoldRepository;
+import com.example.funds.repository.TransactionRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@H2Test
+public class HoldServiceTest {
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionHoldRepository holdRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long walletId;
+
+    @BeforeEach
+    public void setUp() {
+        walletId = TestWallets.create(walletRepository, 1L, "100").getId();
+    }
+
+    /**
+     * Tests that an authorization takes the amount out of what debits may spend, and that a
+     * partial capture debits only the captured amount and releases the rest.
+     */
+    @Test
+    public void testAuthorizeAndPartialCapture() {
+        // Act
+        HoldService.Authorization authorization = fundsService.authorize(walletId, "USD", new BigDecimal("60"), null);
+
+        // Assert
+        assertEquals(TransactionStatus.PENDING, authorization.transaction().getStatus());
+        assertBalances("40", "60");
+        assertThrows(IllegalStateException.class, () -> fundsService.debit(walletId, "USD", new BigDecimal("41")));
+        assertThrows(IllegalStateException.class,
+                () -> fundsService.reverse(authorization.transaction().getReferenceId().toString()));
+
+        // Act
+        String referenceId = authorization.transaction().getReferenceId().toString();
+        Transaction capture = fundsService.capture(referenceId, new BigDecimal("25"));
+
+        // Assert
+        assertEquals(TransactionStatus.COMPLETED, capture.getStatus());
+        assertEquals(Money.of(new BigDecimal("25")), capture.getAmount());
+        assertBalances("75", "0");
+        assertFalse(holdRepository.existsById(capture.getReferenceId()));
+        assertThrows(IllegalArgumentException.class, () -> fundsService.capture(referenceId, null));
+    }
+
+    /**
+     * Tests that a capture may not exceed the authorized amount and that a void returns all of it.
+     */
+    @Test
+    public void testVoid() {
+        // Arrange
+        String referenceId = fundsService.authorize(walletId, "USD", new BigDecimal("30"), Duration.ofMinutes(5))
+                .transaction().getReferenceId().toString();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fundsService.capture(referenceId, new BigDecimal("30.01")));
+        Transaction voided = fundsService.voidAuthorization(referenceId);
+        assertEquals(TransactionStatus.REVERSED, voided.getStatus());
+        assertBalances("100", "0");
+        assertThrows(IllegalArgumentException.class, () -> fundsService.voidAuthorization(referenceId));
+    }
+
+    /**
+     * Tests that expiry releases a hold once its time has passed and leaves its debit FAILED,
+     * and that expiring it again does nothing.
+     */
+    @Test
+    public void testExpiry() {
+        // Arrange
+        UUID referenceId = fundsService.authorize(walletId, "USD", new BigDecimal("10"), Duration.ofMinutes(5))
+                .transaction().getReferenceId();
+        holdService.expire(referenceId);
+        assertBalances("90", "10");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> holdRepository.findById(referenceId)
+                .orElseThrow()
+                .setExpiresAt(LocalDateTime.now().minusSeconds(1)));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> fundsService.capture(referenceId.toString(), null));
+        holdService.expire(referenceId);
+        holdService.expire(referenceId);
+
+        // Assert
+        assertBalances("100", "0");
+        assertEquals(TransactionStatus.FAILED, transactionRepository.findByReferenceId(referenceId).orElseThrow().getStatus());
+    }
+
+    /**
+     * Tests that an authorization must fit in the wallet's balance and in the maximum expiry.
+     */
+    @Test
+    public void testAuthorizationLimits() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> fundsService.authorize(walletId, "USD", new BigDecimal("100.01"), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> fundsService.authorize(walletId, "USD", BigDecimal.ONE, Duration.ofDays(365)));
+        assertBalances("100", "0");
+    }
+
+    private void assertBalances(String balance, String heldBalance) {
+        Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(Money.of(new BigDecimal(balance)), wallet.getBalance());
+        assertEquals(Money.of(new BigDecimal(heldBalance)), wallet.getHeldBalance());
+    }
+}
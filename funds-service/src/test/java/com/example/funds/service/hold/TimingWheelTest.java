@@ -0,0 +1,83 @@
+package com.example.funds.service.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    /**
+     * Tests that deadlines on every level of the wheel come due on their own tick, in order, and
+     * never before it.
+     */
+    @Test
+    public void testDeadlinesComeDueOnTime() {
+        // Arrange
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 1_000);
+        long[] deadlines = {1_005, 1_015, 3_555, 700_000, 50_000_000, 2_000_000_000_000L};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        // Act & Assert
+        for (long deadline : deadlines) {
+            assertEquals(List.of(), wheel.advance(deadline - 10));
+            assertEquals(List.of(deadline), wheel.advance(Math.ceilDiv(deadline, 10) * 10));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that a cancelled or rescheduled key only comes due at its current deadline, and that
+     * a deadline already passed comes due on the next advance.
+     */
+    @Test
+    public void testCancelAndReschedule() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(100, 0);
+        wheel.schedule("cancelled", 5_000);
+        wheel.schedule("moved", 5_000);
+        wheel.schedule("overdue", -1);
+
+        // Act
+        boolean cancelled = wheel.cancel("cancelled");
+        wheel.schedule("moved", 90_000);
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(wheel.cancel("cancelled"));
+        assertEquals(List.of("overdue"), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(60_000));
+        assertEquals(List.of("moved"), wheel.advance(90_000));
+    }
+
+    /**
+     * Tests that many keys scheduled at random offsets all come due exactly once and in deadline order.
+     */
+    @Test
+    public void testManyDeadlines() {
+        // Arrange
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 0);
+        Random random = new Random(7);
+        int[] deadlines = new int[100_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = 1 + random.nextInt(200_000);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        // Act
+        List<Integer> due = wheel.advance(200_000);
+
+        // Assert
+        assertEquals(deadlines.length, due.size());
+        for (int i = 1; i < due.size(); i++) {
+            assertTrue(deadlines[due.get(i - 1)] <= deadlines[due.get(i)]);
+        }
+        assertEquals(0, wheel.size());
+    }
+}
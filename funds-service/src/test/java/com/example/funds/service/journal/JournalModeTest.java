@@ -0,0 +1,174 @@
+package com.example.funds.service.journal;
+
+import com.example.funds.dto.BatchMode;
+import com.example.funds.dto.BatchOperation;
+import com.example.funds.dto.BatchRequest;
+import com.example.funds.dto.BatchResponse;
+import com.example.funds.model.JournalEntry;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.model.Transaction;
+import com.example.funds.money.Money;
+import com.example.funds.repository.BalanceSnapshotRepository;
+import com.example.funds.repository.JournalEntryRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.BatchService;
+import com.example.funds.service.FundsService;
+import com.example.funds.service.split.SplitBalanceService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@H2Test
+@TestPropertySource(properties = {
+        "funds.balance-update.strategy=journal",
+        "funds.journal.min-tail=2",
+        "funds.journal.compaction-interval=1h"
+})
+public class JournalModeTest {
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private SplitBalanceService splitBalances;
+
+    @Autowired
+    private JournalCompactor compactor;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntries;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshots;
+
+    private Long sourceWalletId;
+    private Long targetWalletId;
+
+    @BeforeEach
+    public void setUp() {
+        sourceWalletId = TestWallets.create(walletRepository, 1L, "100").getId();
+        targetWalletId = TestWallets.create(walletRepository, 2L, "0").getId();
+    }
+
+    /**
+     * Tests that operations are reflected in the reported balance while the wallet row keeps
+     * its opening balance, and that a debit is checked against the journal balance.
+     */
+    @Test
+    public void testBalancesDerivedFromJournal() {
+        // Act
+        fundsService.credit(sourceWalletId, "USD", new BigDecimal("50"));
+        Transaction transfer = fundsService.transfer(sourceWalletId, targetWalletId, "USD", new BigDecimal("120"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("30").compareTo(balance(sourceWalletId)));
+        assertEquals(0, new BigDecimal("120").compareTo(balance(targetWalletId)));
+        assertEquals(0, new BigDecimal("100").compareTo(Money.toDecimal(walletRepository.findById(sourceWalletId).get().getBalance())));
+        assertThrows(IllegalStateException.class,
+                () -> fundsService.debit(sourceWalletId, "USD", new BigDecimal("31")));
+
+        // Act
+        fundsService.reverse(transfer.getReferenceId().toString());
+
+        // Assert
+        assertEquals(0, new BigDecimal("150").compareTo(balance(sourceWalletId)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance(targetWalletId)));
+    }
+
+    /**
+     * Tests that compaction replaces the tail with a single snapshot without changing the balance.
+     */
+    @Test
+    public void testCompactionKeepsOneSnapshot() {
+        // Arrange
+        fundsService.credit(sourceWalletId, "USD", new BigDecimal("5"));
+        fundsService.debit(sourceWalletId, "USD", new BigDecimal("2"));
+        compactor.compact();
+        fundsService.credit(sourceWalletId, "USD", new BigDecimal("1"));
+        fundsService.credit(sourceWalletId, "USD", new BigDecimal("1"));
+
+        // Act
+        compactor.compact();
+
+        // Assert
+        assertEquals(1, snapshots.findAll().stream()
+                .filter(snapshot -> snapshot.getWalletId().equals(sourceWalletId))
+                .count());
+        assertEquals(0, new BigDecimal("105").compareTo(balance(sourceWalletId)));
+    }
+
+    /**
+     * Tests that every posting is balanced, so the whole journal sums to zero.
+     */
+    @Test
+    public void testJournalSumsToZero() {
+        // Act
+        fundsService.credit(sourceWalletId, "USD", new BigDecimal("10"));
+        fundsService.transfer(sourceWalletId, targetWalletId, "USD", new BigDecimal("7"));
+        fundsService.debit(targetWalletId, "USD", new BigDecimal("3"));
+
+        // Assert
+        long total = journalEntries.findAll().stream()
+                .mapToLong(JournalEntry::getAmount)
+                .sum();
+        assertEquals(0L, total);
+    }
+
+    /**
+     * Tests that batch items are posted to the journal and checked against the balance the
+     * earlier items of the batch left, without touching the wallet rows.
+     */
+    @Test
+    public void testBatchPostsToJournal() {
+        // Arrange
+        BatchRequest request = new BatchRequest();
+        request.setMode(BatchMode.BEST_EFFORT);
+        request.setOperations(List.of(
+                operation(TransactionType.CREDIT, sourceWalletId, null, "20"),
+                operation(TransactionType.TRANSFER, sourceWalletId, targetWalletId, "110"),
+                operation(TransactionType.DEBIT, sourceWalletId, null, "10.01"),
+                operation(TransactionType.DEBIT, targetWalletId, null, "10")));
+
+        // Act
+        BatchResponse response = batchService.execute(request);
+
+        // Assert
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.COMPLETED, TransactionStatus.FAILED,
+                TransactionStatus.COMPLETED), response.results().stream().map(BatchResponse.ItemResult::status).toList());
+        assertEquals("Insufficient funds", response.results().get(2).error());
+        assertEquals(0, new BigDecimal("10").compareTo(balance(sourceWalletId)));
+        assertEquals(0, new BigDecimal("100").compareTo(balance(targetWalletId)));
+        assertEquals(0, new BigDecimal("100").compareTo(Money.toDecimal(walletRepository.findById(sourceWalletId).get().getBalance())));
+        assertEquals(0L, journalEntries.findAll().stream().mapToLong(JournalEntry::getAmount).sum());
+    }
+
+    private static BatchOperation operation(TransactionType type, Long walletId, Long targetWalletId, String amount) {
+        BatchOperation operation = new BatchOperation();
+        operation.setType(type);
+        operation.setWalletId(walletId);
+        operation.setTargetWalletId(targetWalletId);
+        operation.setCurrencyCode("USD");
+        operation.setAmount(new BigDecimal(amount));
+        return operation;
+    }
+
+    private BigDecimal balance(Long walletId) {
+        return Money.toDecimal(splitBalances.totalBalance(walletRepository.findById(walletId).get()));
+    }
+}
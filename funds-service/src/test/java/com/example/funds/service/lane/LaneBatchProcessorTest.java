@@ -0,0 +1,76 @@
+package com.example.funds.service.lane;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionType;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@H2Test
+@TestPropertySource(properties = {"funds.lanes.enabled=true", "funds.lanes.count=1"})
+public class LaneBatchProcessorTest {
+
+    @Autowired
+    private WalletLaneExecutor lanes;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    /**
+     * Tests that each request in a lane is checked against the balance left by the requests
+     * before it, so one debit the balance cannot cover fails alone.
+     */
+    @Test
+    public void testInsufficientFundsFailsOnlyThatRequest() {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 1L, "10").getId();
+
+        // Act
+        CompletableFuture<Transaction> first = submit(TransactionType.DEBIT, walletId, "8");
+        CompletableFuture<Transaction> uncovered = submit(TransactionType.DEBIT, walletId, "5");
+        CompletableFuture<Transaction> credit = submit(TransactionType.CREDIT, walletId, "3");
+        CompletableFuture<Transaction> last = submit(TransactionType.DEBIT, walletId, "5");
+        List.of(first, credit, last).forEach(CompletableFuture::join);
+
+        // Assert
+        CompletionException ex = assertThrows(CompletionException.class, uncovered::join);
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals("Insufficient funds", ex.getCause().getMessage());
+        assertEquals(0L, walletRepository.findById(walletId).orElseThrow().getBalance());
+    }
+
+    /**
+     * Tests that a request for a wallet that does not exist fails without affecting its group.
+     */
+    @Test
+    public void testUnknownWalletFailsOnlyThatRequest() {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 2L, "0").getId();
+
+        // Act
+        CompletableFuture<Transaction> missing = submit(TransactionType.CREDIT, Long.MAX_VALUE, "1");
+        Transaction credit = submit(TransactionType.CREDIT, walletId, "1").join();
+
+        // Assert
+        CompletionException ex = assertThrows(CompletionException.class, missing::join);
+        assertEquals("Wallet not found", ex.getCause().getMessage());
+        assertEquals(walletId, credit.getWallet().getId());
+    }
+
+    private CompletableFuture<Transaction> submit(TransactionType type, Long walletId, String amount) {
+        return lanes.submit(type, walletId, "USD", Money.of(new BigDecimal(amount)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.funds.service.lane;
+
+import com.example.funds.config.LaneProperties;
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionType;
+import com.example.funds.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class WalletLaneExecutorTest {
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final CountDownLatch processing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private WalletLaneExecutor lanes;
+
+    @BeforeEach
+    public void setUp() {
+        LaneBatchProcessor batchProcessor = mock(LaneBatchProcessor.class);
+        doAnswer(invocation -> {
+            List<LaneRequest> batch = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            processing.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            batch.forEach(request -> request.result().complete(new Transaction()));
+            return null;
+        }).when(batchProcessor).process(any());
+        LaneProperties properties = new LaneProperties();
+        properties.setCount(1);
+        properties.setQueueCapacity(4);
+        lanes = new WalletLaneExecutor(batchProcessor, properties, new MockEnvironment());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        lanes.shutdown();
+    }
+
+    /**
+     * Tests that requests queued while a lane is busy are committed together as one group.
+     */
+    @Test
+    public void testQueuedRequestsAreGroupCommitted() throws Exception {
+        // Arrange
+        CompletableFuture<Transaction> first = credit(1L);
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Transaction>> queued = List.of(credit(1L), credit(2L), credit(3L), credit(1L));
+
+        // Act
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(queued.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of(1, 4), batchSizes);
+    }
+
+    /**
+     * Tests that a request is rejected at once when its lane's queue is full.
+     */
+    @Test
+    public void testFullLaneRejects() throws Exception {
+        // Arrange
+        credit(1L);
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            credit(1L);
+        }
+
+        // Act
+        RejectedExecutionException ex = assertThrows(RejectedExecutionException.class, () -> credit(1L));
+
+        // Assert
+        assertEquals("Wallet lane is full", ex.getMessage());
+    }
+
+    /**
+     * Tests that requests still queued when the lanes shut down fail instead of waiting forever,
+     * and that later requests are rejected.
+     */
+    @Test
+    public void testShutdownFailsQueuedRequests() throws Exception {
+        // Arrange
+        CompletableFuture<Transaction> first = credit(1L);
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Transaction> queued = credit(1L);
+
+        // Act
+        Thread stopper = new Thread(lanes::shutdown);
+        stopper.start();
+        // The lanes are stopped once shutdown() waits for the lane thread to finish its batch.
+        while (stopper.isAlive() && stopper.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        stopper.join(10_000);
+
+        // Assert
+        first.get(5, TimeUnit.SECONDS);
+        CompletionException ex = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+        assertThrows(RejectedExecutionException.class, () -> credit(1L));
+    }
+
+    private CompletableFuture<Transaction> credit(Long walletId) {
+        return lanes.submit(TransactionType.CREDIT, walletId, "USD", Money.of(BigDecimal.ONE));
+    }
+}
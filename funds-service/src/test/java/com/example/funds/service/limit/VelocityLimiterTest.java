@@ -0,0 +1,134 @@
+package com.example.funds.service.limit;
+
+import com.example.funds.dto.BatchMode;
+import com.example.funds.dto.BatchOperation;
+import com.example.funds.dto.BatchRequest;
+import com.example.funds.dto.BatchResponse;
+import com.example.funds.metrics.FundsOperation;
+import com.example.funds.model.TransactionStatus;
+import com.example.funds.model.TransactionType;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.BatchService;
+import com.example.funds.service.FundsService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@H2Test
+@TestPropertySource(properties = {
+        "funds.limits.rules[0].name=wallet-daily",
+        "funds.limits.rules[0].window=1d",
+        "funds.limits.rules[0].currency-code=USD",
+        "funds.limits.rules[0].max-amount=100",
+        "funds.limits.rules[1].name=customer-hourly",
+        "funds.limits.rules[1].scope=customer",
+        "funds.limits.rules[1].window=1h",
+        "funds.limits.rules[1].max-count=3"
+})
+public class VelocityLimiterTest {
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private VelocityLimiter limiter;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Tests that a wallet's debits and transfers together may not exceed its amount limit, and
+     * that a debit refused for insufficient funds does not use any of it up.
+     */
+    @Test
+    public void testWalletAmountLimit() {
+        // Arrange
+        Long walletId = TestWallets.create(walletRepository, 10L, "500").getId();
+        Long targetId = TestWallets.create(walletRepository, 11L, "0").getId();
+        double rejectedBefore = rejected("wallet-daily");
+
+        // Act
+        fundsService.debit(walletId, "USD", new BigDecimal("60"));
+        assertThrows(IllegalStateException.class, () -> fundsService.transfer(walletId, targetId, "USD", new BigDecimal("40.01")));
+        fundsService.transfer(walletId, targetId, "USD", new BigDecimal("40"));
+
+        // Assert
+        IllegalStateException refused = assertThrows(IllegalStateException.class,
+                () -> fundsService.debit(walletId, "USD", new BigDecimal("0.01")));
+        assertEquals("Velocity limit exceeded", refused.getMessage());
+        assertEquals(rejectedBefore + 2, rejected("wallet-daily"));
+
+        // Arrange
+        Long poorId = TestWallets.create(walletRepository, 12L, "5").getId();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> fundsService.debit(poorId, "USD", new BigDecimal("6")));
+        limiter.reserve(FundsOperation.DEBIT, poorId, "USD", Money.of(new BigDecimal("100")));
+    }
+
+    /**
+     * Tests that the count limit spans every wallet of a customer, and that a batch that rolls
+     * back gives back what its items had counted.
+     */
+    @Test
+    public void testCustomerCountLimitAcrossWalletsAndBatches() {
+        // Arrange
+        Long first = TestWallets.create(walletRepository, 20L, "500").getId();
+        Long second = TestWallets.create(walletRepository, 20L, "500").getId();
+        Long otherCustomer = TestWallets.create(walletRepository, 21L, "500").getId();
+
+        // Act
+        BatchResponse rolledBack = batchService.execute(batch(BatchMode.ALL_OR_NOTHING,
+                debit(first, "1"), debit(second, "1"), debit(second, "1000")));
+        fundsService.debit(first, "USD", BigDecimal.ONE);
+        fundsService.debit(second, "USD", BigDecimal.ONE);
+        BatchResponse partial = batchService.execute(batch(BatchMode.BEST_EFFORT, debit(first, "1"), debit(second, "1")));
+
+        // Assert
+        assertFalse(rolledBack.committed());
+        assertEquals(TransactionStatus.COMPLETED, partial.results().get(0).status());
+        assertEquals(TransactionStatus.FAILED, partial.results().get(1).status());
+        assertEquals("Velocity limit exceeded", partial.results().get(1).error());
+        fundsService.debit(otherCustomer, "USD", BigDecimal.ONE);
+    }
+
+    private double rejected(String rule) {
+        return meterRegistry.get("funds.limits.rejected").tag("rule", rule).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static BatchOperation debit(Long walletId, String amount) {
+        BatchOperation operation = new BatchOperation();
+        operation.setType(TransactionType.DEBIT);
+        operation.setWalletId(walletId);
+        operation.setCurrencyCode("USD");
+        operation.setAmount(new BigDecimal(amount));
+        return operation;
+    }
+
+    private static BatchRequest batch(BatchMode mode, BatchOperation... operations) {
+        BatchRequest request = new BatchRequest();
+        request.setMode(mode);
+        request.setOperations(List.of(operations));
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.funds.service.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class WindowTableTest {
+
+    /**
+     * Tests that a spend counts until the window has moved past its slot and that a spend
+     * given back from an expired slot changes nothing.
+     */
+    @Test
+    public void testSpendsLeaveTheWindow() {
+        // Arrange
+        WindowTable table = new WindowTable(4, 16);
+        table.update(7L, window -> window.plus(10, 10, 500, 1));
+        table.update(7L, window -> window.plus(12, 12, 300, 1));
+
+        // Act & Assert
+        assertEquals(800, table.get(7L).totalAmount(13));
+        assertEquals(2, table.get(7L).totalCount(13));
+        assertEquals(300, table.get(7L).totalAmount(14));
+        assertEquals(0, table.get(7L).totalAmount(16));
+
+        table.update(7L, window -> window.plus(10, 14, -500, -1));
+        assertEquals(300, table.get(7L).totalAmount(14));
+        assertEquals(1, table.get(7L).totalCount(14));
+        assertEquals(0, table.get(8L).totalCount(14));
+    }
+
+    /**
+     * Tests that concurrent capped updates never admit more than the cap, including while the
+     * table grows from its minimum size and while it is compacted.
+     */
+    @Test
+    public void testConcurrentUpdatesRespectTheCap() throws InterruptedException {
+        // Arrange
+        WindowTable table = new WindowTable(8, 16);
+        int threads = 8;
+        int keys = 5_000;
+        int cap = 3;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        int[] admitted = new int[threads];
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (long key = 1; key <= keys; key++) {
+                    if (table.update(key, window -> window.totalCount(1) < cap ? window.plus(1, 1, 1, 1) : null) != null) {
+                        admitted[worker]++;
+                    }
+                    if (worker == 0 && key % 1_000 == 0) {
+                        table.compact(1);
+                    }
+                }
+            }));
+        }
+
+        // Act
+        workers.forEach(Thread::start);
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        int total = 0;
+        for (int count : admitted) {
+            total += count;
+        }
+        assertEquals(keys * cap, total);
+        for (long key = 1; key <= keys; key++) {
+            assertEquals(cap, table.get(key).totalCount(1));
+        }
+        assertEquals(keys, table.size());
+        assertNull(table.update(1L, window -> null));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.funds.service.outbox;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.TransactionType;
+import com.example.funds.repository.OutboxEventRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@H2Test
+@TestPropertySource(properties = {
+        "funds.outbox.sink=memory",
+        "funds.outbox.batch-size=2",
+        "funds.outbox.poll-interval=1h"
+})
+public class OutboxRelayTest {
+
+    @TestConfiguration
+    static class MemorySinkConfiguration {
+        @Bean
+        MemorySink memorySink() {
+            return new MemorySink();
+        }
+    }
+
+    static class MemorySink implements OutboxSink {
+        final BlockingQueue<OutboxMessage> messages = new LinkedBlockingQueue<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @Override
+        public void publish(List<OutboxMessage> batch) throws IOException {
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IOException("Sink unavailable");
+            }
+            messages.addAll(batch);
+        }
+    }
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private MemorySink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEvents;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    private Long sourceWalletId;
+    private Long targetWalletId;
+
+    @BeforeEach
+    public void setUp() {
+        relay.drain();
+        sink.messages.clear();
+        sourceWalletId = TestWallets.create(walletRepository, 1L + System.nanoTime(), "100").getId();
+        targetWalletId = TestWallets.create(walletRepository, 2L + System.nanoTime(), "100").getId();
+    }
+
+    /**
+     * Tests that every completed operation is relayed once, in order, and removed from the outbox.
+     */
+    @Test
+    public void testCompletedOperationsAreRelayed() {
+        // Arrange
+        Transaction credit = fundsService.credit(sourceWalletId, "USD", new BigDecimal("10"));
+        Transaction debit = fundsService.debit(sourceWalletId, "USD", new BigDecimal("3"));
+        Transaction transfer = fundsService.transfer(sourceWalletId, targetWalletId, "USD", new BigDecimal("5"));
+        Transaction reversal = fundsService.reverse(debit.getReferenceId().toString());
+
+        // Act
+        int relayed = relay.drain();
+
+        // Assert
+        assertEquals(4, relayed);
+        List<OutboxMessage> messages = List.copyOf(sink.messages);
+        assertEquals(List.of(credit.getReferenceId(), debit.getReferenceId(), transfer.getReferenceId(), reversal.getReferenceId()),
+                messages.stream().map(OutboxMessage::referenceId).toList());
+        assertEquals(List.of(TransactionType.CREDIT, TransactionType.DEBIT, TransactionType.TRANSFER, TransactionType.REVERSE),
+                messages.stream().map(OutboxMessage::type).toList());
+        assertEquals(targetWalletId, messages.get(2).counterpartyWalletId());
+        assertNull(messages.get(0).originalReferenceId());
+        assertEquals(debit.getReferenceId(), messages.get(3).originalReferenceId());
+        assertEquals(0, outboxEvents.count());
+    }
+
+    /**
+     * Tests that a failed operation leaves no event behind.
+     */
+    @Test
+    public void testFailedOperationWritesNoEvent() {
+        // Act
+        assertThrows(IllegalStateException.class,
+                () -> fundsService.debit(sourceWalletId, "USD", new BigDecimal("1000000")));
+
+        // Assert
+        assertEquals(0, outboxEvents.count());
+    }
+
+    /**
+     * Tests that a batch the sink rejected stays in the outbox and is delivered by the next drain.
+     */
+    @Test
+    public void testFailedPublishIsRetried() {
+        // Arrange
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+        fundsService.credit(sourceWalletId, "USD", BigDecimal.ONE);
+        sink.failuresLeft.set(1);
+
+        // Act
+        relay.poll();
+
+        // Assert
+        assertEquals(0, sink.messages.size());
+        assertEquals(3, outboxEvents.count());
+
+        // Act
+        int relayed = relay.drain();
+
+        // Assert
+        assertEquals(3, relayed);
+        assertEquals(3, sink.messages.size());
+        assertEquals(0, outboxEvents.count());
+    }
+}
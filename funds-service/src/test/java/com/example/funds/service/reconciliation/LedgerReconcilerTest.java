@@ -0,0 +1,88 @@
+package com.example.funds.service.reconciliation;
+
+import com.example.funds.model.Transaction;
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@H2Test
+@TestPropertySource(properties = {
+        "funds.reconciliation.cron=-",
+        "funds.reconciliation.chunk-size=2",
+        "funds.reconciliation.parallelism=2",
+        "funds.reconciliation.max-reported-mismatches=1"
+})
+public class LedgerReconcilerTest {
+
+    @Autowired
+    private LedgerReconciler reconciler;
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    /**
+     * Tests that credits, debits, transfers, reversals and holds all reconcile across chunks, and
+     * that balances changed behind the ledger's back are reported, capped at the configured count.
+     */
+    @Test
+    public void testReconcile() {
+        // Arrange
+        List<Long> walletIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            walletIds.add(TestWallets.create(walletRepository, 100L + i, "0").getId());
+        }
+        Long first = walletIds.get(0);
+        Long last = walletIds.get(4);
+        fundsService.credit(first, "USD", new BigDecimal("100"));
+        fundsService.credit(last, "USD", new BigDecimal("50"));
+        fundsService.debit(first, "USD", new BigDecimal("10.5"));
+        fundsService.transfer(first, last, "USD", new BigDecimal("20"));
+        Transaction reversed = fundsService.transfer(last, first, "USD", new BigDecimal("5"));
+        fundsService.reverse(reversed.getReferenceId().toString());
+        String captured = fundsService.authorize(first, "USD", new BigDecimal("30"), null)
+                .transaction().getReferenceId().toString();
+        fundsService.capture(captured, new BigDecimal("12"));
+        fundsService.authorize(last, "USD", new BigDecimal("7"), null);
+
+        // Act
+        ReconciliationReport clean = reconciler.run();
+
+        // Assert
+        assertEquals(5, clean.wallets());
+        assertEquals(0, clean.mismatchCount());
+        assertEquals(clean, reconciler.latest());
+
+        // Arrange
+        for (Long walletId : List.of(walletIds.get(2), last)) {
+            Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+            wallet.setBalance(Money.add(wallet.getBalance(), Money.of(BigDecimal.ONE)));
+            walletRepository.save(wallet);
+        }
+
+        // Act
+        ReconciliationReport drifted = reconciler.run();
+
+        // Assert
+        assertEquals(2, drifted.mismatchCount());
+        assertEquals(1, drifted.mismatches().size());
+        ReconciliationReport.Mismatch mismatch = drifted.mismatches().get(0);
+        assertEquals(walletIds.get(2).longValue(), mismatch.walletId());
+        assertEquals(0, new BigDecimal("1").compareTo(mismatch.ledgerBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(mismatch.expectedLedgerBalance()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.funds.service.split;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletBalanceSlotRepository;
+import com.example.funds.repository.WalletRepository;
+import com.example.funds.service.FundsService;
+import com.example.funds.support.H2Test;
+import com.example.funds.support.TestWallets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@H2Test
+@TestPropertySource(properties = "funds.split.rebalance-interval=1h")
+public class SplitBalanceServiceTest {
+
+    @Autowired
+    private SplitBalanceService splitBalances;
+
+    @Autowired
+    private FundsService fundsService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Tests that credits to a split wallet land in its sub-balances and leave the main balance alone.
+     */
+    @Test
+    public void testCreditLandsInSlots() {
+        // Arrange
+        Long walletId = splitWallet(1L, "100", 4);
+
+        // Act
+        fundsService.credit(walletId, "USD", BigDecimal.TEN);
+        fundsService.credit(walletId, "USD", BigDecimal.TEN);
+        fundsService.credit(walletId, "USD", BigDecimal.TEN);
+
+        // Assert
+        Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+        assertBalance("100", wallet.getBalance());
+        assertBalance("30", Money.of(slotRepository.sumBalance(walletId)));
+        assertBalance("130", splitBalances.totalBalance(wallet));
+    }
+
+    /**
+     * Tests that a debit larger than the main balance sweeps the sub-balances into it first.
+     */
+    @Test
+    public void testDebitSweepsWhenShort() {
+        // Arrange
+        Long walletId = splitWallet(2L, "100", 4);
+        fundsService.credit(walletId, "USD", new BigDecimal("50"));
+
+        // Act
+        fundsService.debit(walletId, "USD", new BigDecimal("120"));
+
+        // Assert
+        assertBalance("30", walletRepository.findById(walletId).orElseThrow().getBalance());
+        assertBalance("0", Money.of(slotRepository.sumBalance(walletId)));
+    }
+
+    /**
+     * Tests that a transfer into a split wallet credits a sub-balance and debits the source.
+     */
+    @Test
+    public void testTransferIntoSplitWallet() {
+        // Arrange
+        Long sourceWalletId = TestWallets.create(walletRepository, 3L, "40").getId();
+        Long targetWalletId = splitWallet(4L, "0", 2);
+
+        // Act
+        fundsService.transfer(sourceWalletId, targetWalletId, "USD", new BigDecimal("15"));
+
+        // Assert
+        assertBalance("25", walletRepository.findById(sourceWalletId).orElseThrow().getBalance());
+        assertBalance("0", walletRepository.findById(targetWalletId).orElseThrow().getBalance());
+        assertBalance("15", Money.of(slotRepository.sumBalance(targetWalletId)));
+    }
+
+    /**
+     * Tests that the background rebalance moves every sub-balance into the main balance.
+     */
+    @Test
+    public void testRebalanceSweepsSlots() {
+        // Arrange
+        Long walletId = splitWallet(5L, "5", 3);
+        fundsService.credit(walletId, "USD", new BigDecimal("7"));
+        fundsService.credit(walletId, "USD", new BigDecimal("8"));
+
+        // Act
+        splitBalances.rebalance();
+
+        // Assert
+        assertBalance("20", walletRepository.findById(walletId).orElseThrow().getBalance());
+        assertBalance("0", Money.of(slotRepository.sumBalance(walletId)));
+    }
+
+    /**
+     * Tests that a credit routed by a stale registry to a wallet that has since been unsplit is
+     * retried against the main balance instead of upgrading its shared lock.
+     */
+    @Test
+    public void testCreditToWalletUnsplitBehindRegistry() {
+        // Arrange
+        Long walletId = splitWallet(6L, "100", 2);
+        jdbcTemplate.update("DELETE FROM wallet_balance_slot WHERE wallet_id = ?", walletId);
+        jdbcTemplate.update("UPDATE wallet SET balance_slots = 0 WHERE id = ?", walletId);
+
+        // Act
+        fundsService.credit(walletId, "USD", BigDecimal.TEN);
+
+        // Assert
+        assertBalance("110", walletRepository.findById(walletId).orElseThrow().getBalance());
+        assertFalse(splitBalances.isSplit(walletId));
+    }
+
+    private Long splitWallet(long customerId, String balance, int slots) {
+        Long walletId = TestWallets.create(walletRepository, customerId, balance).getId();
+        splitBalances.split(walletId, slots);
+        return walletId;
+    }
+
+    private static void assertBalance(String expected, long actual) {
+        assertEquals(Money.of(new BigDecimal(expected)), actual, () -> "balance was " + Money.toDecimal(actual));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.funds.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link SpringBootTest} on an in-memory {@link TestDatabase}. Test classes add their own
+ * settings with a {@link TestPropertySource} of their own.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest
+@TestPropertySource(properties = {TestDatabase.URL, TestDatabase.DRIVER, TestDatabase.SCHEMA, TestDatabase.MIGRATIONS})
+public @interface H2Test {
+}
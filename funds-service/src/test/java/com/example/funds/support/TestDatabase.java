@@ -0,0 +1,26 @@
+package com.example.funds.support;
+
+import java.util.List;
+
+/**
+ * Settings that run the application against an in-memory H2 database in MySQL mode, with the
+ * schema created from the entities. Each application context gets a database of its own, so
+ * contexts with different properties never see each other's rows or background jobs.
+ */
+public final class TestDatabase {
+    public static final String URL = "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1";
+    public static final String DRIVER = "spring.datasource.driver-class-name=org.h2.Driver";
+    public static final String SCHEMA = "spring.jpa.hibernate.ddl-auto=create-drop";
+    public static final String MIGRATIONS = "spring.flyway.enabled=false";
+
+    private TestDatabase() {
+    }
+
+    /**
+     * The same settings as command-line arguments, for tests that start the application
+     * themselves. {@code urlOptions} are appended to the URL, e.g. {@code LOCK_TIMEOUT=30000}.
+     */
+    public static List<String> arguments(String urlOptions) {
+        return List.of("--" + URL + (urlOptions.isEmpty() ? "" : ";" + urlOptions), "--" + DRIVER, "--" + SCHEMA, "--" + MIGRATIONS);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.funds.support;
+
+import com.example.funds.model.Wallet;
+import com.example.funds.money.Money;
+import com.example.funds.repository.WalletRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * Wallet fixtures for tests that run against a database or a mocked repository.
+ */
+public final class TestWallets {
+
+    private TestWallets() {
+    }
+
+    /**
+     * Saves a USD wallet holding {@code balance}.
+     */
+    public static Wallet create(WalletRepository walletRepository, long customerId, String balance) {
+        return create(walletRepository, customerId, "USD", balance);
+    }
+
+    /**
+     * Saves a wallet in {@code currencyCode} holding {@code balance}.
+     */
+    public static Wallet create(WalletRepository walletRepository, long customerId, String currencyCode,
+                                String balance) {
+        Wallet wallet = new Wallet();
+        wallet.setCustomerId(customerId);
+        wallet.setCurrencyCode(currencyCode);
+        wallet.setBalance(Money.of(new BigDecimal(balance)));
+        return walletRepository.save(wallet);
+    }
+
+    /**
+     * Builds an unsaved USD wallet with a fixed id, for tests that mock the repository.
+     */
+    public static Wallet detached(long id, long customerId, String balance) {
+        Wallet wallet = new Wallet();
+        wallet.setId(id);
+        wallet.setCustomerId(customerId);
+        wallet.setCurrencyCode("USD");
+        wallet.setBalance(Money.of(new BigDecimal(balance)));
+        return wallet;
+    }
+}